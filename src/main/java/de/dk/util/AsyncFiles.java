@@ -0,0 +1,415 @@
+package de.dk.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads, writes and copies files asynchronously with {@link AsynchronousFileChannel}s.
+ * The operations return immediately with a <code>CompletableFuture</code>,
+ * no thread is blocked while the data is transferred.
+ * At most a fixed number of operations are in flight at the same time,
+ * further operations are queued and started as soon as running ones complete.
+ * Every running operation transfers its data through a direct buffer leased from
+ * the shared {@link BufferPool}.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class AsyncFiles {
+   private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+   private static final AsyncFiles SHARED = new AsyncFiles(4 * Runtime.getRuntime().availableProcessors(),
+                                                           BufferPool.DEFAULT_BUFFER_SIZE);
+
+   private final int maxInFlight;
+   private final int bufferSize;
+   private final AtomicInteger inFlight = new AtomicInteger();
+   /** The number of requests to drain the queue, that the draining thread hasn't seen yet. */
+   private final AtomicInteger draining = new AtomicInteger();
+   private final ConcurrentLinkedQueue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+   /**
+    * Creates a new instance, that runs at most <code>maxInFlight</code> operations at the same time.
+    *
+    * @param maxInFlight The maximum number of operations in flight
+    * @param bufferSize The size of the direct buffers the data is transferred through
+    *
+    * @throws IllegalArgumentException if <code>maxInFlight &lt; 1</code> or <code>bufferSize &lt; 1</code>
+    */
+   public AsyncFiles(int maxInFlight, int bufferSize) throws IllegalArgumentException {
+      if (maxInFlight < 1)
+         throw new IllegalArgumentException("maxInFlight must be positive. Was " + maxInFlight);
+      if (bufferSize < 1)
+         throw new IllegalArgumentException("bufferSize must be positive. Was " + bufferSize);
+
+      this.maxInFlight = maxInFlight;
+      this.bufferSize = bufferSize;
+   }
+
+   /**
+    * Get the instance used by the async methods of {@link FileUtils}.
+    * It runs up to four operations per available processor at the same time.
+    *
+    * @return The shared instance
+    */
+   public static AsyncFiles shared() {
+      return SHARED;
+   }
+
+   /**
+    * Reads the content of the file.
+    *
+    * @param path The file to read
+    *
+    * @return A future of the content of the file, that completes exceptionally
+    * with an <code>IOException</code> if the file cannot be read
+    */
+   public CompletableFuture<byte[]> readAsync(Path path) {
+      return submit(new Read(path));
+   }
+
+   /**
+    * Writes the <code>data</code> to the file.
+    * If the file exists it is overwritten, otherwise it is created.
+    *
+    * @param path The file to write
+    * @param data The data to write
+    *
+    * @return A future of the number of written bytes, that completes exceptionally
+    * with an <code>IOException</code> if the file cannot be written
+    */
+   public CompletableFuture<Long> writeAsync(Path path, byte[] data) {
+      return writeAsync(path, ByteBuffer.wrap(data));
+   }
+
+   /**
+    * Writes the remaining bytes of <code>data</code> to the file.
+    * If the file exists it is overwritten, otherwise it is created.
+    * The position of <code>data</code> is not changed,
+    * but the buffer must not be modified until the returned future completes.
+    *
+    * @param path The file to write
+    * @param data The data to write
+    *
+    * @return A future of the number of written bytes, that completes exceptionally
+    * with an <code>IOException</code> if the file cannot be written
+    */
+   public CompletableFuture<Long> writeAsync(Path path, ByteBuffer data) {
+      return submit(new Write(path, data.duplicate()));
+   }
+
+   /**
+    * Copies the content of the <code>source</code> file to the <code>target</code> file.
+    * If the target file exists it is overwritten, otherwise it is created.
+    *
+    * @param source The file to copy
+    * @param target The file to copy to
+    *
+    * @return A future of the number of copied bytes, that completes exceptionally
+    * with an <code>IOException</code> if the file cannot be copied
+    */
+   public CompletableFuture<Long> copyAsync(Path source, Path target) {
+      return submit(new Copy(source, target));
+   }
+
+   /**
+    * Get the number of operations running at the moment.
+    *
+    * @return The number of operations in flight
+    */
+   public int getInFlight() {
+      return inFlight.get();
+   }
+
+   /**
+    * Get the maximum number of operations running at the same time.
+    *
+    * @return The maximum number of operations in flight
+    */
+   public int getMaxInFlight() {
+      return maxInFlight;
+   }
+
+   private <T> CompletableFuture<T> submit(Operation<T> operation) {
+      pending.add(operation);
+      drain();
+      return operation.future;
+   }
+
+   /**
+    * Starts queued operations while there are free slots.
+    * Only one thread drains at a time. Operations, that complete while starting,
+    * call this method again, which only makes the draining thread loop once more,
+    * so queued operations are never started recursively.
+    */
+   private void drain() {
+      if (draining.getAndIncrement() != 0)
+         return;
+
+      int missed = 1;
+      do {
+         while (!pending.isEmpty()) {
+            int running = inFlight.get();
+            if (running >= maxInFlight)
+               break;
+            if (!inFlight.compareAndSet(running, running + 1))
+               continue;
+
+            Runnable operation = pending.poll();
+            if (operation == null)
+               inFlight.decrementAndGet();
+            else
+               operation.run();
+         }
+         missed = draining.addAndGet(-missed);
+      } while (missed != 0);
+   }
+
+   private static AsynchronousFileChannel open(Path path, StandardOpenOption... options) throws IOException {
+      return AsynchronousFileChannel.open(path, options);
+   }
+
+   // ByteBuffer methods are called through Buffer to stay binary compatible with Java 8
+   private static void clear(Buffer buffer) {
+      buffer.clear();
+   }
+
+   private static void flip(Buffer buffer) {
+      buffer.flip();
+   }
+
+   private abstract class Operation<T> implements Runnable, CompletionHandler<Integer, Void> {
+      protected final CompletableFuture<T> future = new CompletableFuture<>();
+      private final List<Closeable> channels = new ArrayList<>(2);
+      private BufferPool.Lease lease;
+      protected ByteBuffer buffer;
+      private boolean done;
+
+      @Override
+      public void run() {
+         try {
+            lease = BufferPool.shared().leaseDirect(bufferSize);
+            buffer = lease.buffer();
+            start();
+         } catch (Throwable e) {
+            fail(e);
+         }
+      }
+
+      protected abstract void start() throws IOException;
+
+      protected abstract void step(int count) throws IOException;
+
+      protected AsynchronousFileChannel channel(Path path, StandardOpenOption... options) throws IOException {
+         AsynchronousFileChannel channel = open(path, options);
+         channels.add(channel);
+         return channel;
+      }
+
+      @Override
+      public void completed(Integer count, Void attachment) {
+         try {
+            step(count);
+         } catch (Throwable e) {
+            fail(e);
+         }
+      }
+
+      @Override
+      public void failed(Throwable e, Void attachment) {
+         fail(e);
+      }
+
+      protected void finish(T result) {
+         release(() -> future.complete(result));
+      }
+
+      private void fail(Throwable e) {
+         release(() -> future.completeExceptionally(e));
+      }
+
+      /**
+       * Releases the resources and the slot of this operation and then completes its future,
+       * even if releasing a resource fails.
+       */
+      private void release(Runnable completion) {
+         if (done)
+            return;
+
+         done = true;
+         try {
+            for (Closeable channel : channels) {
+               try {
+                  channel.close();
+               } catch (IOException e) {
+                  // Nothing left to do with the channel
+               }
+            }
+            if (lease != null)
+               lease.close();
+            buffer = null;
+         } finally {
+            inFlight.decrementAndGet();
+            try {
+               completion.run();
+            } finally {
+               drain();
+            }
+         }
+      }
+   }
+
+   private class Read extends Operation<byte[]> {
+      private final Path path;
+      private AsynchronousFileChannel channel;
+      private byte[] data;
+      private int length;
+
+      private Read(Path path) {
+         this.path = path;
+      }
+
+      @Override
+      protected void start() throws IOException {
+         this.channel = channel(path, StandardOpenOption.READ);
+         long size = channel.size();
+         if (size > MAX_ARRAY_SIZE)
+            throw new IOException("File too large (" + size + " bytes).");
+
+         this.data = new byte[(int) size];
+         readNext();
+      }
+
+      private void readNext() {
+         clear(buffer);
+         channel.read(buffer, length, null, this);
+      }
+
+      @Override
+      protected void step(int count) throws IOException {
+         if (count < 0) {
+            finish(length == data.length ? data : Arrays.copyOf(data, length));
+            return;
+         }
+
+         if (count > data.length - length) {
+            // The file has grown since it was opened
+            if (count > MAX_ARRAY_SIZE - length)
+               throw new IOException("File too large to be read into an array.");
+
+            data = Arrays.copyOf(data, (int) Math.min(MAX_ARRAY_SIZE, Math.max((long) length + count, length * 2L)));
+         }
+         flip(buffer);
+         buffer.get(data, length, count);
+         length += count;
+         readNext();
+      }
+   }
+
+   private class Write extends Operation<Long> {
+      private final Path path;
+      private final ByteBuffer data;
+      private AsynchronousFileChannel channel;
+      private long position;
+
+      private Write(Path path, ByteBuffer data) {
+         this.path = path;
+         this.data = data;
+      }
+
+      @Override
+      protected void start() throws IOException {
+         this.channel = channel(path,
+                                StandardOpenOption.WRITE,
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.TRUNCATE_EXISTING);
+         clear(buffer);
+         flip(buffer);
+         writeNext();
+      }
+
+      private void writeNext() {
+         if (!buffer.hasRemaining()) {
+            if (!data.hasRemaining()) {
+               finish(position);
+               return;
+            }
+
+            clear(buffer);
+            int count = Math.min(buffer.remaining(), data.remaining());
+            ByteBuffer part = data.duplicate();
+            ((Buffer) part).limit(part.position() + count);
+            buffer.put(part);
+            ((Buffer) data).position(data.position() + count);
+            flip(buffer);
+         }
+         channel.write(buffer, position, null, this);
+      }
+
+      @Override
+      protected void step(int count) {
+         position += count;
+         writeNext();
+      }
+   }
+
+   private class Copy extends Operation<Long> {
+      private final Path source;
+      private final Path target;
+      private AsynchronousFileChannel in;
+      private AsynchronousFileChannel out;
+      private long position;
+      private boolean writing;
+
+      private Copy(Path source, Path target) {
+         this.source = source;
+         this.target = target;
+      }
+
+      @Override
+      protected void start() throws IOException {
+         this.in = channel(source, StandardOpenOption.READ);
+         this.out = channel(target,
+                            StandardOpenOption.WRITE,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING);
+         readNext();
+      }
+
+      private void readNext() {
+         writing = false;
+         clear(buffer);
+         in.read(buffer, position, null, this);
+      }
+
+      @Override
+      protected void step(int count) {
+         if (!writing) {
+            if (count < 0) {
+               finish(position);
+               return;
+            }
+            writing = true;
+            flip(buffer);
+         } else {
+            position += count;
+            if (!buffer.hasRemaining()) {
+               readNext();
+               return;
+            }
+         }
+         out.write(buffer, position, null, this);
+      }
+   }
+}
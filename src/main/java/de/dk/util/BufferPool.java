@@ -0,0 +1,283 @@
+package de.dk.util;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of reusable heap and direct byte buffers, that is used for transferring data
+ * between streams and files, so not every transfer has to allocate its own buffer.
+ * The buffers are pooled in size classes of powers of two, from {@link #MIN_CLASS_SIZE}
+ * up to the size class of the default buffer size or {@link #MAX_CLASS_SIZE}, whatever is larger.
+ * A leased buffer has at least the requested size, larger requests are not pooled.
+ * Each thread keeps one buffer of each kind and size class cached,
+ * further buffers are kept in global queues of bounded size.
+ * A buffer is leased with one of the <code>lease</code> methods and returned to the pool
+ * by closing the {@link Lease}, which is meant to be done in a try-with-resources statement.
+ * A buffer must not be used after its lease has been closed.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class BufferPool {
+   /** The default size of the buffers of the shared pool. */
+   public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+   /** The size of the smallest size class. */
+   public static final int MIN_CLASS_SIZE = 1024;
+   /** The size of the largest size class of a pool with a smaller default buffer size. */
+   public static final int MAX_CLASS_SIZE = 1024 * 1024;
+
+   private static final int MIN_CLASS_SHIFT = Integer.numberOfTrailingZeros(MIN_CLASS_SIZE);
+   private static final BufferPool SHARED = new BufferPool(DEFAULT_BUFFER_SIZE, 64);
+
+   private final int bufferSize;
+   private final int maxPooled;
+   private final int classCount;
+   /** Indexed by <code>sizeClass * 2 + (direct ? 1 : 0)</code>. */
+   private final ConcurrentLinkedQueue<ByteBuffer>[] pools;
+   private final AtomicInteger[] pooled;
+   private final ThreadLocal<ByteBuffer[]> cache;
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+   private final AtomicLong outstandingBytes = new AtomicLong();
+
+   /**
+    * Creates a new pool.
+    *
+    * @param bufferSize The size of the buffers leased by {@link #lease()} and {@link #leaseDirect()}
+    * @param maxPooled The maximum number of buffers of each kind and size class kept in the global queues,
+    * in addition to the buffers cached by each thread
+    *
+    * @throws IllegalArgumentException if <code>bufferSize &lt; 1</code>, <code>bufferSize</code>
+    * exceeds the largest power of two of an int or <code>maxPooled &lt; 0</code>
+    */
+   @SuppressWarnings({"unchecked", "rawtypes"})
+   public BufferPool(int bufferSize, int maxPooled) throws IllegalArgumentException {
+      if (bufferSize < 1 || bufferSize > 1 << 30)
+         throw new IllegalArgumentException("bufferSize must be between 1 and 2^30. Was " + bufferSize);
+      if (maxPooled < 0)
+         throw new IllegalArgumentException("maxPooled must not be negative. Was " + maxPooled);
+
+      this.bufferSize = bufferSize;
+      this.maxPooled = maxPooled;
+      this.classCount = sizeClassOf(Math.max(bufferSize, MAX_CLASS_SIZE)) + 1;
+      this.pools = new ConcurrentLinkedQueue[classCount * 2];
+      this.pooled = new AtomicInteger[classCount * 2];
+      for (int i = 0; i < pools.length; i++) {
+         pools[i] = new ConcurrentLinkedQueue<>();
+         pooled[i] = new AtomicInteger();
+      }
+      this.cache = ThreadLocal.withInitial(() -> new ByteBuffer[classCount * 2]);
+   }
+
+   /**
+    * Get the pool shared by the transfer methods of this library.
+    *
+    * @return The shared pool
+    */
+   public static BufferPool shared() {
+      return SHARED;
+   }
+
+   private static int sizeClassOf(int size) {
+      if (size <= MIN_CLASS_SIZE)
+         return 0;
+
+      return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_CLASS_SHIFT;
+   }
+
+   /**
+    * Leases a heap buffer of the default size from this pool.
+    * If no pooled buffer is available a new one is allocated.
+    *
+    * @return The lease of the buffer, which returns the buffer to the pool when closed
+    */
+   public Lease lease() {
+      return lease(bufferSize, false);
+   }
+
+   /**
+    * Leases a heap buffer of at least <code>minSize</code> bytes from this pool.
+    * If no pooled buffer is available a new one is allocated.
+    *
+    * @param minSize The minimum size of the buffer
+    *
+    * @return The lease of the buffer, which returns the buffer to the pool when closed
+    *
+    * @throws IllegalArgumentException if <code>minSize</code> is negative
+    */
+   public Lease lease(int minSize) throws IllegalArgumentException {
+      return lease(minSize, false);
+   }
+
+   /**
+    * Leases a direct buffer of the default size from this pool.
+    * If no pooled buffer is available a new one is allocated.
+    *
+    * @return The lease of the buffer, which returns the buffer to the pool when closed
+    */
+   public Lease leaseDirect() {
+      return lease(bufferSize, true);
+   }
+
+   /**
+    * Leases a direct buffer of at least <code>minSize</code> bytes from this pool.
+    * If no pooled buffer is available a new one is allocated.
+    *
+    * @param minSize The minimum size of the buffer
+    *
+    * @return The lease of the buffer, which returns the buffer to the pool when closed
+    *
+    * @throws IllegalArgumentException if <code>minSize</code> is negative
+    */
+   public Lease leaseDirect(int minSize) throws IllegalArgumentException {
+      return lease(minSize, true);
+   }
+
+   private Lease lease(int minSize, boolean direct) throws IllegalArgumentException {
+      if (minSize < 0)
+         throw new IllegalArgumentException("minSize must not be negative. Was " + minSize);
+
+      int sizeClass = sizeClassOf(minSize);
+      ByteBuffer buffer = null;
+      if (sizeClass < classCount) {
+         int index = sizeClass * 2 + (direct ? 1 : 0);
+         ByteBuffer[] cached = cache.get();
+         buffer = cached[index];
+         if (buffer != null) {
+            cached[index] = null;
+         } else {
+            buffer = pools[index].poll();
+            if (buffer != null)
+               pooled[index].decrementAndGet();
+         }
+      }
+
+      if (buffer != null) {
+         hits.increment();
+         ((Buffer) buffer).clear();
+      } else {
+         misses.increment();
+         int size = sizeClass < classCount ? MIN_CLASS_SIZE << sizeClass : minSize;
+         buffer = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+      }
+      outstandingBytes.addAndGet(buffer.capacity());
+      return new Lease(buffer, sizeClass);
+   }
+
+   private void release(ByteBuffer buffer, int sizeClass) {
+      outstandingBytes.addAndGet(-buffer.capacity());
+      if (sizeClass >= classCount)
+         return;
+
+      int index = sizeClass * 2 + (buffer.isDirect() ? 1 : 0);
+      ByteBuffer[] cached = cache.get();
+      if (cached[index] == null) {
+         cached[index] = buffer;
+      } else if (pooled[index].incrementAndGet() <= maxPooled) {
+         pools[index].offer(buffer);
+      } else {
+         pooled[index].decrementAndGet();
+      }
+   }
+
+   /**
+    * Get the default size of the buffers of this pool.
+    *
+    * @return The default buffer size
+    */
+   public int getBufferSize() {
+      return bufferSize;
+   }
+
+   /**
+    * Get the number of leases, that got a pooled buffer.
+    *
+    * @return The number of hits
+    */
+   public long getHits() {
+      return hits.sum();
+   }
+
+   /**
+    * Get the number of leases, that had to allocate a new buffer.
+    *
+    * @return The number of misses
+    */
+   public long getMisses() {
+      return misses.sum();
+   }
+
+   /**
+    * Get the sum of the capacities of the buffers, that are leased at the moment.
+    *
+    * @return The number of bytes of leases, that have not been closed yet
+    */
+   public long getOutstandingBytes() {
+      return outstandingBytes.get();
+   }
+
+   @Override
+   public String toString() {
+      return "BufferPool { bufferSize=" + bufferSize
+             + ", hits=" + getHits()
+             + ", misses=" + getMisses()
+             + ", outstandingBytes=" + getOutstandingBytes() + " }";
+   }
+
+   /**
+    * A buffer leased from a {@link BufferPool}.
+    */
+   public class Lease implements AutoCloseable {
+      private final int sizeClass;
+      private ByteBuffer buffer;
+
+      private Lease(ByteBuffer buffer, int sizeClass) {
+         this.buffer = buffer;
+         this.sizeClass = sizeClass;
+      }
+
+      /**
+       * Get the leased buffer. The buffer is cleared when it is leased.
+       * Its capacity may be larger than the requested size.
+       *
+       * @return The leased buffer
+       *
+       * @throws IllegalStateException if this lease has already been closed
+       */
+      public ByteBuffer buffer() throws IllegalStateException {
+         if (buffer == null)
+            throw new IllegalStateException("Lease already closed.");
+
+         return buffer;
+      }
+
+      /**
+       * Get the array of the leased heap buffer.
+       * Its length may be larger than the requested size.
+       *
+       * @return The array of the leased buffer
+       *
+       * @throws IllegalStateException if this lease has already been closed
+       * @throws UnsupportedOperationException if the leased buffer is a direct buffer
+       */
+      public byte[] array() throws IllegalStateException, UnsupportedOperationException {
+         return buffer().array();
+      }
+
+      /**
+       * Returns the buffer to the pool. Closing a lease more than once has no effect.
+       */
+      @Override
+      public void close() {
+         if (buffer == null)
+            return;
+
+         release(buffer, sizeClass);
+         buffer = null;
+      }
+   }
+}
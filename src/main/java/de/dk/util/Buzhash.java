@@ -0,0 +1,122 @@
+package de.dk.util;
+
+import java.util.Random;
+
+/**
+ * A rolling hash over a sliding window of bytes, also known as cyclic polynomial hash.
+ * The hash of the window is updated in constant time whenever a byte is added,
+ * no matter how large the window is.
+ * Every byte is mapped to a random 64 bit value by a fixed table,
+ * so equal windows always produce equal hashes, also across different runs of the program.
+ * An instance is not thread safe.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class Buzhash {
+   private static final long[] TABLE = new long[256];
+
+   static {
+      Random rnd = new Random(0x6275_7A68_6173_68L);
+      for (int i = 0; i < TABLE.length; i++)
+         TABLE[i] = rnd.nextLong();
+   }
+
+   private final byte[] window;
+   private final int outRotation;
+   private int position;
+   private int filled;
+   private long hash;
+
+   /**
+    * Creates a new rolling hash over a window of <code>windowSize</code> bytes.
+    *
+    * @param windowSize The number of bytes in the window
+    *
+    * @throws IllegalArgumentException if <code>windowSize &lt; 1</code>
+    */
+   public Buzhash(int windowSize) throws IllegalArgumentException {
+      if (windowSize < 1)
+         throw new IllegalArgumentException("windowSize must be positive. Was " + windowSize);
+
+      this.window = new byte[windowSize];
+      this.outRotation = windowSize & 63;
+   }
+
+   /**
+    * Computes the hash of <code>length</code> bytes of <code>data</code> starting at <code>offset</code>.
+    * The result is equal to the hash of a <code>Buzhash</code> with a window size of
+    * <code>length</code>, that has rolled over exactly these bytes.
+    *
+    * @param data The data to be hashed
+    * @param offset The index of the first byte
+    * @param length The number of bytes
+    *
+    * @return The hash of the bytes
+    */
+   public static long hash(byte[] data, int offset, int length) {
+      long hash = 0;
+      for (int i = offset; i < offset + length; i++)
+         hash = Long.rotateLeft(hash, 1) ^ TABLE[data[i] & 0xFF];
+
+      return hash;
+   }
+
+   /**
+    * Adds the byte <code>in</code> to the window. If the window is full,
+    * its oldest byte is removed.
+    *
+    * @param in The byte to add
+    *
+    * @return The hash of the window after adding the byte
+    */
+   public long roll(byte in) {
+      hash = Long.rotateLeft(hash, 1) ^ TABLE[in & 0xFF];
+      if (filled == window.length)
+         hash ^= Long.rotateLeft(TABLE[window[position] & 0xFF], outRotation);
+      else
+         filled++;
+
+      window[position] = in;
+      if (++position == window.length)
+         position = 0;
+
+      return hash;
+   }
+
+   /**
+    * Get the hash of the current window.
+    *
+    * @return The current hash
+    */
+   public long getHash() {
+      return hash;
+   }
+
+   /**
+    * Get if the window is completely filled, so the hash covers <code>windowSize</code> bytes.
+    *
+    * @return <code>true</code> if the window is full
+    */
+   public boolean isFull() {
+      return filled == window.length;
+   }
+
+   /**
+    * Empties the window.
+    */
+   public void reset() {
+      this.position = 0;
+      this.filled = 0;
+      this.hash = 0;
+   }
+
+   /**
+    * Get the size of the window.
+    *
+    * @return The number of bytes in a full window
+    */
+   public int getWindowSize() {
+      return window.length;
+   }
+}
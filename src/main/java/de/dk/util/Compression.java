@@ -0,0 +1,227 @@
+package de.dk.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A compression stage, that can be attached to the transfers of {@link IO} and {@link FileUtils}.
+ * Subclasses wrap the target of a transfer in a compressing stream
+ * and the source of a transfer in a decompressing stream.
+ * The formats of the JDK are provided by the static factory methods.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public abstract class Compression {
+
+   /**
+    * Creates a new compression.
+    */
+   protected Compression() {
+
+   }
+
+   /**
+    * Wraps <code>out</code> in a stream, that compresses the data written to it.
+    * Closing the returned stream finishes the compressed data and closes <code>out</code>.
+    *
+    * @param out The stream to write the compressed data to
+    *
+    * @return The compressing stream
+    *
+    * @throws IOException If an I/O error occurs
+    */
+   public abstract OutputStream compress(OutputStream out) throws IOException;
+
+   /**
+    * Wraps <code>in</code> in a stream, that decompresses the data read from it.
+    *
+    * @param in The stream of compressed data
+    *
+    * @return The decompressing stream
+    *
+    * @throws IOException If an I/O error occurs, e.g. if the data has not the expected format
+    */
+   public abstract InputStream decompress(InputStream in) throws IOException;
+
+   /**
+    * Get the file name extension of files in the format of this compression, including the dot.
+    *
+    * @return The file name extension, that is empty if the data is not changed
+    */
+   public String getExtension() {
+      return "";
+   }
+
+   /**
+    * Get a compression, that doesn't compress at all.
+    * It can be used where a compression is required, but the data should be stored as it is.
+    *
+    * @return The store only compression
+    */
+   public static Compression store() {
+      return Store.INSTANCE;
+   }
+
+   /**
+    * Get a compression in the zlib format of {@link DeflaterOutputStream}.
+    *
+    * @param level The compression level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+    *
+    * @return The deflate compression
+    *
+    * @throws IllegalArgumentException if the level is invalid
+    */
+   public static Compression deflate(int level) throws IllegalArgumentException {
+      checkLevel(level);
+      return new Compression() {
+         @Override
+         public OutputStream compress(OutputStream out) {
+            Deflater deflater = new Deflater(level);
+            return new DeflaterOutputStream(out, deflater, BufferPool.DEFAULT_BUFFER_SIZE) {
+               @Override
+               public void close() throws IOException {
+                  try {
+                     super.close();
+                  } finally {
+                     deflater.end();
+                  }
+               }
+            };
+         }
+
+         @Override
+         public InputStream decompress(InputStream in) {
+            return new InflaterInputStream(in);
+         }
+
+         @Override
+         public String getExtension() {
+            return ".zz";
+         }
+
+         @Override
+         public String toString() {
+            return "Compression { format=deflate, level=" + level + " }";
+         }
+      };
+   }
+
+   /**
+    * Get a compression in the GZIP format with the default compression level.
+    *
+    * @return The GZIP compression
+    */
+   public static Compression gzip() {
+      return gzip(Deflater.DEFAULT_COMPRESSION);
+   }
+
+   /**
+    * Get a compression in the GZIP format.
+    *
+    * @param level The compression level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+    *
+    * @return The GZIP compression
+    *
+    * @throws IllegalArgumentException if the level is invalid
+    */
+   public static Compression gzip(int level) throws IllegalArgumentException {
+      checkLevel(level);
+      return new Gzip() {
+         @Override
+         public OutputStream compress(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BufferPool.DEFAULT_BUFFER_SIZE) {
+               {
+                  def.setLevel(level);
+               }
+            };
+         }
+
+         @Override
+         public String toString() {
+            return "Compression { format=gzip, level=" + level + " }";
+         }
+      };
+   }
+
+   /**
+    * Get a compression in the GZIP format, that compresses blocks of the data in parallel
+    * in the {@link java.util.concurrent.ForkJoinPool#commonPool()}, like pigz does.
+    * The compressed data is a single standard GZIP member, that can be decompressed
+    * by any GZIP implementation. It is slightly larger than the data compressed sequentially.
+    *
+    * @param level The compression level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+    *
+    * @return The parallel GZIP compression
+    *
+    * @throws IllegalArgumentException if the level is invalid
+    *
+    * @see ParallelGzipOutputStream
+    */
+   public static Compression parallelGzip(int level) throws IllegalArgumentException {
+      checkLevel(level);
+      return new Gzip() {
+         @Override
+         public OutputStream compress(OutputStream out) throws IOException {
+            return new ParallelGzipOutputStream(out, level);
+         }
+
+         @Override
+         public String toString() {
+            return "Compression { format=gzip, level=" + level + ", parallel }";
+         }
+      };
+   }
+
+   private static void checkLevel(int level) throws IllegalArgumentException {
+      if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) && level != Deflater.DEFAULT_COMPRESSION)
+         throw new IllegalArgumentException("Invalid compression level: " + level);
+   }
+
+   /**
+    * The decompression of the GZIP format.
+    */
+   private static abstract class Gzip extends Compression {
+      @Override
+      public InputStream decompress(InputStream in) throws IOException {
+         return new GZIPInputStream(in, BufferPool.DEFAULT_BUFFER_SIZE);
+      }
+
+      @Override
+      public String getExtension() {
+         return ".gz";
+      }
+   }
+
+   /**
+    * The compression, that doesn't change the data.
+    */
+   private static final class Store extends Compression {
+      private static final Store INSTANCE = new Store();
+
+      private Store() {
+
+      }
+
+      @Override
+      public OutputStream compress(OutputStream out) {
+         return out;
+      }
+
+      @Override
+      public InputStream decompress(InputStream in) {
+         return in;
+      }
+
+      @Override
+      public String toString() {
+         return "Compression { format=store }";
+      }
+   }
+}
@@ -0,0 +1,163 @@
+package de.dk.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.dk.util.function.UnsafeConsumer;
+
+/**
+ * Splits byte streams into chunks, whose boundaries are determined by the content of the stream
+ * instead of fixed offsets. A boundary is set where the {@link Buzhash} of the last 48 bytes
+ * matches a bit mask, so inserting or removing bytes only changes the chunks around the edit,
+ * while all the other chunks stay the same. This makes the chunks well suited for deduplication.
+ * The size of each chunk is between a minimum and a maximum size, the average size is configurable.<br>
+ * The chunker keeps the state of the current chunk, so data can be passed to
+ * {@link #findBoundary(byte[], int, int)} in pieces. An instance is not thread safe.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class ContentDefinedChunker {
+   private static final int WINDOW_SIZE = 48;
+   private static final int BUFFER_SIZE = 8192;
+
+   private final int minSize;
+   private final int maxSize;
+   private final long mask;
+   private final Buzhash hash = new Buzhash(WINDOW_SIZE);
+   private int chunkSize;
+
+   /**
+    * Creates a new chunker.
+    *
+    * @param minSize The minimum size of a chunk. Only the last chunk of a stream may be smaller.
+    * @param averageSize The desired average size of a chunk, which is rounded down to a power of 2
+    * @param maxSize The maximum size of a chunk
+    *
+    * @throws IllegalArgumentException if <code>minSize &lt; 1</code>
+    * or the sizes are not in ascending order
+    */
+   public ContentDefinedChunker(int minSize, int averageSize, int maxSize) throws IllegalArgumentException {
+      if (minSize < 1 || minSize > averageSize || averageSize > maxSize) {
+         String msg = String.format("Invalid chunk sizes: min=%s, average=%s, max=%s", minSize, averageSize, maxSize);
+         throw new IllegalArgumentException(msg);
+      }
+
+      this.minSize = minSize;
+      this.maxSize = maxSize;
+      this.mask = Integer.highestOneBit(averageSize) - 1;
+   }
+
+   /**
+    * Creates a new chunker with a minimum size of 2 KiB, an average size of 8 KiB
+    * and a maximum size of 64 KiB.
+    */
+   public ContentDefinedChunker() {
+      this(2048, 8192, 65536);
+   }
+
+   /**
+    * Searches the next chunk boundary in <code>length</code> bytes of <code>data</code>
+    * starting at <code>offset</code>. The bytes passed to previous calls, that did not contain
+    * a boundary, are considered as the start of the current chunk.
+    *
+    * @param data The data to be searched
+    * @param offset The index of the first byte to be searched
+    * @param length The number of bytes to be searched
+    *
+    * @return The index after the last byte of the current chunk
+    * or -1 if the current chunk does not end within the given range
+    */
+   public int findBoundary(byte[] data, int offset, int length) {
+      int end = offset + length;
+      for (int i = offset; i < end; i++) {
+         long h = hash.roll(data[i]);
+         if (++chunkSize >= minSize && ((h & mask) == mask || chunkSize >= maxSize)) {
+            reset();
+            return i + 1;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Starts a new chunk, discarding the state of the current one.
+    */
+   public void reset() {
+      this.chunkSize = 0;
+      hash.reset();
+   }
+
+   /**
+    * Reads the stream until its end and passes each chunk to the <code>consumer</code>.
+    * The stream is not closed by this method.
+    *
+    * @param in The stream to be split
+    * @param consumer The consumer of the chunks
+    * @param <E> The type of exception thrown by the <code>consumer</code>
+    *
+    * @throws IOException If an I/O error occurs while reading
+    * @throws E If the consumer throws an exception
+    */
+   public <E extends Exception> void split(InputStream in, UnsafeConsumer<byte[], E> consumer) throws IOException, E {
+      reset();
+      byte[] buf = new byte[BUFFER_SIZE];
+      ByteArrayOutputStream chunk = new ByteArrayOutputStream(maxSize);
+      for (int len = in.read(buf); len != -1; len = in.read(buf)) {
+         int offset = 0;
+         while (offset < len) {
+            int boundary = findBoundary(buf, offset, len - offset);
+            if (boundary == -1) {
+               chunk.write(buf, offset, len - offset);
+               break;
+            }
+            chunk.write(buf, offset, boundary - offset);
+            consumer.accept(chunk.toByteArray());
+            chunk.reset();
+            offset = boundary;
+         }
+      }
+      if (chunk.size() > 0)
+         consumer.accept(chunk.toByteArray());
+
+      reset();
+   }
+
+   /**
+    * Reads the stream until its end and determines the offsets of the chunk boundaries.
+    * The stream is not closed by this method.
+    *
+    * @param in The stream to be inspected
+    *
+    * @return The offsets after the end of each chunk in ascending order.
+    * The last element is the length of the stream, unless it is empty.
+    *
+    * @throws IOException If an I/O error occurs while reading
+    */
+   public List<Long> boundariesOf(InputStream in) throws IOException {
+      reset();
+      List<Long> boundaries = new ArrayList<>();
+      byte[] buf = new byte[BUFFER_SIZE];
+      long position = 0;
+      for (int len = in.read(buf); len != -1; len = in.read(buf)) {
+         int offset = 0;
+         while (offset < len) {
+            int boundary = findBoundary(buf, offset, len - offset);
+            if (boundary == -1)
+               break;
+
+            boundaries.add(position + boundary);
+            offset = boundary;
+         }
+         position += len;
+      }
+      if (chunkSize > 0)
+         boundaries.add(position);
+
+      reset();
+      return boundaries;
+   }
+}
@@ -0,0 +1,270 @@
+package de.dk.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Calculates hashes of the content of streams, files and directory trees
+ * with any <code>MessageDigest</code> algorithm or the fast non-cryptographic {@link XXHash64}.
+ * The content is never read into memory as a whole. Small files are read through a pooled buffer,
+ * larger files are mapped into memory.
+ * <p>
+ * The hash of a directory is the root of a Merkle tree: it is the hash of the names,
+ * types and hashes of its entries, sorted by name. Files are hashed by their content,
+ * subdirectories recursively and symbolic links by their target path, without following them.
+ * So two directories have the same hash if and only if they contain the same tree of files,
+ * regardless of the attributes of the files. The files of a tree are hashed in parallel.
+ * </p>
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class ContentHasher {
+   private static final int MAP_THRESHOLD = 1024 * 1024;
+   private static final byte TYPE_FILE = 0;
+   private static final byte TYPE_DIRECTORY = 1;
+   private static final byte TYPE_LINK = 2;
+   private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+   private final String algorithm;
+
+   /**
+    * Creates a new hasher using the <code>MessageDigest</code> algorithm with the given name,
+    * e.g. <code>"SHA-256"</code>, or {@link XXHash64#ALGORITHM}.
+    *
+    * @param algorithm The name of the algorithm
+    *
+    * @throws IllegalArgumentException if the algorithm is not available
+    */
+   public ContentHasher(String algorithm) throws IllegalArgumentException {
+      this.algorithm = algorithm;
+      // Fails early for unknown algorithms
+      newDigest();
+   }
+
+   /**
+    * Creates a new hasher using the fast non-cryptographic {@link XXHash64}.
+    * It is meant for checksums and change detection, but not to protect against
+    * deliberate manipulations.
+    *
+    * @return A new hasher using XXH64
+    */
+   public static ContentHasher fast() {
+      return new ContentHasher(XXHash64.ALGORITHM);
+   }
+
+   /**
+    * Formats the hash as a string of lower case hexadecimal digits.
+    *
+    * @param hash The hash to format
+    *
+    * @return The hexadecimal representation of the hash
+    */
+   public static String toHex(byte[] hash) {
+      char[] chars = new char[hash.length * 2];
+      for (int i = 0; i < hash.length; i++) {
+         chars[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+         chars[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xF];
+      }
+      return new String(chars);
+   }
+
+   /**
+    * Creates a new digest of the algorithm of this hasher.
+    *
+    * @return A new <code>MessageDigest</code>
+    */
+   public MessageDigest newDigest() {
+      if (XXHash64.ALGORITHM.equals(algorithm))
+         return new XXHash64();
+
+      try {
+         return MessageDigest.getInstance(algorithm);
+      } catch (NoSuchAlgorithmException e) {
+         throw new IllegalArgumentException("Unknown hash algorithm: " + algorithm, e);
+      }
+   }
+
+   /**
+    * Hashes the content of the stream until its end. The stream is not closed.
+    *
+    * @param in The stream to hash
+    *
+    * @return The hash of the content
+    *
+    * @throws IOException If an I/O error occurs
+    */
+   public byte[] hash(InputStream in) throws IOException {
+      MessageDigest digest = newDigest();
+      try (BufferPool.Lease lease = BufferPool.shared().lease()) {
+         byte[] buf = lease.array();
+         for (int len = in.read(buf); len != -1; len = in.read(buf))
+            digest.update(buf, 0, len);
+      }
+      return digest.digest();
+   }
+
+   /**
+    * Hashes a file or a directory tree in the {@link ForkJoinPool#commonPool()}.
+    * The hash of a regular file is the hash of its content, the same as other tools calculate.
+    *
+    * @param file The file or directory to hash
+    *
+    * @return The hash of the file or the root hash of the directory tree
+    *
+    * @throws IOException If a file cannot be read
+    */
+   public byte[] hash(File file) throws IOException {
+      return hash(file, ForkJoinPool.commonPool());
+   }
+
+   /**
+    * Hashes a file or a directory tree in the given <code>pool</code>.
+    * The hash of a regular file is the hash of its content, the same as other tools calculate.
+    *
+    * @param file The file or directory to hash
+    * @param pool The pool to hash the files of a directory tree in
+    *
+    * @return The hash of the file or the root hash of the directory tree
+    *
+    * @throws IOException If a file cannot be read
+    */
+   public byte[] hash(File file, ForkJoinPool pool) throws IOException {
+      Path path = file.toPath();
+      if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS))
+         return hashContent(path);
+
+      try {
+         return pool.invoke(new DirectoryTask(path));
+      } catch (UncheckedIOException e) {
+         throw e.getCause();
+      }
+   }
+
+   private byte[] hashContent(Path file) throws IOException {
+      MessageDigest digest = newDigest();
+      try (FileChannel channel = FileChannel.open(file)) {
+         long size = channel.size();
+         if (size >= MAP_THRESHOLD) {
+            MappedFile mapped = MappedFile.map(file.toFile());
+            for (int i = 0; i < mapped.getSegmentCount(); i++)
+               digest.update(mapped.getSegment(i));
+         } else {
+            try (BufferPool.Lease lease = BufferPool.shared().lease()) {
+               ByteBuffer buffer = lease.buffer();
+               while (channel.read(buffer) != -1) {
+                  ((Buffer) buffer).flip();
+                  digest.update(buffer);
+                  ((Buffer) buffer).clear();
+               }
+            }
+         }
+      }
+      return digest.digest();
+   }
+
+   /**
+    * Get the name of the algorithm of this hasher.
+    *
+    * @return The name of the algorithm
+    */
+   public String getAlgorithm() {
+      return algorithm;
+   }
+
+   @Override
+   public String toString() {
+      return "ContentHasher { algorithm=" + algorithm + " }";
+   }
+
+   private class DirectoryTask extends RecursiveTask<byte[]> {
+      private static final long serialVersionUID = 1L;
+
+      private final Path dir;
+
+      private DirectoryTask(Path dir) {
+         this.dir = dir;
+      }
+
+      @Override
+      protected byte[] compute() {
+         List<Path> entries = new ArrayList<>();
+         try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path entry : stream)
+               entries.add(entry);
+         } catch (IOException e) {
+            throw new UncheckedIOException(e);
+         }
+         entries.sort((a, b) -> a.getFileName().toString().compareTo(b.getFileName().toString()));
+
+         byte[] types = new byte[entries.size()];
+         List<ForkJoinTask<byte[]>> hashes = new ArrayList<>(entries.size());
+         for (int i = 0; i < entries.size(); i++) {
+            Path entry = entries.get(i);
+            if (Files.isSymbolicLink(entry)) {
+               types[i] = TYPE_LINK;
+               hashes.add(new FileTask(entry, true).fork());
+            } else if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+               types[i] = TYPE_DIRECTORY;
+               hashes.add(new DirectoryTask(entry).fork());
+            } else {
+               types[i] = TYPE_FILE;
+               hashes.add(new FileTask(entry, false).fork());
+            }
+         }
+
+         MessageDigest digest = newDigest();
+         for (int i = 0; i < entries.size(); i++) {
+            byte[] name = entries.get(i).getFileName().toString().getBytes(StandardCharsets.UTF_8);
+            byte[] hash = hashes.get(i).join();
+            digest.update(types[i]);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(name.length).array());
+            digest.update(name);
+            digest.update(hash);
+         }
+         return digest.digest();
+      }
+   }
+
+   private class FileTask extends RecursiveTask<byte[]> {
+      private static final long serialVersionUID = 1L;
+
+      private final Path file;
+      private final boolean link;
+
+      private FileTask(Path file, boolean link) {
+         this.file = file;
+         this.link = link;
+      }
+
+      @Override
+      protected byte[] compute() {
+         try {
+            if (link) {
+               byte[] target = Files.readSymbolicLink(file).toString().getBytes(StandardCharsets.UTF_8);
+               return newDigest().digest(target);
+            }
+            return hashContent(file);
+         } catch (IOException e) {
+            throw new UncheckedIOException(e);
+         }
+      }
+   }
+}
@@ -0,0 +1,536 @@
+package de.dk.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mirrors the content of a source directory into a target directory,
+ * copying only the files, that have changed since the last synchronization.
+ * A file is considered unchanged if the target file has the same size and last modified time
+ * as the source file, the attributes are copied along with the files.
+ * Optionally files of the same size are compared by a {@link ContentHasher#fast() hash} of their content instead
+ * of their modification time, so files, that only have been touched, are not copied again.
+ * Target files, that don't exist in the source directory anymore, are deleted if requested.
+ * The files are compared and copied concurrently with a bounded number of threads.
+ * <p>
+ * If a manifest file is set, the state of the source directory after a synchronization
+ * is stored in it. The next synchronization compares the source files against the manifest
+ * instead of the target files, so the target directory is not read at all for unchanged files.
+ * This assumes that the target directory is only modified by the synchronization.
+ * </p>
+ * The synchronization stops at the first error and throws it. The manifest is not updated then.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class DirectorySync {
+   private static final int MANIFEST_MAGIC = 0x444B534D;
+   private static final int MANIFEST_VERSION = 1;
+   private static final long DIRECTORY = -1;
+
+   private final int parallelism;
+   private final ContentHasher hasher = ContentHasher.fast();
+   private boolean compareContent;
+   private boolean deleteRemoved;
+   private File manifest;
+
+   /**
+    * Creates a new synchronization, that copies with up to <code>parallelism</code> threads.
+    *
+    * @param parallelism The maximum number of files compared or copied at the same time
+    *
+    * @throws IllegalArgumentException if <code>parallelism &lt; 1</code>
+    */
+   public DirectorySync(int parallelism) throws IllegalArgumentException {
+      if (parallelism < 1)
+         throw new IllegalArgumentException("parallelism must be positive. Was " + parallelism);
+
+      this.parallelism = parallelism;
+   }
+
+   /**
+    * Creates a new synchronization, that copies with as many threads as there are available processors.
+    */
+   public DirectorySync() {
+      this(Runtime.getRuntime().availableProcessors());
+   }
+
+   /**
+    * Synchronizes the <code>target</code> directory with the <code>source</code> directory.
+    * After the synchronization <code>target</code> contains the same files as <code>source</code>,
+    * unlike {@link FileUtils#copy(File, File)} the content of <code>source</code> is not copied into
+    * a subdirectory of <code>target</code>.
+    *
+    * @param source The directory to synchronize from
+    * @param target The directory to synchronize to, that is created if it doesn't exist
+    *
+    * @return The statistics of the synchronization
+    *
+    * @throws IOException The first I/O error that occured during the synchronization
+    */
+   public Result sync(File source, File target) throws IOException {
+      if (!source.isDirectory())
+         throw new IOException(source.getAbsolutePath() + " is not a directory.");
+
+      long start = System.nanoTime();
+      Map<String, Entry> previous = manifest == null ? null : readManifest(manifest);
+      Sync sync = new Sync(source.toPath(), target.toPath(), previous);
+      sync.run();
+      if (manifest != null)
+         writeManifest(manifest, sync.entries);
+
+      return new Result(sync.copied.get(),
+                        sync.unchanged.get(),
+                        sync.deleted.get(),
+                        sync.bytes.get(),
+                        System.nanoTime() - start);
+   }
+
+   /**
+    * Get the maximum number of files compared or copied at the same time.
+    *
+    * @return The parallelism
+    */
+   public int getParallelism() {
+      return parallelism;
+   }
+
+   /**
+    * Determines whether files of the same size but a different last modified time
+    * are compared by a hash of their content. If they are equal only the modification
+    * time of the target file is updated.
+    *
+    * @param compareContent <code>true</code> to compare the content
+    *
+    * @return This synchronization to chain calls
+    */
+   public DirectorySync setCompareContent(boolean compareContent) {
+      this.compareContent = compareContent;
+      return this;
+   }
+
+   /**
+    * Determines whether files of the same size are compared by their content.
+    *
+    * @return <code>true</code> if the content is compared
+    */
+   public boolean isCompareContent() {
+      return compareContent;
+   }
+
+   /**
+    * Determines whether files and directories in the target directory, that don't exist
+    * in the source directory, are deleted.
+    *
+    * @param deleteRemoved <code>true</code> to delete removed files
+    *
+    * @return This synchronization to chain calls
+    */
+   public DirectorySync setDeleteRemoved(boolean deleteRemoved) {
+      this.deleteRemoved = deleteRemoved;
+      return this;
+   }
+
+   /**
+    * Determines whether files, that don't exist in the source directory, are deleted.
+    *
+    * @return <code>true</code> if removed files are deleted
+    */
+   public boolean isDeleteRemoved() {
+      return deleteRemoved;
+   }
+
+   /**
+    * Sets the manifest file, that stores the state of the source directory between synchronizations.
+    * The same manifest must only be used for the same pair of directories.
+    *
+    * @param manifest The manifest file or <code>null</code> to compare against the target files
+    *
+    * @return This synchronization to chain calls
+    */
+   public DirectorySync setManifest(File manifest) {
+      this.manifest = manifest;
+      return this;
+   }
+
+   /**
+    * Get the manifest file, that stores the state of the source directory between synchronizations.
+    *
+    * @return The manifest file or <code>null</code> if no manifest is used
+    */
+   public File getManifest() {
+      return manifest;
+   }
+
+   private static Map<String, Entry> readManifest(File file) throws IOException {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+         if (in.readInt() != MANIFEST_MAGIC || in.readInt() != MANIFEST_VERSION)
+            throw new IOException(file.getAbsolutePath() + " is not a manifest of this version.");
+
+         int count = in.readInt();
+         Map<String, Entry> entries = new HashMap<>(count * 4 / 3 + 1);
+         for (int i = 0; i < count; i++) {
+            String path = in.readUTF();
+            long size = in.readLong();
+            long modified = in.readLong();
+            byte[] hash = null;
+            int hashLength = in.readUnsignedShort();
+            if (hashLength > 0) {
+               hash = new byte[hashLength];
+               in.readFully(hash);
+            }
+            entries.put(path, new Entry(size, modified, hash));
+         }
+         return entries;
+      } catch (FileNotFoundException e) {
+         // The first synchronization
+         return null;
+      }
+   }
+
+   private static void writeManifest(File file, Map<String, Entry> entries) throws IOException {
+      File temp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+         out.writeInt(MANIFEST_MAGIC);
+         out.writeInt(MANIFEST_VERSION);
+         out.writeInt(entries.size());
+         for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            out.writeUTF(e.getKey());
+            out.writeLong(entry.size);
+            out.writeLong(entry.modified);
+            if (entry.hash == null) {
+               out.writeShort(0);
+            } else {
+               out.writeShort(entry.hash.length);
+               out.write(entry.hash);
+            }
+         }
+      }
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   private static class Entry {
+      private final long size;
+      private final long modified;
+      private final byte[] hash;
+
+      private Entry(long size, long modified, byte[] hash) {
+         this.size = size;
+         this.modified = modified;
+         this.hash = hash;
+      }
+
+      private boolean matches(long size, long modified) {
+         return this.size == size && this.modified == modified;
+      }
+   }
+
+   private class Sync extends SimpleFileVisitor<Path> {
+      private final Path source;
+      private final Path target;
+      private final Map<String, Entry> previous;
+      private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+      private final Semaphore slots = new Semaphore(parallelism * 2);
+      private final AtomicReference<IOException> error = new AtomicReference<>();
+      private final AtomicLong copied = new AtomicLong();
+      private final AtomicLong unchanged = new AtomicLong();
+      private final AtomicLong deleted = new AtomicLong();
+      private final AtomicLong bytes = new AtomicLong();
+      private ExecutorService executor;
+
+      private Sync(Path source, Path target, Map<String, Entry> previous) {
+         this.source = source;
+         this.target = target;
+         this.previous = previous;
+      }
+
+      private void run() throws IOException {
+         executor = Executors.newFixedThreadPool(parallelism);
+         try {
+            Files.walkFileTree(source, this);
+         } catch (IOException e) {
+            fail(e);
+         } finally {
+            // Wait for the running comparisons and copies to finish
+            slots.acquireUninterruptibly(parallelism * 2);
+            executor.shutdown();
+         }
+
+         if (error.get() == null && deleteRemoved) {
+            try {
+               deleteRemoved();
+            } catch (IOException e) {
+               fail(e);
+            }
+         }
+
+         IOException e = error.get();
+         if (e != null)
+            throw e;
+      }
+
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+         if (error.get() != null)
+            return FileVisitResult.TERMINATE;
+
+         String key = keyOf(dir);
+         entries.put(key, new Entry(DIRECTORY, 0, null));
+         Entry known = previous == null ? null : previous.get(key);
+         if (known == null || known.size != DIRECTORY) {
+            try {
+               Path copy = target.resolve(key);
+               if (!Files.isDirectory(copy, LinkOption.NOFOLLOW_LINKS)) {
+                  if (Files.exists(copy, LinkOption.NOFOLLOW_LINKS))
+                     FileUtils.delete(copy.toFile());
+
+                  Files.createDirectories(copy);
+               }
+            } catch (IOException e) {
+               fail(e);
+               return FileVisitResult.TERMINATE;
+            }
+         }
+         return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+         slots.acquireUninterruptibly();
+         if (error.get() != null) {
+            slots.release();
+            return FileVisitResult.TERMINATE;
+         }
+
+         executor.execute(() -> {
+            try {
+               if (error.get() == null)
+                  sync(file, attrs.size(), attrs.lastModifiedTime());
+            } catch (IOException e) {
+               fail(e);
+            } catch (RuntimeException e) {
+               // Fails the run, so the target copy is not deleted and the manifest not written
+               fail(new IOException("Could not synchronize " + file, e));
+            } finally {
+               slots.release();
+            }
+         });
+         return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFileFailed(Path file, IOException e) {
+         fail(e);
+         return FileVisitResult.TERMINATE;
+      }
+
+      private void sync(Path file, long size, FileTime modifiedTime) throws IOException {
+         String key = keyOf(file);
+         long modified = modifiedTime.toMillis();
+         Entry known = previous == null ? null : previous.get(key);
+         if (known != null && known.matches(size, modified)) {
+            entries.put(key, known);
+            unchanged.incrementAndGet();
+            return;
+         }
+
+         Path copy = target.resolve(key);
+         BasicFileAttributes copyAttrs = null;
+         try {
+            copyAttrs = Files.readAttributes(copy, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+         } catch (NoSuchFileException e) {
+            // The file is new
+         }
+
+         byte[] hash = null;
+         if (copyAttrs != null && copyAttrs.isRegularFile() && copyAttrs.size() == size) {
+            if (copyAttrs.lastModifiedTime().toMillis() == modified) {
+               // The known hash belongs to another size or modification time,
+               // so it may not be the hash of the target's content anymore
+               entries.put(key, new Entry(size, modified, null));
+               unchanged.incrementAndGet();
+               return;
+            }
+
+            if (compareContent) {
+               hash = hasher.hash(file.toFile());
+               // The target file still has the content of the last synchronization
+               byte[] copyHash = known != null && known.hash != null
+                                 && known.matches(copyAttrs.size(), copyAttrs.lastModifiedTime().toMillis())
+                                 ? known.hash
+                                 : hasher.hash(copy.toFile());
+               if (Arrays.equals(hash, copyHash)) {
+                  Files.setLastModifiedTime(copy, modifiedTime);
+                  entries.put(key, new Entry(size, modified, hash));
+                  unchanged.incrementAndGet();
+                  return;
+               }
+            }
+         }
+
+         if (copyAttrs != null && copyAttrs.isDirectory())
+            FileUtils.delete(copy.toFile());
+
+         Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+         entries.put(key, new Entry(size, modified, hash));
+         copied.incrementAndGet();
+         bytes.addAndGet(size);
+      }
+
+      private void deleteRemoved() throws IOException {
+         List<String> removed = new ArrayList<>();
+         if (previous != null) {
+            for (String key : previous.keySet()) {
+               if (!entries.containsKey(key))
+                  removed.add(key);
+            }
+         } else {
+            Files.walkFileTree(target, new SimpleFileVisitor<Path>() {
+               @Override
+               public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                  String key = target.relativize(dir).toString().replace(File.separatorChar, '/');
+                  if (entries.containsKey(key))
+                     return FileVisitResult.CONTINUE;
+
+                  removed.add(key);
+                  return FileVisitResult.SKIP_SUBTREE;
+               }
+
+               @Override
+               public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                  String key = target.relativize(file).toString().replace(File.separatorChar, '/');
+                  if (!entries.containsKey(key))
+                     removed.add(key);
+
+                  return FileVisitResult.CONTINUE;
+               }
+            });
+         }
+
+         // Children are sorted behind their parents, so they are deleted first
+         Collections.sort(removed, Collections.reverseOrder());
+         for (String key : removed) {
+            Path path = target.resolve(key);
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+               new ParallelDelete(path.toFile()).run();
+               deleted.incrementAndGet();
+            } else if (Files.deleteIfExists(path)) {
+               deleted.incrementAndGet();
+            }
+         }
+      }
+
+      private String keyOf(Path path) {
+         return source.relativize(path).toString().replace(File.separatorChar, '/');
+      }
+
+      private void fail(IOException e) {
+         if (!error.compareAndSet(null, e) && error.get() != e)
+            error.get().addSuppressed(e);
+      }
+   }
+
+   /**
+    * The statistics of a finished synchronization.
+    */
+   public static final class Result {
+      private final long copiedCount;
+      private final long unchangedCount;
+      private final long deletedCount;
+      private final long byteCount;
+      private final long nanos;
+
+      private Result(long copiedCount, long unchangedCount, long deletedCount, long byteCount, long nanos) {
+         this.copiedCount = copiedCount;
+         this.unchangedCount = unchangedCount;
+         this.deletedCount = deletedCount;
+         this.byteCount = byteCount;
+         this.nanos = nanos;
+      }
+
+      /**
+       * Get the number of files, that have been copied because they were new or changed.
+       *
+       * @return The number of copied files
+       */
+      public long getCopiedCount() {
+         return copiedCount;
+      }
+
+      /**
+       * Get the number of files, that have not been copied because they were unchanged.
+       *
+       * @return The number of unchanged files
+       */
+      public long getUnchangedCount() {
+         return unchangedCount;
+      }
+
+      /**
+       * Get the number of files and directories, that have been deleted from the target directory.
+       * A deleted directory counts as one, regardless of its content.
+       *
+       * @return The number of deleted files
+       */
+      public long getDeletedCount() {
+         return deletedCount;
+      }
+
+      /**
+       * Get the sum of the sizes of the copied files.
+       *
+       * @return The number of copied bytes
+       */
+      public long getByteCount() {
+         return byteCount;
+      }
+
+      /**
+       * Get the time the synchronization took.
+       *
+       * @return The duration of the synchronization in nanoseconds
+       */
+      public long getNanos() {
+         return nanos;
+      }
+
+      @Override
+      public String toString() {
+         return String.format("Copied %d files (%d bytes), %d unchanged, %d deleted in %.3f s",
+                              copiedCount,
+                              byteCount,
+                              unchangedCount,
+                              deletedCount,
+                              nanos / 1e9);
+      }
+   }
+}
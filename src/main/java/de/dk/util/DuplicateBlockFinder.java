@@ -0,0 +1,278 @@
+package de.dk.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Finds repeated blocks of a fixed length in texts and byte arrays using a Rabin-Karp rolling hash.
+ * Each source added to the finder is scanned in a single pass, the hash of every window
+ * of <code>blockSize</code> elements is computed in constant time from the hash of the previous window.
+ * If a window equals a window seen before, either in the same or in a previously added source,
+ * it is reported as a {@link Duplicate} and the scan continues after the duplicate block.
+ * Otherwise the window is added to the index.
+ * Hash collisions are ruled out by comparing the contents of the blocks.<br>
+ * The finder keeps references to all added sources, so they must not be modified afterwards.
+ * An instance is not thread safe.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class DuplicateBlockFinder {
+   private static final long BASE = 0x100000001B3L;
+
+   private final int blockSize;
+   private final long outFactor;
+   private final List<Object> sources = new ArrayList<>();
+   private final LongLongMap index = new LongLongMap();
+
+   /**
+    * Creates a new finder for duplicate blocks of <code>blockSize</code> elements.
+    *
+    * @param blockSize The length of the blocks
+    *
+    * @throws IllegalArgumentException if <code>blockSize &lt; 1</code>
+    */
+   public DuplicateBlockFinder(int blockSize) throws IllegalArgumentException {
+      if (blockSize < 1)
+         throw new IllegalArgumentException("blockSize must be positive. Was " + blockSize);
+
+      this.blockSize = blockSize;
+      long factor = 1;
+      for (int i = 0; i < blockSize; i++)
+         factor *= BASE;
+
+      this.outFactor = factor;
+   }
+
+   /**
+    * Indexes all blocks of the <code>data</code> and reports the blocks,
+    * that have been seen before.
+    *
+    * @param data The bytes to be scanned
+    *
+    * @return The duplicate blocks found in <code>data</code> in ascending order of their offsets
+    *
+    * @throws NullPointerException if <code>data</code> is <code>null</code>
+    */
+   public List<Duplicate> add(byte[] data) throws NullPointerException {
+      return scan(Objects.requireNonNull(data), data.length);
+   }
+
+   /**
+    * Indexes all blocks of the <code>text</code> and reports the blocks,
+    * that have been seen before.
+    *
+    * @param text The text to be scanned
+    *
+    * @return The duplicate blocks found in <code>text</code> in ascending order of their offsets
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    */
+   public List<Duplicate> add(CharSequence text) throws NullPointerException {
+      return scan(Objects.requireNonNull(text), text.length());
+   }
+
+   private List<Duplicate> scan(Object source, int length) {
+      int sourceIndex = sources.size();
+      sources.add(source);
+
+      List<Duplicate> duplicates = new ArrayList<>();
+      int start = 0;
+      while (start + blockSize <= length) {
+         long hash = 0;
+         for (int i = start; i < start + blockSize; i++)
+            hash = hash * BASE + valueAt(source, i);
+
+         int offset = start;
+         while (true) {
+            long found = index.get(hash);
+            if (found == -1) {
+               index.put(hash, encode(sourceIndex, offset));
+            } else if (equal(source, offset, (int) (found >>> 32), (int) found)) {
+               duplicates.add(new Duplicate(sourceIndex, offset, (int) (found >>> 32), (int) found, blockSize));
+               break;
+            }
+
+            if (offset + blockSize >= length)
+               break;
+
+            hash = hash * BASE + valueAt(source, offset + blockSize) - valueAt(source, offset) * outFactor;
+            offset++;
+         }
+         start = offset + blockSize;
+      }
+      return duplicates;
+   }
+
+   private boolean equal(Object source, int offset, int otherSourceIndex, int otherOffset) {
+      Object other = sources.get(otherSourceIndex);
+      for (int i = 0; i < blockSize; i++) {
+         if (valueAt(source, offset + i) != valueAt(other, otherOffset + i))
+            return false;
+      }
+      return true;
+   }
+
+   private static int valueAt(Object source, int index) {
+      if (source instanceof byte[])
+         return ((byte[]) source)[index] & 0xFF;
+
+      return ((CharSequence) source).charAt(index);
+   }
+
+   private static long encode(int source, int offset) {
+      return ((long) source << 32) | offset;
+   }
+
+   /**
+    * Get the length of the blocks, this finder is looking for.
+    *
+    * @return The block size
+    */
+   public int getBlockSize() {
+      return blockSize;
+   }
+
+   /**
+    * Get the number of sources, that have been added to this finder.
+    *
+    * @return The number of sources
+    */
+   public int getSourceCount() {
+      return sources.size();
+   }
+
+   /**
+    * A block, that equals a block seen before.
+    */
+   public static class Duplicate {
+      private final int source;
+      private final int offset;
+      private final int originalSource;
+      private final int originalOffset;
+      private final int length;
+
+      private Duplicate(int source, int offset, int originalSource, int originalOffset, int length) {
+         this.source = source;
+         this.offset = offset;
+         this.originalSource = originalSource;
+         this.originalOffset = originalOffset;
+         this.length = length;
+      }
+
+      /**
+       * Get the number of the source containing the duplicate block.
+       * The sources are numbered in the order they have been added, starting at 0.
+       *
+       * @return The number of the source
+       */
+      public int getSource() {
+         return source;
+      }
+
+      /**
+       * Get the offset of the duplicate block in its source.
+       *
+       * @return The offset of the duplicate block
+       */
+      public int getOffset() {
+         return offset;
+      }
+
+      /**
+       * Get the number of the source containing the first occurence of the block.
+       *
+       * @return The number of the source of the original block
+       */
+      public int getOriginalSource() {
+         return originalSource;
+      }
+
+      /**
+       * Get the offset of the first occurence of the block in its source.
+       *
+       * @return The offset of the original block
+       */
+      public int getOriginalOffset() {
+         return originalOffset;
+      }
+
+      /**
+       * Get the length of the block.
+       *
+       * @return The block size
+       */
+      public int getLength() {
+         return length;
+      }
+
+      @Override
+      public String toString() {
+         return String.format("Duplicate { %s:%s equals %s:%s, length=%s }",
+                              source,
+                              offset,
+                              originalSource,
+                              originalOffset,
+                              length);
+      }
+   }
+
+   /**
+    * An open addressing hash map from <code>long</code> keys to non-negative <code>long</code> values,
+    * which avoids boxing the hashes.
+    */
+   private static class LongLongMap {
+      private long[] keys = new long[1024];
+      private long[] values = new long[1024];
+      private int size;
+
+      LongLongMap() {
+         Arrays.fill(values, -1);
+      }
+
+      long get(long key) {
+         int mask = keys.length - 1;
+         for (int i = slot(key, mask); values[i] != -1; i = (i + 1) & mask) {
+            if (keys[i] == key)
+               return values[i];
+         }
+         return -1;
+      }
+
+      void put(long key, long value) {
+         if (size * 2 >= keys.length)
+            grow();
+
+         int mask = keys.length - 1;
+         int i = slot(key, mask);
+         while (values[i] != -1 && keys[i] != key)
+            i = (i + 1) & mask;
+
+         if (values[i] == -1)
+            size++;
+
+         keys[i] = key;
+         values[i] = value;
+      }
+
+      private void grow() {
+         long[] oldKeys = keys;
+         long[] oldValues = values;
+         keys = new long[oldKeys.length * 2];
+         values = new long[oldValues.length * 2];
+         Arrays.fill(values, -1);
+         size = 0;
+         for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != -1)
+               put(oldKeys[i], oldValues[i]);
+         }
+      }
+
+      private static int slot(long key, int mask) {
+         long h = key * 0x9E3779B97F4A7C15L;
+         return (int) (h >>> 32) & mask;
+      }
+   }
+}
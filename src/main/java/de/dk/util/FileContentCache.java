@@ -0,0 +1,411 @@
+package de.dk.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of the contents of files, that is bounded by the total number of cached bytes.
+ * If the bound is exceeded the least recently used files are evicted.
+ * Files larger than the bound are read, but not cached.
+ * <p>
+ * A cached content is invalidated if the size or the last modified time of the file has changed.
+ * This is checked when the content is requested, at most once per check interval for each file.
+ * Additionally the cache can {@link #watch() watch} the directories of the cached files
+ * with a <code>WatchService</code> in a background thread, which invalidates contents as soon as
+ * their files change.
+ * </p>
+ * If several threads request the content of the same file, that is not cached,
+ * the file is read only once and all of them get the same content.
+ * The returned arrays are shared by all callers, so they must not be modified.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class FileContentCache implements Closeable {
+   private static final long DEFAULT_CHECK_INTERVAL = 1000;
+
+   private final long maxBytes;
+   private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+   private long size;
+   private volatile long checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_CHECK_INTERVAL);
+
+   private WatchService watchService;
+   private final Set<Path> watchedDirectories = new HashSet<>();
+
+   /**
+    * Creates a new cache, that checks the files for modifications at most once a second.
+    *
+    * @param maxBytes The maximum number of cached bytes
+    *
+    * @throws IllegalArgumentException if <code>maxBytes</code> is negative
+    */
+   public FileContentCache(long maxBytes) throws IllegalArgumentException {
+      if (maxBytes < 0)
+         throw new IllegalArgumentException("maxBytes must not be negative. Was " + maxBytes);
+
+      this.maxBytes = maxBytes;
+   }
+
+   /**
+    * Get the content of the file. If the content is not cached or the file has changed
+    * the file is read and its content cached.
+    * The returned array must not be modified.
+    *
+    * @param file The file to get the content of
+    *
+    * @return The content of the file
+    *
+    * @throws IOException If the file cannot be read
+    */
+   public byte[] get(File file) throws IOException {
+      Path key = file.toPath().toAbsolutePath().normalize();
+      while (true) {
+         Entry entry;
+         boolean load = false;
+         synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null) {
+               entry = new Entry();
+               entries.put(key, entry);
+               load = true;
+            }
+         }
+
+         if (load) {
+            misses.increment();
+            return load(key, entry);
+         }
+
+         byte[] content;
+         try {
+            content = entry.content.join();
+         } catch (CompletionException e) {
+            // The load of another thread failed, the entry is removed already
+            throw unwrap(e);
+         }
+
+         if (isStale(key, entry)) {
+            invalidate(key, entry);
+            continue;
+         }
+         hits.increment();
+         return content;
+      }
+   }
+
+   private byte[] load(Path key, Entry entry) throws IOException {
+      byte[] content;
+      try {
+         // The attributes are read first, so a modification during the read is noticed later
+         BasicFileAttributes attrs = Files.readAttributes(key, BasicFileAttributes.class);
+         entry.modified = attrs.lastModifiedTime().toMillis();
+         entry.fileSize = attrs.size();
+         entry.lastCheck = System.nanoTime();
+         content = FileUtils.getContentOf(key.toFile());
+      } catch (IOException | RuntimeException e) {
+         synchronized (entries) {
+            entries.remove(key, entry);
+         }
+         entry.content.completeExceptionally(e);
+         throw e;
+      }
+
+      synchronized (entries) {
+         if (content.length > maxBytes) {
+            entries.remove(key, entry);
+         } else if (entries.get(key) == entry) {
+            entry.size = content.length;
+            size += content.length;
+            evict();
+         }
+      }
+      entry.content.complete(content);
+      watchDirectoryOf(key);
+      return content;
+   }
+
+   private void evict() {
+      Iterator<Entry> iterator = entries.values().iterator();
+      while (size > maxBytes && iterator.hasNext()) {
+         Entry eldest = iterator.next();
+         if (eldest.size < 0)
+            continue;
+
+         iterator.remove();
+         size -= eldest.size;
+      }
+   }
+
+   private boolean isStale(Path key, Entry entry) {
+      long now = System.nanoTime();
+      long interval = checkIntervalNanos;
+      if (interval < 0 || now - entry.lastCheck < interval)
+         return false;
+
+      entry.lastCheck = now;
+      try {
+         BasicFileAttributes attrs = Files.readAttributes(key, BasicFileAttributes.class);
+         return attrs.size() != entry.fileSize || attrs.lastModifiedTime().toMillis() != entry.modified;
+      } catch (IOException e) {
+         // Deleted or not accessible anymore
+         return true;
+      }
+   }
+
+   /**
+    * Removes the content of the file from this cache.
+    *
+    * @param file The file to invalidate
+    */
+   public void invalidate(File file) {
+      Path key = file.toPath().toAbsolutePath().normalize();
+      synchronized (entries) {
+         remove(key, entries.get(key));
+      }
+   }
+
+   private void invalidate(Path key, Entry entry) {
+      synchronized (entries) {
+         if (entries.get(key) == entry)
+            remove(key, entry);
+      }
+   }
+
+   private void remove(Path key, Entry entry) {
+      if (entry == null)
+         return;
+
+      entries.remove(key);
+      if (entry.size > 0)
+         size -= entry.size;
+   }
+
+   /**
+    * Removes all contents from this cache.
+    */
+   public void invalidateAll() {
+      synchronized (entries) {
+         entries.clear();
+         size = 0;
+      }
+   }
+
+   /**
+    * Starts watching the directories of the cached files with a <code>WatchService</code>
+    * in a background thread, so contents are invalidated as soon as their files change.
+    * The thread runs until this cache is {@link #close() closed}.
+    * Calling this method more than once has no effect.
+    *
+    * @throws IOException If the watch service cannot be created
+    */
+   public void watch() throws IOException {
+      WatchService service;
+      synchronized (watchedDirectories) {
+         if (watchService != null)
+            return;
+
+         service = FileSystems.getDefault().newWatchService();
+         watchService = service;
+         for (Path key : keys())
+            watchDirectoryOf(key);
+      }
+
+      Thread watcher = new Thread(() -> processEvents(service), "FileContentCache watcher");
+      watcher.setDaemon(true);
+      watcher.start();
+   }
+
+   private Path[] keys() {
+      synchronized (entries) {
+         return entries.keySet().toArray(new Path[0]);
+      }
+   }
+
+   /**
+    * Registers the directory of the file at the watch service, if the cache {@link #watch() watches}.
+    * If the directory cannot be registered, its files are only checked by their modification times.
+    */
+   private void watchDirectoryOf(Path key) {
+      synchronized (watchedDirectories) {
+         Path dir = key.getParent();
+         if (watchService == null || dir == null || !watchedDirectories.add(dir))
+            return;
+
+         try {
+            dir.register(watchService,
+                         StandardWatchEventKinds.ENTRY_CREATE,
+                         StandardWatchEventKinds.ENTRY_MODIFY,
+                         StandardWatchEventKinds.ENTRY_DELETE);
+         } catch (ClosedWatchServiceException e) {
+            // The cache has been closed meanwhile
+         } catch (IOException | UnsupportedOperationException e) {
+            // Not watched, e.g. if the file system doesn't support it or the limit of watches is reached
+            watchedDirectories.remove(dir);
+         }
+      }
+   }
+
+   private void processEvents(WatchService service) {
+      try {
+         while (true) {
+            WatchKey watchKey = service.take();
+            Path dir = (Path) watchKey.watchable();
+            for (WatchEvent<?> event : watchKey.pollEvents()) {
+               if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                  invalidateDirectory(dir);
+               } else {
+                  Path key = dir.resolve((Path) event.context());
+                  synchronized (entries) {
+                     remove(key, entries.get(key));
+                  }
+               }
+            }
+            if (!watchKey.reset()) {
+               synchronized (watchedDirectories) {
+                  watchedDirectories.remove(dir);
+               }
+               invalidateDirectory(dir);
+            }
+         }
+      } catch (ClosedWatchServiceException | InterruptedException e) {
+         // The cache has been closed
+      }
+   }
+
+   private void invalidateDirectory(Path dir) {
+      synchronized (entries) {
+         for (Iterator<Map.Entry<Path, Entry>> iterator = entries.entrySet().iterator(); iterator.hasNext();) {
+            Map.Entry<Path, Entry> e = iterator.next();
+            if (dir.equals(e.getKey().getParent())) {
+               iterator.remove();
+               if (e.getValue().size > 0)
+                  size -= e.getValue().size;
+            }
+         }
+      }
+   }
+
+   /**
+    * Stops watching the directories of the cached files.
+    * The cache can still be used, then it only checks the modification times.
+    *
+    * @throws IOException If the watch service cannot be closed
+    */
+   @Override
+   public void close() throws IOException {
+      synchronized (watchedDirectories) {
+         if (watchService == null)
+            return;
+
+         watchService.close();
+         watchService = null;
+         watchedDirectories.clear();
+      }
+   }
+
+   /**
+    * Sets the minimum time between two checks of the modification time of a cached file.
+    * With an interval of 0 the file is checked every time its content is requested.
+    * With a negative interval the files are never checked, which is reasonable
+    * if the cache {@link #watch() watches} the files.
+    *
+    * @param millis The check interval in milliseconds
+    */
+   public void setCheckInterval(long millis) {
+      this.checkIntervalNanos = millis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(millis);
+   }
+
+   /**
+    * Get the minimum time between two checks of the modification time of a cached file.
+    *
+    * @return The check interval in milliseconds or a negative value if the files are never checked
+    */
+   public long getCheckInterval() {
+      long nanos = checkIntervalNanos;
+      return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+   }
+
+   /**
+    * Get the maximum number of cached bytes.
+    *
+    * @return The maximum size of this cache
+    */
+   public long getMaxBytes() {
+      return maxBytes;
+   }
+
+   /**
+    * Get the number of cached bytes.
+    *
+    * @return The size of this cache
+    */
+   public long size() {
+      synchronized (entries) {
+         return size;
+      }
+   }
+
+   /**
+    * Get the number of requests, that have been answered from the cache.
+    *
+    * @return The number of hits
+    */
+   public long getHits() {
+      return hits.sum();
+   }
+
+   /**
+    * Get the number of requests, that have read a file.
+    *
+    * @return The number of misses
+    */
+   public long getMisses() {
+      return misses.sum();
+   }
+
+   private static IOException unwrap(CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException)
+         return (IOException) cause;
+      if (cause instanceof RuntimeException)
+         throw (RuntimeException) cause;
+
+      return new IOException(cause);
+   }
+
+   @Override
+   public String toString() {
+      return "FileContentCache { size=" + size() + ", maxBytes=" + maxBytes
+             + ", hits=" + getHits() + ", misses=" + getMisses() + " }";
+   }
+
+   private static class Entry {
+      private final CompletableFuture<byte[]> content = new CompletableFuture<>();
+      /** The number of cached bytes or -1 while the file is being read. */
+      private long size = -1;
+      private volatile long lastCheck;
+      private long modified;
+      private long fileSize;
+   }
+}
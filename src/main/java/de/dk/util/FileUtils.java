@@ -7,12 +7,19 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Contains some static methods that are about files.
@@ -21,12 +28,51 @@ import java.util.Objects;
  * <br>Erstellt am 30.08.2016
  */
 public final class FileUtils {
-   private static URI sourceLocation;
+   private static final ClassValue<URI> SOURCE_LOCATIONS = new ClassValue<URI>() {
+      @Override
+      protected URI computeValue(Class<?> type) {
+         try {
+            return type.getProtectionDomain()
+                       .getCodeSource()
+                       .getLocation()
+                       .toURI();
+         } catch (URISyntaxException e) {
+            throw new InternalError("Internal library provided invalid object.", e);
+         }
+      }
+   };
+
+   /**
+    * <code>StackWalker.getInstance(RETAIN_CLASS_REFERENCE)</code> and its method <code>getCallerClass</code>
+    * or <code>null</code> on Java 8, which has no <code>StackWalker</code>.
+    */
+   private static final Object STACK_WALKER;
+   private static final Method GET_CALLER_CLASS;
+
+   static {
+      Object walker = null;
+      Method getCallerClass = null;
+      try {
+         Class<?> walkerClass = Class.forName("java.lang.StackWalker");
+         @SuppressWarnings({"unchecked", "rawtypes"})
+         Object retainClassReference = Enum.valueOf((Class) Class.forName("java.lang.StackWalker$Option"),
+                                                    "RETAIN_CLASS_REFERENCE");
+         walker = walkerClass.getMethod("getInstance", retainClassReference.getClass())
+                             .invoke(null, retainClassReference);
+         getCallerClass = walkerClass.getMethod("getCallerClass");
+      } catch (ReflectiveOperationException | SecurityException e) {
+         walker = null;
+         getCallerClass = null;
+      }
+      STACK_WALKER = walker;
+      GET_CALLER_CLASS = getCallerClass;
+   }
 
    private FileUtils() {}
 
    /**
     * Locates the codesource of the class.
+    * The location of each class is cached, so repeated calls are cheap.
     *
     * @param source The source to be located
     * @return The URI to the source
@@ -34,32 +80,33 @@ public final class FileUtils {
     * @throws SecurityException If a security manager permits this action
     */
    public static URI locateSource(Class<?> source) throws SecurityException {
-      if (sourceLocation != null)
-         return sourceLocation;
-
-      try {
-         sourceLocation = source.getProtectionDomain()
-                                .getCodeSource()
-                                .getLocation()
-                                .toURI();
-      } catch (URISyntaxException e) {
-         throw new InternalError("Internal library provided invalid object.", e);
-      }
-      return sourceLocation;
+      return SOURCE_LOCATIONS.get(source);
    }
 
    /**
     * Locates the codesource of the calling class.
+    * On Java 9 and newer the caller is determined with a <code>StackWalker</code>,
+    * which doesn't need to capture the whole stack trace.
     *
     * @return The URI to the source
     *
     * @throws SecurityException if a security manager doesn't allow this action
     */
    public static URI locateSource() throws SecurityException {
-      String callingClassName = null;
+      if (GET_CALLER_CLASS != null) {
+         // Must be invoked directly from this method, reflection frames are skipped by the StackWalker
+         try {
+            return locateSource((Class<?>) GET_CALLER_CLASS.invoke(STACK_WALKER));
+         } catch (IllegalAccessException e) {
+            throw new InternalError("StackWalker.getCallerClass is public.", e);
+         } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Couldn't find the caller class.", e.getCause());
+         }
+      }
 
+      String callingClassName = null;
       boolean foundThisMethod = false;
-      for (StackTraceElement se : Thread.currentThread().getStackTrace()) {
+      for (StackTraceElement se : new Throwable().getStackTrace()) {
          String className = se.getClassName();
          String methodName = se.getMethodName();
          if (foundThisMethod) {
@@ -75,10 +122,20 @@ public final class FileUtils {
       if (callingClassName == null)
          throw new IllegalStateException("Couldn't find the caller class.");
 
+      return locateSource(loadClass(callingClassName));
+   }
+
+   private static Class<?> loadClass(String name) {
+      ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
       try {
-         return locateSource(Class.forName(callingClassName));
+         return Class.forName(name, false, contextLoader);
       } catch (ClassNotFoundException e) {
-         throw new InternalError("The method got called by a class, that cannot be found", e);
+         try {
+            return Class.forName(name);
+         } catch (ClassNotFoundException e2) {
+            e2.addSuppressed(e);
+            throw new InternalError("The method got called by a class, that cannot be found", e2);
+         }
       }
    }
 
@@ -94,15 +151,38 @@ public final class FileUtils {
    public static byte[] getContentOf(File file) throws IOException {
       long length = file.length();
       if (length > Integer.MAX_VALUE)
-         throw new IOException("File too large (" + length + "bytes).");
+         throw new IOException("File too large (" + length + "bytes). Use map(File) instead.");
 
       ByteArrayOutputStream out = new ByteArrayOutputStream(DMath.cutToInt(file.length()));
       writeContentOf(file, out);
       return out.toByteArray();
    }
 
+   /**
+    * Maps the content of the file into memory instead of copying it onto the heap.
+    * Unlike {@link #getContentOf(File)} this works for files of any size.
+    *
+    * @param file The file to map
+    *
+    * @return The mapped content of the file
+    *
+    * @throws IOException If the file cannot be mapped
+    *
+    * @see MappedFile
+    */
+   public static MappedFile map(File file) throws IOException {
+      return MappedFile.map(file);
+   }
+
    /**
     * Reads the files content and passes it in pieces to the consumer.
+    * The pieces are read into a buffer of the shared {@link BufferPool},
+    * so the memory needed does not depend on the size of the file.
+    * If <code>out</code> is exactly a <code>FileOutputStream</code> and not a subclass,
+    * that may transform or count the written data, the content is transferred
+    * from channel to channel instead, which lets the operating system copy the data
+    * without passing it through the Java heap.
+    * The transfer is measured by the {@link TransferMetrics#installed() installed} <code>TransferMetrics</code>.
     *
     * @param file the file to read
     * @param out The OutputStream to write the read data to
@@ -110,15 +190,143 @@ public final class FileUtils {
     * @throws IOException if there are problems reading the file
     */
    public static void writeContentOf(File file, OutputStream out) throws IOException {
-      InputStream input = new FileInputStream(file);
-      byte[] piece = new byte[DMath.cutToInt(file.length())];
+      TransferMetrics metrics = TransferMetrics.installed();
+      long start = metrics == null ? 0 : System.nanoTime();
+      try (FileInputStream input = new FileInputStream(file)) {
+         // The channel would bypass the write methods of a subclass
+         if (out.getClass() == FileOutputStream.class) {
+            long transferred = transfer(input.getChannel(), ((FileOutputStream) out).getChannel());
+            if (metrics != null)
+               metrics.transferred(transferred, 0, 0);
+         } else {
+            try (BufferPool.Lease lease = BufferPool.shared().lease()) {
+               byte[] piece = lease.array();
+               if (metrics == null) {
+                  for (int readLength = input.read(piece); readLength != -1; readLength = input.read(piece))
+                     out.write(piece, 0, readLength);
+               } else {
+                  IO.write(input, out, piece, metrics);
+               }
+            }
+         }
+      }
+      if (metrics != null)
+         metrics.completed(TransferMetrics.Operation.FILE, System.nanoTime() - start);
+   }
 
-      try {
-         for (int readLength = input.read(piece); readLength > 0; readLength = input.read(piece))
-            out.write(piece, 0, readLength);
-      } finally {
-         input.close();
+   /**
+    * Reads the files content and writes it compressed by <code>compression</code> to <code>out</code>.
+    * The compressed data is finished, but <code>out</code> is not closed.
+    *
+    * @param file the file to read
+    * @param out The OutputStream to write the compressed data to
+    * @param compression The compression to compress the data with
+    *
+    * @throws IOException if there are problems reading the file
+    */
+   public static void writeContentOf(File file, OutputStream out, Compression compression) throws IOException {
+      TransferMetrics metrics = TransferMetrics.installed();
+      long start = metrics == null ? 0 : System.nanoTime();
+      try (FileInputStream input = new FileInputStream(file)) {
+         IO.write(input, out, compression);
+      }
+      if (metrics != null)
+         metrics.completed(TransferMetrics.Operation.FILE, System.nanoTime() - start);
+   }
+
+   /**
+    * Transfers the remaining content of the <code>source</code> channel to the <code>target</code> channel
+    * using {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
+    * If a transfer doesn't make any progress the rest is copied through a buffer.
+    * Both channels are advanced by the number of transferred bytes.
+    *
+    * @return The number of transferred bytes
+    */
+   private static long transfer(FileChannel source, FileChannel target) throws IOException {
+      long start = source.position();
+      long position = start;
+      long size = source.size();
+      while (position < size) {
+         long transferred = source.transferTo(position, size - position, target);
+         if (transferred <= 0) {
+            // Either the file has been truncated meanwhile or the target doesn't accept
+            // channel transfers, then the rest is copied through a buffer
+            if (source.size() > position)
+               position = copyBuffered(source, target, position);
+
+            break;
+         }
+         position += transferred;
+      }
+      source.position(position);
+      return position - start;
+   }
+
+   /**
+    * Copies the content of <code>source</code> from <code>position</code> on to the end
+    * through a buffer of the shared {@link BufferPool}.
+    *
+    * @return The position after the copied content
+    */
+   private static long copyBuffered(FileChannel source, FileChannel target, long position) throws IOException {
+      try (BufferPool.Lease lease = BufferPool.shared().leaseDirect()) {
+         ByteBuffer buffer = lease.buffer();
+         for (int n = source.read(buffer, position); n != -1; n = source.read(buffer, position)) {
+            ((Buffer) buffer).flip();
+            while (buffer.hasRemaining()) {
+               if (target.write(buffer) == 0)
+                  throw new IOException("The target channel doesn't accept any more bytes.");
+            }
+            ((Buffer) buffer).clear();
+            position += n;
+         }
       }
+      return position;
+   }
+
+   /**
+    * Reads the content of the file asynchronously.
+    * At most {@link AsyncFiles#getMaxInFlight()} operations of the {@link AsyncFiles#shared()}
+    * instance run at the same time, further ones are queued.
+    *
+    * @param path The file to read
+    *
+    * @return A future of the content of the file
+    *
+    * @see AsyncFiles#readAsync(Path)
+    */
+   public static CompletableFuture<byte[]> readAsync(Path path) {
+      return AsyncFiles.shared().readAsync(path);
+   }
+
+   /**
+    * Writes the <code>data</code> to the file asynchronously.
+    * If the file exists it is overwritten, otherwise it is created.
+    *
+    * @param path The file to write
+    * @param data The data to write
+    *
+    * @return A future of the number of written bytes
+    *
+    * @see AsyncFiles#writeAsync(Path, byte[])
+    */
+   public static CompletableFuture<Long> writeAsync(Path path, byte[] data) {
+      return AsyncFiles.shared().writeAsync(path, data);
+   }
+
+   /**
+    * Copies the content of the <code>source</code> file to the <code>target</code> file asynchronously.
+    * If the target file exists it is overwritten, otherwise it is created.
+    *
+    * @param source The file to copy
+    * @param target The file to copy to
+    *
+    * @return A future of the number of copied bytes
+    *
+    * @see AsyncFiles#copyAsync(Path, Path)
+    */
+   public static CompletableFuture<Long> copyAsync(Path source, Path target) {
+      return AsyncFiles.shared().copyAsync(source, target);
    }
 
    /**
@@ -141,6 +349,8 @@ public final class FileUtils {
          for (File f : children)
             copy(f, result);
       } else {
+         TransferMetrics metrics = TransferMetrics.installed();
+         long start = metrics == null ? 0 : System.nanoTime();
          FileOutputStream out;
          if (target.isDirectory()) {
             target.mkdirs();
@@ -153,9 +363,130 @@ public final class FileUtils {
          } finally {
             out.close();
          }
+         if (metrics != null)
+            metrics.completed(TransferMetrics.Operation.COPY, System.nanoTime() - start);
       }
    }
 
+   /**
+    * Copies the source file to the target file like {@link #copy(File, File)},
+    * but compresses the content of every copied file with <code>compression</code>.
+    * The {@link Compression#getExtension() extension} of the compression is appended
+    * to the names of the copied files, but not to the names of directories.
+    * If <code>target</code> is a file, its name is used as it is.
+    *
+    * @param source The file or directory to copy
+    * @param target The target of the copy
+    * @param compression The compression to compress the files with
+    *
+    * @throws IOException If an I/O error occurs
+    */
+   public static void copy(File source, File target, Compression compression) throws IOException {
+      if (source.isDirectory()) {
+         File result = new File(target, source.getName());
+         result.mkdirs();
+         File[] children = source.listFiles();
+         if (children == null) {
+            String msg = "Could not access content of " + source.getAbsolutePath();
+            throw new IOException(msg);
+         }
+         for (File f : children)
+            copy(f, result, compression);
+      } else {
+         TransferMetrics metrics = TransferMetrics.installed();
+         long start = metrics == null ? 0 : System.nanoTime();
+         File result = target;
+         if (target.isDirectory())
+            result = new File(target, source.getName() + compression.getExtension());
+
+         try (FileOutputStream file = new FileOutputStream(result);
+              OutputStream out = compression.compress(file)) {
+            writeContentOf(source, out);
+         }
+         if (metrics != null)
+            metrics.completed(TransferMetrics.Operation.COPY, System.nanoTime() - start);
+      }
+   }
+
+   /**
+    * Packs the source file or all files of the source directory tree into a {@link PackFile}.
+    * Unpacking the pack to a target with {@link #unpack(File, File)} has the same result
+    * as copying the source to it with {@link #copy(File, File)}, except of empty directories.
+    * If the pack exists already the files are appended to it.
+    * If a file cannot be packed, none of the files are added to the pack.
+    *
+    * @param source The file or directory to pack
+    * @param pack The data file of the pack
+    *
+    * @throws IOException If an I/O error occurs
+    *
+    * @see PackWriter#addTree(File)
+    */
+   public static void pack(File source, File pack) throws IOException {
+      PackWriter writer = new PackWriter(pack);
+      try {
+         writer.addTree(source);
+      } catch (IOException | RuntimeException e) {
+         // A partly packed tree must not become visible
+         try {
+            writer.abort();
+         } catch (IOException suppressed) {
+            e.addSuppressed(suppressed);
+         }
+         throw e;
+      }
+      writer.close();
+   }
+
+   /**
+    * Unpacks all entries of a {@link PackFile} into the target directory.
+    *
+    * @param pack The data file of the pack
+    * @param target The directory to unpack the entries to. If it does not exist it is created.
+    *
+    * @throws IOException If an I/O error occurs
+    *
+    * @see PackFile#unpack(File)
+    */
+   public static void unpack(File pack, File target) throws IOException {
+      PackFile.open(pack).unpack(target);
+   }
+
+   /**
+    * Copies the source file to the target file like {@link #copy(File, File)},
+    * but copies the files of a directory concurrently with as many threads
+    * as there are available processors.
+    * Use {@link ParallelCopy} directly to configure the copy.
+    *
+    * @param source The file or directory to copy
+    * @param target The target of the copy
+    *
+    * @return The statistics of the copy
+    *
+    * @throws IOException The first I/O error that occured during the copy
+    */
+   public static ParallelCopy.Result copyParallel(File source, File target) throws IOException {
+      return new ParallelCopy().copy(source, target);
+   }
+
+   /**
+    * Synchronizes the <code>target</code> directory with the <code>source</code> directory,
+    * copying only new and changed files and deleting files, that have been removed from <code>source</code>.
+    * Files are compared by their size and last modified time.
+    * Use {@link DirectorySync} directly to compare the content or to use a manifest.
+    *
+    * @param source The directory to synchronize from
+    * @param target The directory to synchronize to
+    *
+    * @return The statistics of the synchronization
+    *
+    * @throws IOException The first I/O error that occured during the synchronization
+    */
+   public static DirectorySync.Result sync(File source, File target) throws IOException {
+      return new DirectorySync().setDeleteRemoved(true)
+                                .sync(source, target);
+   }
+
    /**
     * Deletes a file recursively. If <code>file</code> is a non empty directory
     * the directorys content will be deleted recursively.
@@ -176,6 +507,18 @@ public final class FileUtils {
       Files.delete(file.toPath());
    }
 
+   /**
+    * Deletes a file recursively like {@link #delete(File)}, but deletes the
+    * content of directories in parallel in the {@link java.util.concurrent.ForkJoinPool#commonPool()}.
+    * Use {@link ParallelDelete} directly to watch the progress or to cancel the deletion.
+    *
+    * @param file The file to be deleted.
+    * @throws IOException The first I/O error that occured during the deletion
+    */
+   public static void deleteParallel(File file) throws IOException {
+      new ParallelDelete(file).run();
+   }
+
    /**
     * Creates a temporary directory.
     *
@@ -0,0 +1,334 @@
+package de.dk.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * A compiled pattern for computing the Levenshtein distance to other texts
+ * and for approximate searching of the pattern in texts.
+ * The distances are computed with the bit-parallel algorithm of Myers,
+ * which processes 64 rows of the dynamic programming matrix at once.
+ * Patterns longer than 64 chars are split into blocks of 64 rows.
+ * No matrix is allocated, so a compiled pattern can be matched against many texts cheaply.
+ * A <code>FuzzyPattern</code> is immutable and can be used by multiple threads at once.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class FuzzyPattern {
+   private static final int WORD_SIZE = 64;
+
+   private final String pattern;
+   private final int blocks;
+   private final long lastBit;
+   private final long[][] asciiPeq = new long[128][];
+   private final char[] otherChars;
+   private final long[][] otherPeq;
+   private final long[] noMatch;
+   private volatile FuzzyPattern reversed;
+
+   private FuzzyPattern(String pattern) {
+      this.pattern = pattern;
+      int length = pattern.length();
+      this.blocks = (length + WORD_SIZE - 1) / WORD_SIZE;
+      this.lastBit = 1L << ((length - 1) & (WORD_SIZE - 1));
+      this.noMatch = new long[blocks];
+
+      char[] others = new char[length];
+      int otherCount = 0;
+      for (int i = 0; i < length; i++) {
+         char c = pattern.charAt(i);
+         if (c < 128)
+            continue;
+
+         others[otherCount++] = c;
+      }
+      Arrays.sort(others, 0, otherCount);
+      int distinct = 0;
+      for (int i = 0; i < otherCount; i++) {
+         if (distinct == 0 || others[distinct - 1] != others[i])
+            others[distinct++] = others[i];
+      }
+      this.otherChars = Arrays.copyOf(others, distinct);
+      this.otherPeq = new long[distinct][];
+
+      for (int i = 0; i < length; i++) {
+         char c = pattern.charAt(i);
+         long[] peq;
+         if (c < 128) {
+            if (asciiPeq[c] == null)
+               asciiPeq[c] = new long[blocks];
+
+            peq = asciiPeq[c];
+         } else {
+            int index = Arrays.binarySearch(otherChars, c);
+            if (otherPeq[index] == null)
+               otherPeq[index] = new long[blocks];
+
+            peq = otherPeq[index];
+         }
+         peq[i / WORD_SIZE] |= 1L << (i & (WORD_SIZE - 1));
+      }
+   }
+
+   /**
+    * Compiles the <code>pattern</code>.
+    *
+    * @param pattern The pattern to be compiled
+    *
+    * @return The compiled pattern
+    *
+    * @throws NullPointerException if <code>pattern</code> is <code>null</code>
+    */
+   public static FuzzyPattern compile(CharSequence pattern) throws NullPointerException {
+      return new FuzzyPattern(Objects.requireNonNull(pattern).toString());
+   }
+
+   /**
+    * Computes the Levenshtein distance between this pattern and the <code>text</code>.
+    *
+    * @param text The text to compare this pattern to
+    *
+    * @return The minimal number of inserted, deleted or substituted chars,
+    * that are needed to turn this pattern into the <code>text</code>
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    */
+   public int distance(CharSequence text) throws NullPointerException {
+      return distance(text, Integer.MAX_VALUE);
+   }
+
+   /**
+    * Computes the Levenshtein distance between this pattern and the <code>text</code>
+    * if it does not exceed <code>max</code>.
+    * The computation is aborted as soon as the distance is known to be greater than <code>max</code>,
+    * so this is much faster than {@link #distance(CharSequence)} for texts that are not similar.
+    *
+    * @param text The text to compare this pattern to
+    * @param max The maximum distance of interest
+    *
+    * @return The Levenshtein distance or -1 if it is greater than <code>max</code>
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    */
+   public int distance(CharSequence text, int max) throws NullPointerException {
+      int n = text.length();
+      int m = pattern.length();
+      if (Math.abs(m - n) > max)
+         return -1;
+      if (m == 0)
+         return n;
+
+      long[] pv = new long[blocks];
+      long[] mv = new long[blocks];
+      Arrays.fill(pv, -1L);
+      int score = m;
+      for (int j = 0; j < n; j++) {
+         score += advance(text.charAt(j), pv, mv, 1);
+         if (score - (n - j - 1) > max)
+            return -1;
+      }
+      return score;
+   }
+
+   /**
+    * Computes the Levenshtein distances between this pattern and each of the <code>candidates</code>.
+    * The candidates are processed in parallel using the common <code>ForkJoinPool</code>.
+    *
+    * @param candidates The texts to compare this pattern to
+    * @param max The maximum distance of interest
+    *
+    * @return An array containing the distance to the candidate with the same index
+    * or -1 if it is greater than <code>max</code>
+    *
+    * @throws NullPointerException if <code>candidates</code> or one of them is <code>null</code>
+    *
+    * @see #distance(CharSequence, int)
+    */
+   public int[] distances(CharSequence[] candidates, int max) throws NullPointerException {
+      Objects.requireNonNull(candidates);
+      return IntStream.range(0, candidates.length)
+                      .parallel()
+                      .map(i -> distance(candidates[i], max))
+                      .toArray();
+   }
+
+   /**
+    * Finds all occurences of this pattern in the <code>text</code> with at most <code>k</code> edits.
+    * For each end index in the <code>text</code> at which a substring with a distance of at most
+    * <code>k</code> to this pattern ends, one match is reported.
+    * Its distance is the minimal distance of all the substrings ending there
+    * and its start is the start of the shortest of those substrings.
+    * So overlapping matches are reported for neighbouring end indices.
+    *
+    * @param text The text to search
+    * @param k The maximum number of edits
+    *
+    * @return The list of matches in the order of their end indices
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    * @throws IllegalArgumentException if <code>k &lt; 0</code> or this pattern is empty
+    */
+   public List<Match> search(CharSequence text, int k) throws NullPointerException,
+                                                              IllegalArgumentException {
+      Objects.requireNonNull(text);
+      if (k < 0)
+         throw new IllegalArgumentException("k must not be negative. Was " + k);
+      if (pattern.isEmpty())
+         throw new IllegalArgumentException("Cannot search an empty pattern.");
+
+      List<Match> matches = new ArrayList<>();
+      long[] pv = new long[blocks];
+      long[] mv = new long[blocks];
+      Arrays.fill(pv, -1L);
+      int score = pattern.length();
+      for (int j = 0; j < text.length(); j++) {
+         score += advance(text.charAt(j), pv, mv, 0);
+         if (score <= k)
+            matches.add(new Match(locateStart(text, j + 1, score), j + 1, score));
+      }
+      return matches;
+   }
+
+   private int locateStart(CharSequence text, int end, int distance) {
+      FuzzyPattern reversed = reversed();
+      int from = Math.max(0, end - pattern.length() - distance);
+      long[] pv = new long[blocks];
+      long[] mv = new long[blocks];
+      Arrays.fill(pv, -1L);
+      int score = pattern.length();
+      if (score == distance)
+         return end;
+
+      for (int j = end - 1; j >= from; j--) {
+         score += reversed.advance(text.charAt(j), pv, mv, 1);
+         if (score == distance)
+            return j;
+      }
+      throw new IllegalStateException("Could not locate the start of a match ending at " + end);
+   }
+
+   private FuzzyPattern reversed() {
+      FuzzyPattern result = reversed;
+      if (result == null)
+         reversed = result = new FuzzyPattern(new StringBuilder(pattern).reverse().toString());
+
+      return result;
+   }
+
+   /**
+    * Computes the next column of the matrix for the char <code>c</code>.
+    *
+    * @param c The next char of the text
+    * @param pv The positive vertical deltas of each block
+    * @param mv The negative vertical deltas of each block
+    * @param hin The horizontal delta of the top row, 1 for global alignment and 0 for searching
+    *
+    * @return The horizontal delta of the last row
+    */
+   private int advance(char c, long[] pv, long[] mv, int hin) {
+      long[] peq = peq(c);
+      for (int b = 0; b < blocks; b++) {
+         long eq = peq[b];
+         long p = pv[b];
+         long m = mv[b];
+         long xv = eq | m;
+         if (hin < 0)
+            eq |= 1L;
+
+         long xh = (((eq & p) + p) ^ p) | eq;
+         long ph = m | ~(xh | p);
+         long mh = p & xh;
+
+         long high = b == blocks - 1 ? lastBit : Long.MIN_VALUE;
+         int hout = (ph & high) != 0 ? 1 : (mh & high) != 0 ? -1 : 0;
+
+         ph <<= 1;
+         mh <<= 1;
+         if (hin < 0)
+            mh |= 1L;
+         else if (hin > 0)
+            ph |= 1L;
+
+         pv[b] = mh | ~(xv | ph);
+         mv[b] = ph & xv;
+         hin = hout;
+      }
+      return hin;
+   }
+
+   private long[] peq(char c) {
+      long[] peq;
+      if (c < 128) {
+         peq = asciiPeq[c];
+      } else {
+         int index = Arrays.binarySearch(otherChars, c);
+         peq = index < 0 ? null : otherPeq[index];
+      }
+      return peq == null ? noMatch : peq;
+   }
+
+   /**
+    * Get the pattern, that has been compiled.
+    *
+    * @return The pattern
+    */
+   public String getPattern() {
+      return pattern;
+   }
+
+   @Override
+   public String toString() {
+      return pattern;
+   }
+
+   /**
+    * An approximate occurence of a {@link FuzzyPattern} in a text.
+    */
+   public static class Match {
+      private final int start;
+      private final int end;
+      private final int distance;
+
+      private Match(int start, int end, int distance) {
+         this.start = start;
+         this.end = end;
+         this.distance = distance;
+      }
+
+      /**
+       * Get the index of the first char of the matching substring.
+       *
+       * @return The start index
+       */
+      public int getStart() {
+         return start;
+      }
+
+      /**
+       * Get the index after the last char of the matching substring.
+       *
+       * @return The end index
+       */
+      public int getEnd() {
+         return end;
+      }
+
+      /**
+       * Get the Levenshtein distance between the pattern and the matching substring.
+       *
+       * @return The distance
+       */
+      public int getDistance() {
+         return distance;
+      }
+
+      @Override
+      public String toString() {
+         return "Match [" + start + ", " + end + ") distance=" + distance;
+      }
+   }
+}
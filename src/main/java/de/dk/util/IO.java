@@ -1,37 +1,217 @@
 package de.dk.util;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
+/**
+ * Contains some static methods to transfer data between streams.
+ * The data is transferred through buffers of the shared {@link BufferPool},
+ * so a transfer doesn't allocate a buffer of its own.
+ *
+ * @author David Koettlitz
+ */
 public final class IO {
+   private static final int MIN_BUFFER_SIZE = 8192;
+   private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
 
    private IO() {
 
    }
 
+   /**
+    * Reads the stream until its end.
+    *
+    * @param src The stream to read
+    *
+    * @return A <code>ByteArrayOutputStream</code> containing the read data
+    *
+    * @throws IOException If an I/O error occurs
+    */
    public static ByteArrayOutputStream read(InputStream src) throws IOException {
-      ByteArrayOutputStream target = new ByteArrayOutputStream(src.available());
+      ByteArrayOutputStream target = new ByteArrayOutputStream(Math.max(src.available(), MIN_BUFFER_SIZE));
       write(src, target);
       return target;
    }
 
-   public static byte[] readData(InputStream src) throws IOException {
-      ByteArrayOutputStream target = new ByteArrayOutputStream(src.available()) {
-         @Override
-         public byte[] toByteArray() {
-            return super.buf;
-         }
-      };
-      write(src, target);
-      return target.toByteArray();
+   /**
+    * Reads the stream until its end.
+    *
+    * @param src The stream to read
+    *
+    * @return An array of exactly the length of the read data
+    *
+    * @throws IOException If an I/O error occurs
+    * @throws OutOfMemoryError If the stream contains more data than fits into an array
+    */
+   public static byte[] readData(InputStream src) throws IOException, OutOfMemoryError {
+      ByteBuffer data = readBuffer(src);
+      byte[] array = data.array();
+      return data.limit() == array.length ? array : Arrays.copyOf(array, data.limit());
+   }
+
+   /**
+    * Reads the stream until its end, without copying the data into an array of exact length.
+    * The returned buffer is backed by the array the data has been read into,
+    * its limit is the length of the data, which may be smaller than the capacity.
+    *
+    * @param src The stream to read
+    *
+    * @return A buffer containing the read data
+    *
+    * @throws IOException If an I/O error occurs
+    * @throws OutOfMemoryError If the stream contains more data than fits into an array
+    */
+   public static ByteBuffer readBuffer(InputStream src) throws IOException, OutOfMemoryError {
+      int available = src.available();
+      if (available > 0)
+         return readGrowing(src, new byte[Math.max(available, MIN_BUFFER_SIZE)], 0);
+
+      // The length is unknown, so the data is read into a pooled buffer first,
+      // which only needs to be copied once if the data fits into it
+      try (BufferPool.Lease lease = BufferPool.shared().lease()) {
+         byte[] pooled = lease.array();
+         int length = readFully(src, pooled, 0);
+         if (length < pooled.length)
+            return ByteBuffer.wrap(Arrays.copyOf(pooled, length));
+
+         return readGrowing(src, Arrays.copyOf(pooled, grow(pooled.length)), length);
+      }
+   }
+
+   /**
+    * Reads the stream until its end into <code>buf</code> starting at <code>length</code>.
+    * The array is doubled whenever it is full and the stream has not ended.
+    */
+   private static ByteBuffer readGrowing(InputStream src, byte[] buf, int length) throws IOException, OutOfMemoryError {
+      while (true) {
+         length = readFully(src, buf, length);
+         if (length < buf.length)
+            break;
+
+         int next = src.read();
+         if (next < 0)
+            break;
+
+         buf = Arrays.copyOf(buf, grow(buf.length));
+         buf[length++] = (byte) next;
+      }
+      return ByteBuffer.wrap(buf, 0, length);
    }
 
+   /**
+    * Reads into <code>buf</code> starting at <code>length</code> until the array is full or the stream ends.
+    *
+    * @return The new length of the data in <code>buf</code>
+    */
+   private static int readFully(InputStream src, byte[] buf, int length) throws IOException {
+      while (length < buf.length) {
+         int n = src.read(buf, length, buf.length - length);
+         if (n < 0)
+            break;
+
+         length += n;
+      }
+      return length;
+   }
+
+   private static int grow(int length) throws OutOfMemoryError {
+      if (length == MAX_ARRAY_SIZE)
+         throw new OutOfMemoryError("Stream too large to be read into an array.");
+
+      return (int) Math.min((long) length * 2, MAX_ARRAY_SIZE);
+   }
+
+   /**
+    * Reads the <code>src</code> stream until its end and writes the read data to <code>target</code>.
+    * Neither of the streams is closed.
+    * The transfer is measured by the {@link TransferMetrics#installed() installed} <code>TransferMetrics</code>.
+    *
+    * @param src The stream to read
+    * @param target The stream to write the data to
+    *
+    * @throws IOException If an I/O error occurs
+    */
    public static void write(InputStream src, OutputStream target) throws IOException {
-      byte[] buf = new byte[src.available()];
-      for (int len = src.read(buf); len != -1; len = src.read(buf))
-         target.write(buf, 0, len);
+      TransferMetrics metrics = TransferMetrics.installed();
+      try (BufferPool.Lease lease = BufferPool.shared().lease()) {
+         byte[] buf = lease.array();
+         if (metrics == null) {
+            for (int len = src.read(buf); len != -1; len = src.read(buf))
+               target.write(buf, 0, len);
+         } else {
+            long start = System.nanoTime();
+            write(src, target, buf, metrics);
+            metrics.completed(TransferMetrics.Operation.STREAM, System.nanoTime() - start);
+         }
+      }
+   }
+
+   /**
+    * Transfers the data through <code>buf</code> like {@link #write(InputStream, OutputStream)}
+    * and measures the time spent in reading and writing.
+    */
+   static void write(InputStream src, OutputStream target, byte[] buf, TransferMetrics metrics) throws IOException {
+      long bytes = 0;
+      long readNanos = 0;
+      long writeNanos = 0;
+      try {
+         while (true) {
+            long start = System.nanoTime();
+            int len = src.read(buf);
+            long read = System.nanoTime();
+            readNanos += read - start;
+            if (len == -1)
+               break;
+
+            target.write(buf, 0, len);
+            writeNanos += System.nanoTime() - read;
+            bytes += len;
+         }
+      } finally {
+         metrics.transferred(bytes, readNanos, writeNanos);
+      }
+   }
+
+   /**
+    * Reads the <code>src</code> stream until its end and writes the read data
+    * compressed by <code>compression</code> to <code>target</code>.
+    * The compressed data is finished, but neither of the streams is closed.
+    *
+    * @param src The stream to read
+    * @param target The stream to write the compressed data to
+    * @param compression The compression to compress the data with
+    *
+    * @throws IOException If an I/O error occurs
+    */
+   public static void write(InputStream src, OutputStream target, Compression compression) throws IOException {
+      try (OutputStream compressed = compression.compress(new NonClosingOutputStream(target))) {
+         write(src, compressed);
+      }
+   }
+
+   /**
+    * Passes everything to the underlying stream except of closing it,
+    * so compressed data can be finished without closing the target.
+    */
+   private static class NonClosingOutputStream extends FilterOutputStream {
+      private NonClosingOutputStream(OutputStream out) {
+         super(out);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+         out.write(b, off, len);
+      }
+
+      @Override
+      public void close() throws IOException {
+         out.flush();
+      }
    }
 
 }
@@ -0,0 +1,283 @@
+package de.dk.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Binds key value pairs, e.g. of a line like <code>name=value count=3 verbose</code>,
+ * directly to the fields of an object. Each key is the name of a field.
+ * Values are parsed to the type of the field, which can be a primitive type,
+ * a primitive wrapper, <code>String</code> or an enum.
+ * A key without a value sets a <code>boolean</code> field to <code>true</code>.<br>
+ * The fields of a class and a parser for each of them are determined once
+ * and cached for all binders of the class. Keys are looked up and integral numbers
+ * are parsed without creating Strings.
+ * The lines are split by a {@link KeyValueTokenizer}, which makes an instance not thread safe.
+ *
+ * @param <T> The type of the objects to bind the values to
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class KeyValueBinder<T> {
+   private static final ClassValue<Bindings> BINDINGS = new ClassValue<Bindings>() {
+      @Override
+      protected Bindings computeValue(Class<?> type) {
+         return new Bindings(type);
+      }
+   };
+
+   private final Bindings bindings;
+   private final KeyValueTokenizer tokenizer;
+   private final boolean ignoreUnknownKeys;
+
+   /**
+    * Creates a new binder for the fields of <code>type</code>.
+    *
+    * @param type The type of the objects to bind the values to
+    * @param tokenizer The tokenizer to split the lines
+    * @param ignoreUnknownKeys <code>true</code> if keys without a matching field should be ignored,
+    * <code>false</code> if they should cause an <code>IllegalArgumentException</code>
+    *
+    * @throws NullPointerException if <code>type</code> or <code>tokenizer</code> is <code>null</code>
+    */
+   public KeyValueBinder(Class<T> type,
+                         KeyValueTokenizer tokenizer,
+                         boolean ignoreUnknownKeys) throws NullPointerException {
+      this.bindings = BINDINGS.get(Objects.requireNonNull(type));
+      this.tokenizer = Objects.requireNonNull(tokenizer);
+      this.ignoreUnknownKeys = ignoreUnknownKeys;
+   }
+
+   /**
+    * Creates a new binder for the fields of <code>type</code> using a default {@link KeyValueTokenizer},
+    * that does not accept unknown keys.
+    *
+    * @param type The type of the objects to bind the values to
+    *
+    * @throws NullPointerException if <code>type</code> is <code>null</code>
+    */
+   public KeyValueBinder(Class<T> type) throws NullPointerException {
+      this(type, new KeyValueTokenizer(), false);
+   }
+
+   /**
+    * Tokenizes the <code>line</code> and binds all of its key value pairs to the <code>target</code>.
+    *
+    * @param line The line to be bound
+    * @param target The object to bind the values to
+    *
+    * @return The <code>target</code>
+    *
+    * @throws IllegalArgumentException if the line cannot be tokenized, a key is unknown
+    * or a value cannot be parsed to the type of its field
+    */
+   public T bind(CharSequence line, T target) throws IllegalArgumentException {
+      tokenizer.tokenize(line, (key, value) -> bind(key, value, target));
+      return target;
+   }
+
+   /**
+    * Binds one key value pair to the <code>target</code>.
+    *
+    * @param key The name of the field
+    * @param value The value to be parsed or <code>null</code> to set a <code>boolean</code> field to <code>true</code>
+    * @param target The object to bind the value to
+    *
+    * @return <code>true</code> if the value was bound, <code>false</code> if the key is unknown
+    * and unknown keys are ignored
+    *
+    * @throws IllegalArgumentException if the key is unknown and unknown keys are not ignored
+    * or the value cannot be parsed to the type of the field
+    */
+   public boolean bind(CharSequence key, CharSequence value, T target) throws IllegalArgumentException {
+      Binding binding = bindings.get(key);
+      if (binding == null) {
+         if (ignoreUnknownKeys)
+            return false;
+
+         throw new IllegalArgumentException("Unknown key \"" + key + "\" for " + bindings.type.getName());
+      }
+
+      try {
+         binding.parser.set(target, binding.field, value);
+      } catch (IllegalAccessException e) {
+         throw new IllegalArgumentException("Could not modify field " + binding.field, e);
+      } catch (RuntimeException e) {
+         String msg = "Could not parse \"" + value + "\" to " + binding.field.getType().getName()
+                      + " for key \"" + key + '"';
+         throw new IllegalArgumentException(msg, e);
+      }
+      return true;
+   }
+
+   private static int hash(CharSequence text) {
+      int hash = 0;
+      for (int i = 0; i < text.length(); i++)
+         hash = 31 * hash + text.charAt(i);
+
+      return hash ^ (hash >>> 16);
+   }
+
+   private static long parseLong(CharSequence value, long min, long max) throws NumberFormatException {
+      int length = value.length();
+      if (length == 0)
+         throw new NumberFormatException("Empty value");
+
+      int i = 0;
+      boolean negative = value.charAt(0) == '-';
+      if (negative || value.charAt(0) == '+')
+         i++;
+
+      if (i == length)
+         throw new NumberFormatException("No digits in \"" + value + '"');
+
+      // Accumulates negatively to be able to represent Long.MIN_VALUE
+      long result = 0;
+      for (; i < length; i++) {
+         int digit = value.charAt(i) - '0';
+         if (digit < 0 || digit > 9)
+            throw new NumberFormatException("Invalid digit in \"" + value + '"');
+         if (result < (Long.MIN_VALUE + digit) / 10)
+            throw new NumberFormatException("Value out of range: \"" + value + '"');
+
+         result = result * 10 - digit;
+      }
+      if (!negative) {
+         if (result == Long.MIN_VALUE)
+            throw new NumberFormatException("Value out of range: \"" + value + '"');
+
+         result = -result;
+      }
+      if (result < min || result > max)
+         throw new NumberFormatException("Value out of range: \"" + value + '"');
+
+      return result;
+   }
+
+   private static char parseChar(CharSequence value) throws IllegalArgumentException {
+      if (value == null || value.length() != 1)
+         throw new IllegalArgumentException("Expected exactly one char, but was \"" + value + '"');
+
+      return value.charAt(0);
+   }
+
+   private static FieldParser parserFor(Class<?> type) throws IllegalArgumentException {
+      if (type == Integer.TYPE)
+         return (t, f, v) -> f.setInt(t, (int) parseLong(v, Integer.MIN_VALUE, Integer.MAX_VALUE));
+      if (type == Long.TYPE)
+         return (t, f, v) -> f.setLong(t, parseLong(v, Long.MIN_VALUE, Long.MAX_VALUE));
+      if (type == Short.TYPE)
+         return (t, f, v) -> f.setShort(t, (short) parseLong(v, Short.MIN_VALUE, Short.MAX_VALUE));
+      if (type == Byte.TYPE)
+         return (t, f, v) -> f.setByte(t, (byte) parseLong(v, Byte.MIN_VALUE, Byte.MAX_VALUE));
+      if (type == Boolean.TYPE)
+         return (t, f, v) -> f.setBoolean(t, v == null || isTrue(v));
+      if (type == Character.TYPE)
+         return (t, f, v) -> f.setChar(t, parseChar(v));
+      if (type == Float.TYPE)
+         return (t, f, v) -> f.setFloat(t, Float.parseFloat(v.toString()));
+      if (type == Double.TYPE)
+         return (t, f, v) -> f.setDouble(t, Double.parseDouble(v.toString()));
+      if (type == Boolean.class)
+         return (t, f, v) -> f.set(t, v == null || isTrue(v));
+      if (type == Character.class)
+         return (t, f, v) -> f.set(t, parseChar(v));
+      if (type.isEnum())
+         return (t, f, v) -> f.set(t, ReflectionUtils.parseUnknownEnumValue(type, v.toString()));
+      if (ReflectionUtils.isPrimitive(type)) {
+         ReflectionUtils.Primitive<?> primitive = ReflectionUtils.Primitive.of(type);
+         return (t, f, v) -> f.set(t, primitive.parse(v.toString()));
+      }
+      return null;
+   }
+
+   private static boolean isTrue(CharSequence value) {
+      if (value.length() != 4)
+         return false;
+
+      return Character.toLowerCase(value.charAt(0)) == 't'
+             && Character.toLowerCase(value.charAt(1)) == 'r'
+             && Character.toLowerCase(value.charAt(2)) == 'u'
+             && Character.toLowerCase(value.charAt(3)) == 'e';
+   }
+
+   @FunctionalInterface
+   private static interface FieldParser {
+      public void set(Object target, Field field, CharSequence value) throws IllegalAccessException;
+   }
+
+   private static class Binding {
+      final String name;
+      final int hash;
+      final Field field;
+      final FieldParser parser;
+
+      Binding(Field field, FieldParser parser) {
+         this.name = field.getName();
+         this.hash = hash(name);
+         this.field = field;
+         this.parser = parser;
+      }
+   }
+
+   /**
+    * The bindings of all bindable fields of a class in an open addressing hash table,
+    * that can be queried with any <code>CharSequence</code>.
+    */
+   private static class Bindings {
+      final Class<?> type;
+      final Binding[] table;
+
+      Bindings(Class<?> type) {
+         this.type = type;
+         List<Binding> bindings = new ArrayList<>();
+         for (Field field : ReflectionUtils.getAllFieldsOf(type)) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic())
+               continue;
+
+            FieldParser parser = parserFor(field.getType());
+            if (parser == null)
+               continue;
+
+            field.setAccessible(true);
+            bindings.add(new Binding(field, parser));
+         }
+
+         this.table = new Binding[Integer.highestOneBit(Math.max(bindings.size(), 1) * 2) * 2];
+         for (Binding binding : bindings) {
+            int i = binding.hash & (table.length - 1);
+            while (table[i] != null && !table[i].name.equals(binding.name))
+               i = (i + 1) & (table.length - 1);
+
+            // Fields of subclasses come first and hide fields of superclasses with the same name
+            if (table[i] == null)
+               table[i] = binding;
+         }
+      }
+
+      Binding get(CharSequence key) {
+         int mask = table.length - 1;
+         for (int i = hash(key) & mask; table[i] != null; i = (i + 1) & mask) {
+            if (equals(table[i].name, key))
+               return table[i];
+         }
+         return null;
+      }
+
+      private static boolean equals(String name, CharSequence key) {
+         if (name.length() != key.length())
+            return false;
+
+         for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != key.charAt(i))
+               return false;
+         }
+         return true;
+      }
+   }
+}
@@ -0,0 +1,205 @@
+package de.dk.util;
+
+import java.util.Objects;
+
+/**
+ * Splits lines like <code>name=value path="/some dir/file" 'quoted key'=1 flag</code>
+ * into key value pairs. The pairs are separated by whitespace (see {@link StringUtils#isBlank(char)}).
+ * A key without a separator is passed with a <code>null</code> value.
+ * Keys and values can be quoted with <code>"</code> or <code>'</code> to contain whitespace.
+ * The escape char has the semantics of {@link StringUtils#filter(char, String)}:
+ * The escape char and the char following it are ignored, but the ignored char
+ * neither ends a quote nor a token.<br>
+ * The tokenizer works directly on the given <code>CharSequence</code>. The keys and values
+ * passed to the consumer are views, that are only valid during the call of the consumer
+ * and are reused afterwards. Only keys and values containing escape chars are copied
+ * into an internal buffer. Therefore an instance is not thread safe.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class KeyValueTokenizer {
+   private final char separator;
+   private final char escape;
+   private final Window key = new Window();
+   private final Window value = new Window();
+   private final StringBuilder keyBuffer = new StringBuilder();
+   private final StringBuilder valueBuffer = new StringBuilder();
+   private int position;
+
+   /**
+    * Creates a new tokenizer.
+    *
+    * @param separator The char, that separates a key from its value
+    * @param escape The escape char
+    *
+    * @throws IllegalArgumentException if <code>separator</code> or <code>escape</code> is a quote,
+    * whitespace or if both are equal
+    */
+   public KeyValueTokenizer(char separator, char escape) throws IllegalArgumentException {
+      if (separator == escape || isQuote(separator) || isQuote(escape)
+          || StringUtils.isBlank(separator) || StringUtils.isBlank(escape)) {
+         String msg = String.format("Invalid separator '%s' or escape char '%s'", separator, escape);
+         throw new IllegalArgumentException(msg);
+      }
+
+      this.separator = separator;
+      this.escape = escape;
+   }
+
+   /**
+    * Creates a new tokenizer with <code>=</code> as separator and <code>\</code> as escape char.
+    */
+   public KeyValueTokenizer() {
+      this('=', '\\');
+   }
+
+   /**
+    * Splits the <code>line</code> into key value pairs and passes them to the <code>consumer</code>
+    * in the order of their occurence.
+    *
+    * @param line The line to be tokenized
+    * @param consumer The consumer of the key value pairs
+    * @param <E> The type of exception thrown by the <code>consumer</code>
+    *
+    * @return The number of key value pairs
+    *
+    * @throws IllegalArgumentException if a quote is not terminated or a key is empty
+    * @throws E If the consumer throws an exception
+    */
+   public <E extends Exception> int tokenize(CharSequence line,
+                                             KeyValueConsumer<E> consumer) throws IllegalArgumentException, E {
+      Objects.requireNonNull(consumer);
+      int length = line.length();
+      int count = 0;
+      position = StringUtils.indexOfNonBlank(line, 0);
+      while (position != -1 && position < length) {
+         int keyStart = position;
+         readToken(line, key, keyBuffer, true);
+         if (key.length() == 0)
+            throw new IllegalArgumentException("Empty key at index " + keyStart + " of \"" + line + '"');
+
+         Window v = null;
+         if (position < length && line.charAt(position) == separator) {
+            position++;
+            readToken(line, value, valueBuffer, false);
+            v = value;
+         }
+         consumer.accept(key, v);
+         count++;
+         position = StringUtils.indexOfNonBlank(line, position);
+      }
+      return count;
+   }
+
+   /**
+    * Reads the token at the current position into the <code>window</code>.
+    * After this method the position is at the char after the token.
+    */
+   private void readToken(CharSequence line, Window window, StringBuilder buffer, boolean isKey) {
+      int length = line.length();
+      int start = position;
+      char quote = 0;
+      boolean escaped = false;
+      int i = position;
+      if (i < length && isQuote(line.charAt(i))) {
+         quote = line.charAt(i++);
+         start = i;
+      }
+
+      int end = -1;
+      for (; i < length; i++) {
+         char c = line.charAt(i);
+         if (c == escape) {
+            escaped = true;
+            i++;
+         } else if (quote != 0 ? c == quote : StringUtils.isBlank(c) || (isKey && c == separator)) {
+            end = i;
+            break;
+         }
+      }
+
+      if (end == -1) {
+         if (quote != 0)
+            throw new IllegalArgumentException("Unterminated quote at index " + (start - 1) + " of \"" + line + '"');
+
+         end = Math.min(i, length);
+      }
+      this.position = quote != 0 ? end + 1 : end;
+
+      if (escaped) {
+         buffer.setLength(0);
+         for (int j = start; j < end; j++) {
+            char c = line.charAt(j);
+            if (c == escape)
+               j++;
+            else
+               buffer.append(c);
+         }
+         window.set(buffer, 0, buffer.length());
+      } else {
+         window.set(line, start, end);
+      }
+   }
+
+   private static boolean isQuote(char c) {
+      return c == '"' || c == '\'';
+   }
+
+   /**
+    * Consumes key value pairs of a {@link KeyValueTokenizer}.
+    *
+    * @param <E> The type of exception thrown by this consumer
+    */
+   @FunctionalInterface
+   public static interface KeyValueConsumer<E extends Exception> {
+      /**
+       * Consumes a key value pair.
+       * The key and value are only valid during this call.
+       *
+       * @param key The key
+       * @param value The value or <code>null</code> if the key has no value
+       *
+       * @throws E if an exception occurs
+       */
+      public void accept(CharSequence key, CharSequence value) throws E;
+   }
+
+   private static class Window implements CharSequence {
+      private CharSequence text;
+      private int start;
+      private int end;
+
+      void set(CharSequence text, int start, int end) {
+         this.text = text;
+         this.start = start;
+         this.end = end;
+      }
+
+      @Override
+      public int length() {
+         return end - start;
+      }
+
+      @Override
+      public char charAt(int index) {
+         if (index < 0 || index >= end - start)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length());
+
+         return text.charAt(start + index);
+      }
+
+      @Override
+      public CharSequence subSequence(int start, int end) {
+         if (start < 0 || end > length() || start > end)
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+
+         return text.subSequence(this.start + start, this.start + end);
+      }
+
+      @Override
+      public String toString() {
+         return text.subSequence(start, end).toString();
+      }
+   }
+}
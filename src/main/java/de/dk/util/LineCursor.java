@@ -0,0 +1,203 @@
+package de.dk.util;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A cursor that walks over the lines of a <code>CharSequence</code> without copying them.
+ * The cursor itself is a <code>CharSequence</code> view of the current line,
+ * so a line can be inspected without allocating a new String.
+ * The line terminators <code>\n</code>, <code>\r\n</code> and <code>\r</code>
+ * are treated equally and are not part of the lines.
+ * A text with <i>n</i> line terminators consists of <i>n + 1</i> lines,
+ * so a text that ends with a line terminator has an empty last line.<br>
+ * If the cursor is created with a {@link LineIndex} it can jump to any line in constant time
+ * using {@link #moveTo(int)}, otherwise the text has to be scanned.<br>
+ * The underlying text must not be modified while the cursor is in use.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class LineCursor implements CharSequence {
+   private final CharSequence text;
+   private final LineIndex index;
+
+   private int line = -1;
+   private int start;
+   private int end;
+   private int nextStart = 0;
+
+   /**
+    * Creates a new cursor over the lines of the <code>text</code>.
+    * The cursor is positioned before the first line.
+    *
+    * @param text The text to walk over
+    * @param index An index of the line starts of the <code>text</code>
+    * or <code>null</code> if no index should be used
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    * @throws IllegalArgumentException if the <code>index</code> is not an index of <code>text</code>
+    */
+   public LineCursor(CharSequence text, LineIndex index) throws NullPointerException,
+                                                                 IllegalArgumentException {
+      this.text = Objects.requireNonNull(text);
+      if (index != null && index.getText() != text)
+         throw new IllegalArgumentException("The index does not belong to the given text.");
+
+      this.index = index;
+   }
+
+   /**
+    * Creates a new cursor over the lines of the <code>text</code> without a line index.
+    * The cursor is positioned before the first line.
+    *
+    * @param text The text to walk over
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    */
+   public LineCursor(CharSequence text) throws NullPointerException {
+      this(text, null);
+   }
+
+   /**
+    * Get if there is another line after the current one.
+    *
+    * @return <code>true</code> if {@link #next()} would move to another line
+    */
+   public boolean hasNext() {
+      return nextStart != -1;
+   }
+
+   /**
+    * Moves the cursor to the next line.
+    *
+    * @return <code>true</code> if the cursor was moved to the next line,
+    * <code>false</code> if the current line is the last one
+    */
+   public boolean next() {
+      if (nextStart == -1)
+         return false;
+
+      line++;
+      start = nextStart;
+      end = StringUtils.indexOfLineEnd(text, start);
+      if (end == text.length())
+         nextStart = -1;
+      else
+         nextStart = end + StringUtils.lineTerminatorLength(text, end);
+
+      return true;
+   }
+
+   /**
+    * Moves the cursor to the line with the given number.
+    * If this cursor has a {@link LineIndex} this is done in constant time.
+    * Otherwise the text is scanned from the current line or from the beginning
+    * if <code>lineNumber</code> lies before the current line.
+    *
+    * @param lineNumber The number of the line to move to, starting at 0
+    *
+    * @throws NoSuchElementException if the text has no line with the given number
+    */
+   public void moveTo(int lineNumber) throws NoSuchElementException {
+      if (lineNumber < 0)
+         throw new NoSuchElementException("No line " + lineNumber);
+
+      if (index != null) {
+         if (lineNumber >= index.getLineCount())
+            throw new NoSuchElementException("No line " + lineNumber);
+
+         this.line = lineNumber;
+         this.start = index.getStart(lineNumber);
+         this.end = index.getEnd(lineNumber);
+         this.nextStart = lineNumber + 1 < index.getLineCount() ? index.getStart(lineNumber + 1) : -1;
+         return;
+      }
+
+      if (lineNumber < line)
+         reset();
+
+      while (line < lineNumber) {
+         if (!next())
+            throw new NoSuchElementException("No line " + lineNumber);
+      }
+   }
+
+   /**
+    * Positions this cursor before the first line again.
+    */
+   public void reset() {
+      this.line = -1;
+      this.start = 0;
+      this.end = 0;
+      this.nextStart = 0;
+   }
+
+   /**
+    * Get the number of the current line, starting at 0.
+    *
+    * @return The number of the current line or -1 if the cursor is positioned before the first line
+    */
+   public int getLineNumber() {
+      return line;
+   }
+
+   /**
+    * Get the index of the first char of the current line in the underlying text.
+    *
+    * @return The start index of the current line
+    */
+   public int getStart() {
+      return start;
+   }
+
+   /**
+    * Get the index after the last char of the current line in the underlying text,
+    * which is the index of the line terminator or the length of the text.
+    *
+    * @return The end index of the current line
+    */
+   public int getEnd() {
+      return end;
+   }
+
+   /**
+    * Get the underlying text this cursor walks over.
+    *
+    * @return The underlying text
+    */
+   public CharSequence getText() {
+      return text;
+   }
+
+   @Override
+   public int length() {
+      return end - start;
+   }
+
+   @Override
+   public char charAt(int index) throws IndexOutOfBoundsException {
+      if (index < 0 || index >= end - start)
+         throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length());
+
+      return text.charAt(start + index);
+   }
+
+   @Override
+   public CharSequence subSequence(int start, int end) throws IndexOutOfBoundsException {
+      if (start < 0 || end > length() || start > end)
+         throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+
+      return text.subSequence(this.start + start, this.start + end);
+   }
+
+   /**
+    * Copies the current line into a new String.
+    *
+    * @return The current line as a String
+    */
+   @Override
+   public String toString() {
+      return text.subSequence(start, end).toString();
+   }
+}
@@ -0,0 +1,153 @@
+package de.dk.util;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An index of the line starts of a <code>CharSequence</code>, that provides random access
+ * to the lines of the text. The line terminators <code>\n</code>, <code>\r\n</code>
+ * and <code>\r</code> are treated equally, just like the {@link LineCursor} does.<br>
+ * The indexed text must not be modified as long as the index is in use.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class LineIndex {
+   private final CharSequence text;
+   private final int[] starts;
+   private final int lineCount;
+
+   private LineIndex(CharSequence text, int[] starts, int lineCount) {
+      this.text = text;
+      this.starts = starts;
+      this.lineCount = lineCount;
+   }
+
+   /**
+    * Creates an index of the line starts of the <code>text</code> by scanning it once.
+    *
+    * @param text The text to be indexed
+    *
+    * @return The line index of the <code>text</code>
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    */
+   public static LineIndex of(CharSequence text) throws NullPointerException {
+      int length = Objects.requireNonNull(text).length();
+      int[] starts = new int[16];
+      int count = 1;
+      for (int i = 0; i < length; i++) {
+         char c = text.charAt(i);
+         if (c != '\n' && c != '\r')
+            continue;
+
+         if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n')
+            i++;
+
+         if (count == starts.length)
+            starts = Arrays.copyOf(starts, count * 2);
+
+         starts[count++] = i + 1;
+      }
+      return new LineIndex(text, starts, count);
+   }
+
+   /**
+    * Creates a new {@link LineCursor} over the indexed text, that uses this index.
+    *
+    * @return A new cursor positioned before the first line
+    */
+   public LineCursor cursor() {
+      return new LineCursor(text, this);
+   }
+
+   /**
+    * Get the index of the first char of the line.
+    *
+    * @param line The number of the line, starting at 0
+    *
+    * @return The start index of the line
+    *
+    * @throws IndexOutOfBoundsException if there is no line with the number <code>line</code>
+    */
+   public int getStart(int line) throws IndexOutOfBoundsException {
+      checkLine(line);
+      return starts[line];
+   }
+
+   /**
+    * Get the index after the last char of the line,
+    * which is the index of its line terminator or the length of the text.
+    *
+    * @param line The number of the line, starting at 0
+    *
+    * @return The end index of the line
+    *
+    * @throws IndexOutOfBoundsException if there is no line with the number <code>line</code>
+    */
+   public int getEnd(int line) throws IndexOutOfBoundsException {
+      checkLine(line);
+      if (line == lineCount - 1)
+         return text.length();
+
+      int next = starts[line + 1];
+      if (next - 2 >= starts[line] && text.charAt(next - 2) == '\r' && text.charAt(next - 1) == '\n')
+         return next - 2;
+
+      return next - 1;
+   }
+
+   /**
+    * Get the line as a view of the indexed text.
+    *
+    * @param line The number of the line, starting at 0
+    *
+    * @return The line without its line terminator
+    *
+    * @throws IndexOutOfBoundsException if there is no line with the number <code>line</code>
+    */
+   public CharSequence getLine(int line) throws IndexOutOfBoundsException {
+      return text.subSequence(getStart(line), getEnd(line));
+   }
+
+   /**
+    * Determines the number of the line, that contains the char at <code>index</code>.
+    * A line terminator belongs to the line it terminates.
+    *
+    * @param index The index of the char in the indexed text
+    *
+    * @return The number of the line, that contains the char at <code>index</code>
+    *
+    * @throws IndexOutOfBoundsException if <code>index &lt; 0 || index &gt; text.length()</code>
+    */
+   public int getLineOf(int index) throws IndexOutOfBoundsException {
+      if (index < 0 || index > text.length())
+         throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + text.length());
+
+      int result = Arrays.binarySearch(starts, 0, lineCount, index);
+      return result >= 0 ? result : -result - 2;
+   }
+
+   /**
+    * Get the number of lines of the indexed text.
+    *
+    * @return The number of lines, which is at least 1
+    */
+   public int getLineCount() {
+      return lineCount;
+   }
+
+   /**
+    * Get the indexed text.
+    *
+    * @return The indexed text
+    */
+   public CharSequence getText() {
+      return text;
+   }
+
+   private void checkLine(int line) throws IndexOutOfBoundsException {
+      if (line < 0 || line >= lineCount)
+         throw new IndexOutOfBoundsException("Line: " + line + ", Line count: " + lineCount);
+   }
+}
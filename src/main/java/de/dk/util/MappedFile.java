@@ -0,0 +1,327 @@
+package de.dk.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * A read only view of a file, that is mapped into memory.
+ * A single {@link MappedByteBuffer} can only address <code>Integer.MAX_VALUE</code> bytes,
+ * so the file is mapped as a sequence of segments and addressed with <code>long</code> indices.
+ * No content of the file is copied onto the heap, unless it is read into an array with
+ * {@link #read(long, byte[], int, int)} or the {@link #stream(long)}.
+ * Multi byte values are read in big endian byte order.
+ * The content of a file must not be truncated while it is mapped.
+ * The mapping is released when the <code>MappedFile</code> is garbage collected.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class MappedFile {
+   private static final int SEGMENT_SHIFT = 30;
+
+   private final File file;
+   private final long size;
+   private final int segmentShift;
+   private final long segmentMask;
+   private final MappedByteBuffer[] segments;
+
+   private MappedFile(File file, long size, int segmentShift, MappedByteBuffer[] segments) {
+      this.file = file;
+      this.size = size;
+      this.segmentShift = segmentShift;
+      this.segmentMask = (1L << segmentShift) - 1;
+      this.segments = segments;
+   }
+
+   /**
+    * Maps the content of the file into memory.
+    *
+    * @param file The file to map
+    *
+    * @return The mapped file
+    *
+    * @throws IOException If the file cannot be mapped
+    */
+   public static MappedFile map(File file) throws IOException {
+      return map(file, SEGMENT_SHIFT);
+   }
+
+   static MappedFile map(File file, int segmentShift) throws IOException {
+      try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+           FileChannel channel = raf.getChannel()) {
+         long size = channel.size();
+         long segmentSize = 1L << segmentShift;
+         MappedByteBuffer[] segments = new MappedByteBuffer[DMath.cutToInt((size + segmentSize - 1) >>> segmentShift)];
+         for (int i = 0; i < segments.length; i++) {
+            long position = (long) i << segmentShift;
+            segments[i] = channel.map(MapMode.READ_ONLY, position, Math.min(segmentSize, size - position));
+         }
+         return new MappedFile(file, size, segmentShift, segments);
+      }
+   }
+
+   /**
+    * Reads the byte at <code>index</code>.
+    *
+    * @param index The index of the byte
+    *
+    * @return The byte at <code>index</code>
+    *
+    * @throws IndexOutOfBoundsException if <code>index</code> is negative or not smaller than the size
+    */
+   public byte get(long index) throws IndexOutOfBoundsException {
+      checkIndex(index, 1);
+      return segments[(int) (index >>> segmentShift)].get((int) (index & segmentMask));
+   }
+
+   /**
+    * Reads the four bytes at <code>index</code> as an int in big endian byte order.
+    *
+    * @param index The index of the first byte
+    *
+    * @return The int at <code>index</code>
+    *
+    * @throws IndexOutOfBoundsException if the four bytes are not inside the file
+    */
+   public int getInt(long index) throws IndexOutOfBoundsException {
+      checkIndex(index, Integer.BYTES);
+      int offset = (int) (index & segmentMask);
+      MappedByteBuffer segment = segments[(int) (index >>> segmentShift)];
+      if (offset <= segment.limit() - Integer.BYTES)
+         return segment.getInt(offset);
+
+      int value = 0;
+      for (int i = 0; i < Integer.BYTES; i++)
+         value = (value << 8) | (get(index + i) & 0xFF);
+
+      return value;
+   }
+
+   /**
+    * Reads the eight bytes at <code>index</code> as a long in big endian byte order.
+    *
+    * @param index The index of the first byte
+    *
+    * @return The long at <code>index</code>
+    *
+    * @throws IndexOutOfBoundsException if the eight bytes are not inside the file
+    */
+   public long getLong(long index) throws IndexOutOfBoundsException {
+      checkIndex(index, Long.BYTES);
+      int offset = (int) (index & segmentMask);
+      MappedByteBuffer segment = segments[(int) (index >>> segmentShift)];
+      if (offset <= segment.limit() - Long.BYTES)
+         return segment.getLong(offset);
+
+      long value = 0;
+      for (int i = 0; i < Long.BYTES; i++)
+         value = (value << 8) | (get(index + i) & 0xFF);
+
+      return value;
+   }
+
+   /**
+    * Reads up to <code>length</code> bytes starting at <code>position</code> into <code>dst</code>.
+    * Less bytes are read only if the end of the file is reached.
+    *
+    * @param position The index of the first byte to read
+    * @param dst The array to read the bytes into
+    * @param offset The index in <code>dst</code> to write the first byte to
+    * @param length The maximum number of bytes to read
+    *
+    * @return The number of bytes read or -1 if <code>position</code> is at the end of the file
+    *
+    * @throws IndexOutOfBoundsException if <code>position</code> is negative or greater than the size
+    * or the range of <code>offset</code> and <code>length</code> is not inside <code>dst</code>
+    */
+   public int read(long position, byte[] dst, int offset, int length) throws IndexOutOfBoundsException {
+      if (position < 0 || position > size)
+         throw new IndexOutOfBoundsException("position: " + position + ", size: " + size);
+      if (offset < 0 || length < 0 || length > dst.length - offset)
+         throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length + ", dst.length: " + dst.length);
+      if (position == size)
+         return length == 0 ? 0 : -1;
+
+      int count = (int) Math.min(length, size - position);
+      for (int read = 0; read < count;) {
+         long current = position + read;
+         ByteBuffer segment = segments[(int) (current >>> segmentShift)].duplicate();
+         ((Buffer) segment).position((int) (current & segmentMask));
+         int n = Math.min(count - read, segment.remaining());
+         segment.get(dst, offset + read, n);
+         read += n;
+      }
+      return count;
+   }
+
+   /**
+    * Get a view of <code>length</code> bytes starting at <code>position</code> as a <code>ByteBuffer</code>.
+    * If the range lies inside a single segment the returned buffer shares the mapped memory,
+    * otherwise the range is copied into a new heap buffer.
+    *
+    * @param position The index of the first byte
+    * @param length The number of bytes
+    *
+    * @return A read only buffer with the bytes of the range
+    *
+    * @throws IndexOutOfBoundsException if the range is not inside the file
+    */
+   public ByteBuffer slice(long position, int length) throws IndexOutOfBoundsException {
+      checkIndex(position, length);
+      if (length == 0)
+         return ByteBuffer.allocate(0).asReadOnlyBuffer();
+
+      int offset = (int) (position & segmentMask);
+      ByteBuffer segment = segments[(int) (position >>> segmentShift)].duplicate();
+      if (offset + length <= segment.limit()) {
+         // Called through Buffer to stay binary compatible with Java 8
+         ((Buffer) segment).position(offset);
+         ((Buffer) segment).limit(offset + length);
+         return segment.slice().asReadOnlyBuffer();
+      }
+
+      byte[] copy = new byte[length];
+      read(position, copy, 0, length);
+      return ByteBuffer.wrap(copy).asReadOnlyBuffer();
+   }
+
+   /**
+    * Get a stream of the content of the file starting at <code>position</code>.
+    * The stream reads directly from the mapped memory, it doesn't need to be closed.
+    *
+    * @param position The index of the first byte the stream provides
+    *
+    * @return A new stream of the content
+    *
+    * @throws IndexOutOfBoundsException if <code>position</code> is negative or greater than the size
+    */
+   public InputStream stream(long position) throws IndexOutOfBoundsException {
+      if (position < 0 || position > size)
+         throw new IndexOutOfBoundsException("position: " + position + ", size: " + size);
+
+      return new MappedInputStream(position);
+   }
+
+   /**
+    * Get a stream of the whole content of the file.
+    *
+    * @return A new stream of the content
+    *
+    * @see #stream(long)
+    */
+   public InputStream stream() {
+      return stream(0);
+   }
+
+   /**
+    * Get a segment of the mapping. All segments but the last one have the same size.
+    * The returned buffer is a duplicate, so changing its position doesn't affect this mapping.
+    *
+    * @param index The index of the segment
+    *
+    * @return A read only buffer of the segment
+    *
+    * @throws IndexOutOfBoundsException if <code>index</code> is not a valid segment index
+    */
+   public ByteBuffer getSegment(int index) throws IndexOutOfBoundsException {
+      return segments[index].asReadOnlyBuffer();
+   }
+
+   /**
+    * Get the number of segments the file is mapped in.
+    *
+    * @return The number of segments
+    */
+   public int getSegmentCount() {
+      return segments.length;
+   }
+
+   /**
+    * Get the number of mapped bytes.
+    *
+    * @return The size of the file at the time it was mapped
+    */
+   public long size() {
+      return size;
+   }
+
+   /**
+    * Get the mapped file.
+    *
+    * @return The file
+    */
+   public File getFile() {
+      return file;
+   }
+
+   private void checkIndex(long index, int length) throws IndexOutOfBoundsException {
+      if (index < 0 || length < 0 || index > size - length)
+         throw new IndexOutOfBoundsException("index: " + index + ", length: " + length + ", size: " + size);
+   }
+
+   @Override
+   public String toString() {
+      return "MappedFile { file=" + file + ", size=" + size + ", segments=" + segments.length + " }";
+   }
+
+   private class MappedInputStream extends InputStream {
+      private long position;
+      private long mark;
+
+      private MappedInputStream(long position) {
+         this.position = position;
+         this.mark = position;
+      }
+
+      @Override
+      public int read() {
+         if (position >= size)
+            return -1;
+
+         return get(position++) & 0xFF;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) {
+         int read = MappedFile.this.read(position, b, off, len);
+         if (read > 0)
+            position += read;
+
+         return read;
+      }
+
+      @Override
+      public long skip(long n) {
+         long skipped = Math.max(0, Math.min(n, size - position));
+         position += skipped;
+         return skipped;
+      }
+
+      @Override
+      public int available() {
+         return DMath.cutToInt(size - position);
+      }
+
+      @Override
+      public boolean markSupported() {
+         return true;
+      }
+
+      @Override
+      public synchronized void mark(int readlimit) {
+         this.mark = position;
+      }
+
+      @Override
+      public synchronized void reset() {
+         this.position = mark;
+      }
+   }
+}
@@ -0,0 +1,214 @@
+package de.dk.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A pack of many small files, that are stored in one data file, which is mapped into memory.
+ * Storing millions of tiny files in a pack avoids the metadata operations of the file system,
+ * that dominate the time of copying or deleting them one by one.
+ * <p>
+ * A pack consists of the data file, to which the contents of the entries are appended,
+ * and an index file next to it with the name of the data file plus {@link #INDEX_EXTENSION}.
+ * The index holds the names of the entries sorted, together with the position and length
+ * of their contents in the data file. Packs are written by a {@link PackWriter}.
+ * The names of the entries are relative paths separated by <code>'/'</code>.
+ * </p>
+ * The contents of the entries are returned as read only slices of the mapped data file,
+ * so they are neither copied nor read before they are accessed.
+ * A <code>PackFile</code> can be used by several threads at the same time.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class PackFile {
+   /** The extension of the name of the index file, that is appended to the name of the data file. */
+   public static final String INDEX_EXTENSION = ".idx";
+
+   static final int INDEX_MAGIC = 0x444B504B;
+   static final int INDEX_VERSION = 1;
+
+   private final File file;
+   private final MappedFile data;
+   private final String[] names;
+   private final long[] positions;
+   private final int[] lengths;
+
+   private PackFile(File file, MappedFile data, String[] names, long[] positions, int[] lengths) {
+      this.file = file;
+      this.data = data;
+      this.names = names;
+      this.positions = positions;
+      this.lengths = lengths;
+   }
+
+   /**
+    * Opens the pack, reads its index and maps its data file into memory.
+    *
+    * @param pack The data file of the pack
+    *
+    * @return The opened pack
+    *
+    * @throws IOException If the pack cannot be read or its index is invalid
+    */
+   public static PackFile open(File pack) throws IOException {
+      Index index = readIndex(pack);
+      if (index == null)
+         throw new IOException("Index of pack " + pack.getAbsolutePath() + " not found.");
+
+      MappedFile data = MappedFile.map(pack);
+      if (data.size() < index.dataLength)
+         throw new IOException("Data file of pack " + pack.getAbsolutePath() + " is truncated.");
+
+      return new PackFile(pack, data, index.names, index.positions, index.lengths);
+   }
+
+   static File indexOf(File pack) {
+      return new File(pack.getPath() + INDEX_EXTENSION);
+   }
+
+   /**
+    * Reads the index of the pack.
+    *
+    * @return The index or <code>null</code> if the pack has no index
+    */
+   static Index readIndex(File pack) throws IOException {
+      File file = indexOf(pack);
+      if (!file.exists())
+         return null;
+
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+         if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION)
+            throw new IOException(file.getAbsolutePath() + " is not a pack index of this version.");
+
+         long dataLength = in.readLong();
+         int count = in.readInt();
+         String[] names = new String[count];
+         long[] positions = new long[count];
+         int[] lengths = new int[count];
+         for (int i = 0; i < count; i++) {
+            names[i] = in.readUTF();
+            positions[i] = in.readLong();
+            lengths[i] = in.readInt();
+         }
+         return new Index(dataLength, names, positions, lengths);
+      }
+   }
+
+   /**
+    * Get the content of the entry with the given name.
+    * The returned buffer is a read only slice of the mapped data file.
+    *
+    * @param name The name of the entry
+    *
+    * @return The content of the entry or <code>null</code> if the pack contains no entry with that name
+    */
+   public ByteBuffer get(String name) {
+      int i = Arrays.binarySearch(names, name);
+      return i < 0 ? null : data.slice(positions[i], lengths[i]);
+   }
+
+   /**
+    * Finds out if the pack contains an entry with the given name.
+    *
+    * @param name The name of the entry
+    *
+    * @return <code>true</code> if the pack contains the entry
+    */
+   public boolean contains(String name) {
+      return Arrays.binarySearch(names, name) >= 0;
+   }
+
+   /**
+    * Get the names of the entries of this pack in sorted order.
+    *
+    * @return An unmodifiable list of the names
+    */
+   public List<String> getNames() {
+      return Collections.unmodifiableList(Arrays.asList(names));
+   }
+
+   /**
+    * Get the number of entries of this pack.
+    *
+    * @return The number of entries
+    */
+   public int size() {
+      return names.length;
+   }
+
+   /**
+    * Writes every entry of this pack to a file, whose path relative to <code>target</code> is the name
+    * of the entry. Missing directories are created and existing files are overwritten.
+    * So unpacking a pack, that has been packed by {@link PackWriter#addTree(File)},
+    * has the same result as copying the packed files with {@link FileUtils#copy(File, File)},
+    * except of empty directories, which are not packed.
+    *
+    * @param target The directory to unpack the entries to
+    *
+    * @throws IOException If a file cannot be written or the name of an entry leads outside of <code>target</code>
+    */
+   public void unpack(File target) throws IOException {
+      Path root = target.toPath().toAbsolutePath().normalize();
+      Path createdDir = null;
+      for (int i = 0; i < names.length; i++) {
+         Path path = root.resolve(names[i]).normalize();
+         if (!path.startsWith(root) || path.equals(root))
+            throw new IOException("Entry " + names[i] + " leads outside of " + root);
+
+         // The entries are sorted, so the files of a directory follow each other
+         Path dir = path.getParent();
+         if (!dir.equals(createdDir)) {
+            dir.toFile().mkdirs();
+            createdDir = dir;
+         }
+
+         ByteBuffer content = data.slice(positions[i], lengths[i]);
+         try (FileChannel channel = FileChannel.open(path,
+                                                     StandardOpenOption.CREATE,
+                                                     StandardOpenOption.TRUNCATE_EXISTING,
+                                                     StandardOpenOption.WRITE)) {
+            while (content.hasRemaining())
+               channel.write(content);
+         }
+      }
+   }
+
+   /**
+    * Get the data file of this pack.
+    *
+    * @return The data file
+    */
+   public File getFile() {
+      return file;
+   }
+
+   @Override
+   public String toString() {
+      return "PackFile { file=" + file + ", entries=" + names.length + " }";
+   }
+
+   static class Index {
+      final long dataLength;
+      final String[] names;
+      final long[] positions;
+      final int[] lengths;
+
+      Index(long dataLength, String[] names, long[] positions, int[] lengths) {
+         this.dataLength = dataLength;
+         this.names = names;
+         this.positions = positions;
+         this.lengths = lengths;
+      }
+   }
+}
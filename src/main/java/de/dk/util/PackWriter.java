@@ -0,0 +1,266 @@
+package de.dk.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes a {@link PackFile}. The contents of the added entries are appended to the data file
+ * and the sorted index is written when the writer is closed.
+ * If the pack exists already the new entries are appended to it.
+ * An entry with the name of an existing entry replaces it in the index,
+ * but the data file is never rewritten, so the content of the replaced entry stays in it.
+ * Until the writer is closed, readers see the pack as it has been before.
+ * If the data file cannot be written, the writer refuses further entries and doesn't write the index.
+ * <p>
+ * A writer must not be used by several threads at the same time
+ * and only one writer may write to a pack at a time.
+ * </p>
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class PackWriter implements Closeable {
+   private final File pack;
+   private final OutputStream out;
+   private final TreeMap<String, long[]> entries = new TreeMap<>();
+   private long position;
+   private boolean closed;
+   /** The error, that left the data file in an unknown state. */
+   private Exception broken;
+
+   /**
+    * Opens the pack to append entries to it. If the pack doesn't exist it is created.
+    *
+    * @param pack The data file of the pack
+    *
+    * @throws IOException If the pack cannot be opened or its index is invalid
+    */
+   public PackWriter(File pack) throws IOException {
+      this.pack = pack;
+      PackFile.Index index = PackFile.readIndex(pack);
+      if (index == null) {
+         if (pack.length() > 0)
+            throw new IOException("Pack " + pack.getAbsolutePath() + " has no index.");
+      } else {
+         for (int i = 0; i < index.names.length; i++)
+            entries.put(index.names[i], new long[] {index.positions[i], index.lengths[i]});
+      }
+
+      // Data of an unfinished writer after the indexed entries is overwritten
+      long dataLength = index == null ? 0 : index.dataLength;
+      FileOutputStream file = new FileOutputStream(pack, true);
+      try {
+         file.getChannel().truncate(dataLength);
+      } catch (IOException e) {
+         file.close();
+         throw e;
+      }
+      this.out = new BufferedOutputStream(file, BufferPool.DEFAULT_BUFFER_SIZE);
+      this.position = dataLength;
+   }
+
+   private static void checkName(String name) throws IllegalArgumentException {
+      if (name.isEmpty() || name.startsWith("/") || name.indexOf('\\') >= 0)
+         throw new IllegalArgumentException("Invalid entry name: " + name);
+   }
+
+   /**
+    * Adds an entry with the given content.
+    *
+    * @param name The name of the entry, a relative path separated by <code>'/'</code>
+    * @param content The content of the entry
+    *
+    * @return This writer to go on
+    *
+    * @throws IOException If the content cannot be written
+    * @throws IllegalArgumentException if the name is empty, absolute or contains a <code>'\'</code>
+    */
+   public PackWriter add(String name, byte[] content) throws IOException, IllegalArgumentException {
+      checkName(name);
+      ensureOpen();
+      long start = position;
+      write(content, content.length);
+      entries.put(name, new long[] {start, content.length});
+      return this;
+   }
+
+   /**
+    * Appends the data to the data file. If it cannot be written the writer is broken,
+    * because it is unknown how much of the data has reached the file.
+    */
+   private void write(byte[] data, int length) throws IOException {
+      try {
+         out.write(data, 0, length);
+      } catch (IOException | RuntimeException e) {
+         broken = e;
+         throw e;
+      }
+      position += length;
+   }
+
+   /**
+    * Adds an entry with the content of the stream until its end. The stream is not closed.
+    *
+    * @param name The name of the entry, a relative path separated by <code>'/'</code>
+    * @param in The stream to read the content from
+    *
+    * @return This writer to go on
+    *
+    * @throws IOException If the content cannot be read or written or it is larger than 2 GiB
+    * @throws IllegalArgumentException if the name is empty, absolute or contains a <code>'\'</code>
+    */
+   public PackWriter add(String name, InputStream in) throws IOException, IllegalArgumentException {
+      checkName(name);
+      ensureOpen();
+      // If reading fails the data read so far stays in the data file,
+      // but the position is still correct, so further entries can be added
+      long start = position;
+      try (BufferPool.Lease lease = BufferPool.shared().lease()) {
+         byte[] buf = lease.array();
+         for (int len = in.read(buf); len != -1; len = in.read(buf))
+            write(buf, len);
+      }
+      long length = position - start;
+      if (length > Integer.MAX_VALUE)
+         throw new IOException("Entry " + name + " is too large for a pack: " + length + " bytes");
+
+      entries.put(name, new long[] {start, length});
+      return this;
+   }
+
+   /**
+    * Adds an entry with the content of the file.
+    *
+    * @param name The name of the entry, a relative path separated by <code>'/'</code>
+    * @param file The file to add
+    *
+    * @return This writer to go on
+    *
+    * @throws IOException If the file cannot be read or the content cannot be written
+    * @throws IllegalArgumentException if the name is empty, absolute or contains a <code>'\'</code>
+    */
+   public PackWriter add(String name, File file) throws IOException, IllegalArgumentException {
+      try (FileInputStream in = new FileInputStream(file)) {
+         return add(name, in);
+      }
+   }
+
+   /**
+    * Adds a file or all files of a directory tree, like {@link FileUtils#copy(File, File)} would copy them.
+    * The name of an entry is the path of its file relative to the parent of <code>source</code>,
+    * so it starts with the name of <code>source</code>. Empty directories are not added.
+    *
+    * @param source The file or directory to add
+    *
+    * @return This writer to go on
+    *
+    * @throws IOException If a file cannot be read or the content cannot be written
+    */
+   public PackWriter addTree(File source) throws IOException {
+      addTree(source, source.getName());
+      return this;
+   }
+
+   private void addTree(File source, String name) throws IOException {
+      if (source.isDirectory()) {
+         File[] children = source.listFiles();
+         if (children == null) {
+            String msg = "Could not access content of " + source.getAbsolutePath();
+            throw new IOException(msg);
+         }
+         for (File f : children)
+            addTree(f, name + "/" + f.getName());
+      } else {
+         add(name, source);
+      }
+   }
+
+   private void ensureOpen() throws IOException {
+      if (closed)
+         throw new IOException("PackWriter closed.");
+      if (broken != null)
+         throw new IOException("PackWriter broken by an earlier error.", broken);
+   }
+
+   /**
+    * Get the number of entries of the pack including the added ones.
+    *
+    * @return The number of entries
+    */
+   public int size() {
+      return entries.size();
+   }
+
+   /**
+    * Flushes the data file and writes the index atomically, so the added entries become visible.
+    * If the data file could not be written before, the index is not written,
+    * so the pack stays as it has been before this writer.
+    *
+    * @throws IOException If the data or the index cannot be written or the writer is broken
+    */
+   @Override
+   public void close() throws IOException {
+      if (closed)
+         return;
+
+      closed = true;
+      try {
+         out.close();
+      } catch (IOException | RuntimeException e) {
+         if (broken == null)
+            broken = e;
+      }
+      if (broken != null)
+         throw new IOException("Index of pack " + pack.getAbsolutePath() + " not written.", broken);
+
+      writeIndex();
+   }
+
+   /**
+    * Closes the data file without writing the index, so the entries added by this writer
+    * are discarded and the pack stays as it has been before.
+    * The discarded data is overwritten by the next writer of the pack.
+    *
+    * @throws IOException If the data file cannot be closed
+    */
+   public void abort() throws IOException {
+      if (closed)
+         return;
+
+      closed = true;
+      out.close();
+   }
+
+   private void writeIndex() throws IOException {
+      File index = PackFile.indexOf(pack);
+      File temp = new File(index.getAbsoluteFile().getParentFile(), index.getName() + ".tmp");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+         out.writeInt(PackFile.INDEX_MAGIC);
+         out.writeInt(PackFile.INDEX_VERSION);
+         out.writeLong(position);
+         out.writeInt(entries.size());
+         for (Map.Entry<String, long[]> entry : entries.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue()[0]);
+            out.writeInt((int) entry.getValue()[1]);
+         }
+      }
+      Files.move(temp.toPath(), index.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   @Override
+   public String toString() {
+      return "PackWriter { pack=" + pack + ", entries=" + entries.size() + " }";
+   }
+}
@@ -0,0 +1,230 @@
+package de.dk.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Deletes a directory tree with a {@link ForkJoinPool}.
+ * Every directory is deleted by its own task, that deletes the files of the directory
+ * in batches of parallel tasks and forks a task for each subdirectory.
+ * A directory itself is deleted after all of its content has been deleted.
+ * The entries of a directory are enumerated with a {@link DirectoryStream},
+ * so huge directories are never held in memory as a whole.
+ * The progress can be watched and the deletion can be cancelled from other threads,
+ * while {@link #run()} is deleting.
+ * Symbolic links are deleted, never followed.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class ParallelDelete {
+   private static final int BATCH_SIZE = 256;
+
+   private final Path root;
+   private final AtomicLong deletedFiles = new AtomicLong();
+   private final AtomicLong deletedDirectories = new AtomicLong();
+   private final AtomicReference<IOException> error = new AtomicReference<>();
+   private volatile boolean cancelled;
+   /** The maximum number of file batches of a directory in flight. */
+   private int maxBatches;
+
+   /**
+    * Creates a new deletion of <code>file</code>.
+    * Nothing is deleted until {@link #run()} is called.
+    *
+    * @param file The file or directory to delete
+    */
+   public ParallelDelete(File file) {
+      this.root = file.toPath();
+   }
+
+   /**
+    * Deletes the file in the {@link ForkJoinPool#commonPool()}.
+    *
+    * @return <code>true</code> if the file has been deleted completely,
+    * <code>false</code> if the deletion has been cancelled
+    *
+    * @throws IOException The first I/O error that occured during the deletion
+    */
+   public boolean run() throws IOException {
+      return run(ForkJoinPool.commonPool());
+   }
+
+   /**
+    * Deletes the file in the given <code>pool</code>.
+    * When an error occurs no further files are deleted.
+    *
+    * @param pool The pool to run the deletion in
+    *
+    * @return <code>true</code> if the file has been deleted completely,
+    * <code>false</code> if the deletion has been cancelled
+    *
+    * @throws IOException The first I/O error that occured during the deletion
+    */
+   public boolean run(ForkJoinPool pool) throws IOException {
+      if (!Files.isDirectory(root, LinkOption.NOFOLLOW_LINKS)) {
+         Files.delete(root);
+         deletedFiles.incrementAndGet();
+         return true;
+      }
+
+      maxBatches = Math.max(2, pool.getParallelism() * 2);
+      pool.invoke(new DirectoryTask(root));
+
+      IOException e = error.get();
+      if (e != null)
+         throw e;
+
+      return !cancelled;
+   }
+
+   /**
+    * Cancels the deletion. Files that are being deleted at the moment
+    * are still deleted, but no further files.
+    */
+   public void cancel() {
+      this.cancelled = true;
+   }
+
+   /**
+    * Determines whether this deletion has been cancelled.
+    *
+    * @return <code>true</code> if {@link #cancel()} has been called
+    */
+   public boolean isCancelled() {
+      return cancelled;
+   }
+
+   /**
+    * Get the number of files, that have been deleted so far, not counting directories.
+    *
+    * @return The number of deleted files
+    */
+   public long getDeletedFileCount() {
+      return deletedFiles.get();
+   }
+
+   /**
+    * Get the number of directories, that have been deleted so far.
+    *
+    * @return The number of deleted directories
+    */
+   public long getDeletedDirectoryCount() {
+      return deletedDirectories.get();
+   }
+
+   private boolean isStopped() {
+      return cancelled || error.get() != null;
+   }
+
+   private void fail(IOException e) {
+      if (!error.compareAndSet(null, e) && error.get() != e)
+         error.get().addSuppressed(e);
+   }
+
+   private class DirectoryTask extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+
+      private final Path dir;
+
+      private DirectoryTask(Path dir) {
+         this.dir = dir;
+      }
+
+      @Override
+      protected void compute() {
+         List<RecursiveAction> directories = new ArrayList<>();
+         // Only a few batches are in flight, so the paths of a huge directory are never held at once
+         Deque<RecursiveAction> batches = new ArrayDeque<>();
+         try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            List<Path> batch = new ArrayList<>(BATCH_SIZE);
+            for (Path entry : entries) {
+               if (isStopped())
+                  break;
+
+               if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                  directories.add(fork(new DirectoryTask(entry)));
+               } else {
+                  batch.add(entry);
+                  if (batch.size() == BATCH_SIZE) {
+                     if (batches.size() == maxBatches)
+                        batches.poll().join();
+
+                     batches.add(fork(new FilesTask(batch)));
+                     batch = new ArrayList<>(BATCH_SIZE);
+                  }
+               }
+            }
+            if (!batch.isEmpty() && !isStopped())
+               new FilesTask(batch).compute();
+         } catch (IOException e) {
+            fail(e);
+         } catch (DirectoryIteratorException e) {
+            // Thrown by the iterator of the stream if the next entry cannot be read
+            fail(e.getCause());
+         }
+
+         for (RecursiveAction task : batches)
+            task.join();
+         for (RecursiveAction task : directories)
+            task.join();
+
+         if (isStopped())
+            return;
+
+         try {
+            Files.delete(dir);
+            deletedDirectories.incrementAndGet();
+         } catch (IOException e) {
+            fail(e);
+         }
+      }
+
+      private RecursiveAction fork(RecursiveAction task) {
+         task.fork();
+         return task;
+      }
+   }
+
+   private class FilesTask extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+
+      private List<Path> files;
+
+      private FilesTask(List<Path> files) {
+         this.files = files;
+      }
+
+      @Override
+      protected void compute() {
+         List<Path> files = this.files;
+         // The batch is not needed anymore, while the task waits to be joined
+         this.files = null;
+         for (Path file : files) {
+            if (isStopped())
+               return;
+
+            try {
+               Files.delete(file);
+               deletedFiles.incrementAndGet();
+            } catch (IOException e) {
+               fail(e);
+               return;
+            }
+         }
+      }
+   }
+}
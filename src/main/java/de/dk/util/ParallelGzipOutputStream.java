@@ -0,0 +1,226 @@
+package de.dk.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A stream, that compresses the written data in the GZIP format with several threads, like pigz does.
+ * The data is split into blocks, that are compressed independently of each other in parallel.
+ * Each block is primed with the last 32 KiB of the previous block as dictionary,
+ * so the compression ratio is almost as good as the one of sequential compression.
+ * The compressed blocks are written in order and form a single standard GZIP member.
+ * Only a bounded number of blocks is compressed at the same time,
+ * so writing waits if the compression can't keep up.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class ParallelGzipOutputStream extends FilterOutputStream {
+   /** The default size of the blocks the data is split into. */
+   public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+   private static final int DICTIONARY_SIZE = 32 * 1024;
+   private static final byte[] HEADER = {
+      0x1F, (byte) 0x8B, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xFF
+   };
+
+   private final int level;
+   private final int blockSize;
+   private final int maxPendingBlocks;
+   private final Executor executor;
+   private final CRC32 crc = new CRC32();
+   private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+   private byte[] block;
+   private int blockLength;
+   private byte[] dictionary;
+   private long totalLength;
+   private boolean closed;
+
+   /**
+    * Creates a new stream, that compresses blocks of the default size in the
+    * {@link ForkJoinPool#commonPool()}.
+    *
+    * @param out The stream to write the compressed data to
+    * @param level The compression level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+    *
+    * @throws IOException If the header cannot be written
+    */
+   public ParallelGzipOutputStream(OutputStream out, int level) throws IOException {
+      this(out, level, DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool(), 2 * ForkJoinPool.getCommonPoolParallelism());
+   }
+
+   /**
+    * Creates a new stream.
+    *
+    * @param out The stream to write the compressed data to
+    * @param level The compression level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+    * @param blockSize The size of the blocks the data is split into
+    * @param executor The executor to compress the blocks in
+    * @param maxPendingBlocks The maximum number of blocks compressed at the same time
+    *
+    * @throws IOException If the header cannot be written
+    * @throws IllegalArgumentException if <code>blockSize</code> or <code>maxPendingBlocks</code> is not positive
+    */
+   public ParallelGzipOutputStream(OutputStream out,
+                                   int level,
+                                   int blockSize,
+                                   Executor executor,
+                                   int maxPendingBlocks) throws IOException, IllegalArgumentException {
+      super(out);
+      if (blockSize < 1)
+         throw new IllegalArgumentException("blockSize must be positive. Was " + blockSize);
+      if (maxPendingBlocks < 1)
+         throw new IllegalArgumentException("maxPendingBlocks must be positive. Was " + maxPendingBlocks);
+
+      this.level = level;
+      this.blockSize = blockSize;
+      this.executor = executor;
+      this.maxPendingBlocks = maxPendingBlocks;
+      this.block = new byte[blockSize];
+      out.write(HEADER);
+   }
+
+   private static byte[] compress(byte[] data, int length, byte[] dictionary, int level, boolean last) {
+      Deflater deflater = new Deflater(level, true);
+      try {
+         if (dictionary != null)
+            deflater.setDictionary(dictionary);
+
+         deflater.setInput(data, 0, length);
+         byte[] result = new byte[Math.max(64, length / 2)];
+         int resultLength = 0;
+         if (last)
+            deflater.finish();
+
+         while (true) {
+            if (resultLength == result.length)
+               result = Arrays.copyOf(result, result.length * 2);
+
+            int n = deflater.deflate(result,
+                                     resultLength,
+                                     result.length - resultLength,
+                                     last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+            resultLength += n;
+            // A flush is complete if the output buffer was not filled
+            if (last ? deflater.finished() : resultLength < result.length)
+               break;
+         }
+         return Arrays.copyOf(result, resultLength);
+      } finally {
+         deflater.end();
+      }
+   }
+
+   @Override
+   public void write(int b) throws IOException {
+      ensureOpen();
+      block[blockLength++] = (byte) b;
+      if (blockLength == blockSize)
+         submitBlock(false);
+   }
+
+   @Override
+   public void write(byte[] b, int off, int len) throws IOException {
+      ensureOpen();
+      if (off < 0 || len < 0 || len > b.length - off)
+         throw new IndexOutOfBoundsException("off: " + off + ", len: " + len + ", b.length: " + b.length);
+
+      while (len > 0) {
+         int n = Math.min(len, blockSize - blockLength);
+         System.arraycopy(b, off, block, blockLength, n);
+         blockLength += n;
+         off += n;
+         len -= n;
+         if (blockLength == blockSize)
+            submitBlock(false);
+      }
+   }
+
+   private void submitBlock(boolean last) throws IOException {
+      byte[] data = block;
+      int length = blockLength;
+      byte[] dict = dictionary;
+      crc.update(data, 0, length);
+      totalLength += length;
+
+      if (length >= DICTIONARY_SIZE)
+         dictionary = Arrays.copyOfRange(data, length - DICTIONARY_SIZE, length);
+      else if (length > 0)
+         dictionary = Arrays.copyOfRange(data, 0, length);
+
+      pending.add(CompletableFuture.supplyAsync(() -> compress(data, length, dict, level, last), executor));
+      block = new byte[blockSize];
+      blockLength = 0;
+
+      while (pending.size() > (last ? 0 : maxPendingBlocks - 1) || (!pending.isEmpty() && pending.peek().isDone()))
+         out.write(await(pending.poll()));
+   }
+
+   private static byte[] await(CompletableFuture<byte[]> future) throws IOException {
+      try {
+         return future.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while compressing.");
+      } catch (ExecutionException e) {
+         throw new IOException("Could not compress a block.", e.getCause());
+      }
+   }
+
+   private void ensureOpen() throws IOException {
+      if (closed)
+         throw new IOException("Stream closed.");
+   }
+
+   /**
+    * Writes the compressed blocks, that are complete.
+    * Data of the current block, that is not complete yet, is not flushed,
+    * because that would reduce the compression ratio.
+    *
+    * @throws IOException If an I/O error occurs
+    */
+   @Override
+   public void flush() throws IOException {
+      ensureOpen();
+      while (!pending.isEmpty() && pending.peek().isDone())
+         out.write(await(pending.poll()));
+
+      out.flush();
+   }
+
+   /**
+    * Compresses the remaining data, writes the GZIP trailer and closes the underlying stream.
+    *
+    * @throws IOException If an I/O error occurs
+    */
+   @Override
+   public void close() throws IOException {
+      if (closed)
+         return;
+
+      closed = true;
+      try {
+         submitBlock(true);
+         int crcValue = (int) crc.getValue();
+         int size = (int) totalLength;
+         out.write(new byte[] {
+            (byte) crcValue, (byte) (crcValue >>> 8), (byte) (crcValue >>> 16), (byte) (crcValue >>> 24),
+            (byte) size, (byte) (size >>> 8), (byte) (size >>> 16), (byte) (size >>> 24)
+         });
+         out.flush();
+      } finally {
+         out.close();
+      }
+   }
+}
@@ -0,0 +1,380 @@
+package de.dk.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * An immutable, balanced rope of chars, that is meant for large texts which are edited often.
+ * The text is stored in a tree of small chunks, so an edit does not copy the whole text,
+ * but only creates the O(log n) nodes on the path to the edited position.
+ * The tree is kept balanced like an AVL tree.
+ * {@link #insert(int, CharSequence)}, {@link #delete(int, int)}, {@link #concat(CharSequence)}
+ * and {@link #subSequence(int, int)} run in O(log n).
+ * {@link #charAt(int)} runs in O(log n) as well, but sequential access
+ * to neighbouring chars is served from the most recently used chunk.<br>
+ * Since a rope is a <code>CharSequence</code> it can be used with the
+ * {@link LineCursor}, {@link LineIndex} and the <code>CharSequence</code> methods of {@link StringUtils}.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class Rope implements CharSequence {
+   private static final int LEAF_SIZE = 1024;
+   private static final Rope EMPTY = new Rope(new Leaf(""));
+
+   private final Node root;
+   private Chunk lastChunk;
+
+   private Rope(Node root) {
+      this.root = root;
+   }
+
+   /**
+    * Get the empty rope.
+    *
+    * @return The empty rope
+    */
+   public static Rope empty() {
+      return EMPTY;
+   }
+
+   /**
+    * Creates a balanced rope containing the chars of <code>text</code>.
+    * If <code>text</code> already is a rope, it is returned as is.
+    *
+    * @param text The text of the rope
+    *
+    * @return A rope representing the <code>text</code>
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    */
+   public static Rope of(CharSequence text) throws NullPointerException {
+      if (text instanceof Rope)
+         return (Rope) text;
+
+      return wrap(build(Objects.requireNonNull(text)));
+   }
+
+   private static Rope wrap(Node node) {
+      return node.length == 0 ? EMPTY : new Rope(node);
+   }
+
+   private static Node build(CharSequence text) {
+      int length = text.length();
+      if (length <= LEAF_SIZE)
+         return new Leaf(text.toString());
+
+      List<Node> nodes = new ArrayList<>(length / LEAF_SIZE + 1);
+      for (int i = 0; i < length; i += LEAF_SIZE)
+         nodes.add(new Leaf(text.subSequence(i, Math.min(i + LEAF_SIZE, length)).toString()));
+
+      while (nodes.size() > 1) {
+         List<Node> parents = new ArrayList<>(nodes.size() / 2 + 1);
+         for (int i = 0; i < nodes.size(); i += 2) {
+            if (i + 1 < nodes.size())
+               parents.add(new Concat(nodes.get(i), nodes.get(i + 1)));
+            else
+               parents.add(nodes.get(i));
+         }
+         nodes = parents;
+      }
+      return nodes.get(0);
+   }
+
+   /**
+    * Creates a new rope that consists of this rope followed by <code>text</code>.
+    *
+    * @param text The text to append
+    *
+    * @return The concatenated rope
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    */
+   public Rope concat(CharSequence text) throws NullPointerException {
+      return wrap(join(root, of(text).root));
+   }
+
+   /**
+    * Creates a new rope that equals this rope with <code>text</code> inserted at <code>index</code>.
+    *
+    * @param index The index to insert the <code>text</code> at
+    * @param text The text to insert
+    *
+    * @return The resulting rope
+    *
+    * @throws IndexOutOfBoundsException if <code>index &lt; 0 || index &gt; length()</code>
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    */
+   public Rope insert(int index, CharSequence text) throws IndexOutOfBoundsException,
+                                                           NullPointerException {
+      checkIndex(index);
+      Node inserted = of(text).root;
+      Node[] parts = split(root, index);
+      return wrap(join(join(parts[0], inserted), parts[1]));
+   }
+
+   /**
+    * Creates a new rope that equals this rope without the chars
+    * from <code>start</code> inclusive to <code>end</code> exclusive.
+    *
+    * @param start The index of the first char to delete
+    * @param end The index after the last char to delete
+    *
+    * @return The resulting rope
+    *
+    * @throws IndexOutOfBoundsException if <code>start</code> or <code>end</code> are out of bounds
+    * or <code>start &gt; end</code>
+    */
+   public Rope delete(int start, int end) throws IndexOutOfBoundsException {
+      checkRange(start, end);
+      Node[] tail = split(root, end);
+      Node[] head = split(tail[0], start);
+      return wrap(join(head[0], tail[1]));
+   }
+
+   /**
+    * Inserts <code>insert</code> before each line of this rope.
+    * The line terminators are kept as they are.
+    * No text is inserted after a trailing line terminator.
+    *
+    * @param insert The text to insert before each line
+    *
+    * @return The resulting rope
+    *
+    * @see StringUtils#insertBeforeLines(String, String)
+    */
+   public Rope insertBeforeLines(CharSequence insert) {
+      if (insert == null || insert.length() == 0)
+         return this;
+
+      Node ins = of(insert).root;
+      Node result = ins;
+      LineCursor cursor = new LineCursor(this);
+      cursor.next();
+      int from = 0;
+      while (cursor.hasNext()) {
+         cursor.next();
+         int start = cursor.getStart();
+         result = join(result, subNode(from, start));
+         if (start < length())
+            result = join(result, ins);
+
+         from = start;
+      }
+      return wrap(join(result, subNode(from, length())));
+   }
+
+   /**
+    * Calls the <code>consumer</code> for each chunk of this rope in order.
+    * This is the fastest way to traverse a rope sequentially.
+    *
+    * @param consumer The consumer of the chunks
+    */
+   public void forEachChunk(Consumer<? super CharSequence> consumer) {
+      forEachChunk(root, consumer);
+   }
+
+   private static void forEachChunk(Node node, Consumer<? super CharSequence> consumer) {
+      if (node instanceof Leaf) {
+         consumer.accept(((Leaf) node).text);
+      } else {
+         Concat concat = (Concat) node;
+         forEachChunk(concat.left, consumer);
+         forEachChunk(concat.right, consumer);
+      }
+   }
+
+   @Override
+   public int length() {
+      return root.length;
+   }
+
+   @Override
+   public char charAt(int index) throws IndexOutOfBoundsException {
+      Chunk chunk = lastChunk;
+      if (chunk != null && index >= chunk.offset && index < chunk.offset + chunk.leaf.length)
+         return chunk.leaf.text.charAt(index - chunk.offset);
+
+      if (index < 0 || index >= root.length)
+         throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + root.length);
+
+      Node node = root;
+      int offset = 0;
+      while (node instanceof Concat) {
+         Concat concat = (Concat) node;
+         if (index - offset < concat.left.length) {
+            node = concat.left;
+         } else {
+            offset += concat.left.length;
+            node = concat.right;
+         }
+      }
+      this.lastChunk = new Chunk((Leaf) node, offset);
+      return ((Leaf) node).text.charAt(index - offset);
+   }
+
+   /**
+    * Creates a rope of the chars from <code>start</code> inclusive to <code>end</code> exclusive.
+    * The chunks of this rope are shared with the returned rope.
+    *
+    * @param start The index of the first char
+    * @param end The index after the last char
+    *
+    * @return A rope of the requested chars
+    *
+    * @throws IndexOutOfBoundsException if <code>start</code> or <code>end</code> are out of bounds
+    * or <code>start &gt; end</code>
+    */
+   @Override
+   public Rope subSequence(int start, int end) throws IndexOutOfBoundsException {
+      checkRange(start, end);
+      if (start == 0 && end == root.length)
+         return this;
+
+      return wrap(subNode(start, end));
+   }
+
+   private Node subNode(int start, int end) {
+      return split(split(root, end)[0], start)[1];
+   }
+
+   /**
+    * Get the height of the tree of this rope. The height is logarithmic to the length of the rope.
+    *
+    * @return The height of the tree
+    */
+   int getDepth() {
+      return root.height;
+   }
+
+   /**
+    * Copies the content of this rope into a String.
+    */
+   @Override
+   public String toString() {
+      StringBuilder builder = new StringBuilder(root.length);
+      forEachChunk(builder::append);
+      return builder.toString();
+   }
+
+   private void checkIndex(int index) throws IndexOutOfBoundsException {
+      if (index < 0 || index > root.length)
+         throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + root.length);
+   }
+
+   private void checkRange(int start, int end) throws IndexOutOfBoundsException {
+      if (start < 0 || end > root.length || start > end)
+         throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + root.length);
+   }
+
+   private static Node[] split(Node node, int index) {
+      if (index == 0)
+         return new Node[] {EMPTY.root, node};
+      if (index == node.length)
+         return new Node[] {node, EMPTY.root};
+
+      if (node instanceof Leaf) {
+         String text = ((Leaf) node).text;
+         return new Node[] {new Leaf(text.substring(0, index)), new Leaf(text.substring(index))};
+      }
+
+      Concat concat = (Concat) node;
+      if (index < concat.left.length) {
+         Node[] parts = split(concat.left, index);
+         parts[1] = join(parts[1], concat.right);
+         return parts;
+      } else {
+         Node[] parts = split(concat.right, index - concat.left.length);
+         parts[0] = join(concat.left, parts[0]);
+         return parts;
+      }
+   }
+
+   private static Node join(Node left, Node right) {
+      if (left.length == 0)
+         return right;
+      if (right.length == 0)
+         return left;
+
+      if (left instanceof Leaf && right instanceof Leaf && left.length + right.length <= LEAF_SIZE)
+         return new Leaf(((Leaf) left).text + ((Leaf) right).text);
+
+      if (left.height > right.height + 1) {
+         Concat concat = (Concat) left;
+         return balance(concat.left, join(concat.right, right));
+      } else if (right.height > left.height + 1) {
+         Concat concat = (Concat) right;
+         return balance(join(left, concat.left), concat.right);
+      }
+      return new Concat(left, right);
+   }
+
+   private static Node balance(Node left, Node right) {
+      if (left.height > right.height + 1) {
+         Concat l = (Concat) left;
+         if (l.left.height >= l.right.height)
+            return new Concat(l.left, new Concat(l.right, right));
+
+         Concat lr = (Concat) l.right;
+         return new Concat(new Concat(l.left, lr.left), new Concat(lr.right, right));
+      } else if (right.height > left.height + 1) {
+         Concat r = (Concat) right;
+         if (r.right.height >= r.left.height)
+            return new Concat(new Concat(left, r.left), r.right);
+
+         Concat rl = (Concat) r.left;
+         return new Concat(new Concat(left, rl.left), new Concat(rl.right, r.right));
+      }
+      return new Concat(left, right);
+   }
+
+   private static abstract class Node {
+      final int length;
+      final int height;
+
+      Node(int length, int height) {
+         this.length = length;
+         this.height = height;
+      }
+   }
+
+   private static class Leaf extends Node {
+      final String text;
+
+      Leaf(String text) {
+         super(text.length(), 0);
+         this.text = text;
+      }
+   }
+
+   private static class Concat extends Node {
+      final Node left;
+      final Node right;
+
+      Concat(Node left, Node right) {
+         super(addLengths(left.length, right.length), Math.max(left.height, right.height) + 1);
+         this.left = left;
+         this.right = right;
+      }
+
+      private static int addLengths(int a, int b) throws IllegalArgumentException {
+         int result = a + b;
+         if (result < 0)
+            throw new IllegalArgumentException("Rope too large: " + ((long) a + b) + " chars");
+
+         return result;
+      }
+   }
+
+   private static class Chunk {
+      final Leaf leaf;
+      final int offset;
+
+      Chunk(Leaf leaf, int offset) {
+         this.leaf = leaf;
+         this.offset = offset;
+      }
+   }
+}
@@ -12,19 +12,25 @@ import java.io.Serializable;
  * <br>Erstellt am 07.08.2017
  */
 public class SimpleSerializer implements Serializer {
-   private final ByteArrayOutputStream serializationTarget = new ByteArrayOutputStream();
 
    public SimpleSerializer() {
 
    }
 
    @Override
-   public synchronized byte[] serialize(Serializable o) throws IOException {
-      ObjectOutputStream serializer = new ObjectOutputStream(serializationTarget);
-      serializer.writeObject(o);
-      byte[] result = serializationTarget.toByteArray();
-      serializationTarget.reset();
-      return result;
+   public byte[] serialize(Serializable o) throws IOException {
+      try (BufferPool.Lease lease = BufferPool.shared().lease()) {
+         // Serializes into the pooled array, the stream only allocates if the object doesn't fit
+         ByteArrayOutputStream serializationTarget = new ByteArrayOutputStream(0) {
+            {
+               this.buf = lease.array();
+            }
+         };
+         ObjectOutputStream serializer = new ObjectOutputStream(serializationTarget);
+         serializer.writeObject(o);
+         serializer.flush();
+         return serializationTarget.toByteArray();
+      }
    }
 
    @Override
@@ -0,0 +1,359 @@
+package de.dk.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of Strings, that deduplicates equal Strings like {@link String#intern()},
+ * but is local to its owner and can be cleared.
+ * Strings can be interned from <code>char[]</code> and <code>CharSequence</code> ranges
+ * without creating a new String first. A new String is only created if the pool
+ * does not contain an equal one yet.<br>
+ * The pool is divided into stripes, each with its own lock and its own hash table,
+ * so multiple threads can intern Strings concurrently.
+ * If a stripe is full, its least recently used String is evicted.
+ * The hash tables grow with the number of Strings, so a large <code>maxSize</code>
+ * does not allocate memory up front.
+ * The pool counts hits and misses and estimates the memory saved by the deduplication.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class StringPool {
+   /** Estimated size of a String object and its char array without the chars themselves. */
+   private static final int STRING_OVERHEAD = 40;
+   private static final int INITIAL_TABLE_SIZE = 16;
+   private static final int MAX_TABLE_SIZE = 1 << 30;
+
+   private final Stripe[] stripes;
+   private final int stripeBits;
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+   private final LongAdder bytesSaved = new LongAdder();
+
+   /**
+    * Creates a new pool, that holds at most <code>maxSize</code> Strings
+    * and is divided into <code>stripeCount</code> stripes.
+    *
+    * @param maxSize The maximum number of Strings in the pool
+    * @param stripeCount The number of stripes, which is rounded up to the next power of 2
+    *
+    * @throws IllegalArgumentException if <code>maxSize &lt; 1</code> or <code>stripeCount &lt; 1</code>
+    */
+   public StringPool(int maxSize, int stripeCount) throws IllegalArgumentException {
+      if (maxSize < 1)
+         throw new IllegalArgumentException("maxSize must be positive. Was " + maxSize);
+      if (stripeCount < 1)
+         throw new IllegalArgumentException("stripeCount must be positive. Was " + stripeCount);
+
+      int count = Integer.highestOneBit(Math.min(stripeCount, 1 << 16));
+      if (count < stripeCount)
+         count <<= 1;
+
+      this.stripes = new Stripe[count];
+      this.stripeBits = Integer.numberOfTrailingZeros(count);
+      // Rounded up without overflowing near Integer.MAX_VALUE
+      int stripeSize = Math.max(1, maxSize / count + (maxSize % count != 0 ? 1 : 0));
+      for (int i = 0; i < count; i++)
+         stripes[i] = new Stripe(stripeSize);
+   }
+
+   /**
+    * Creates a new pool, that holds at most <code>maxSize</code> Strings
+    * and has 4 stripes per available processor.
+    *
+    * @param maxSize The maximum number of Strings in the pool
+    *
+    * @throws IllegalArgumentException if <code>maxSize &lt; 1</code>
+    */
+   public StringPool(int maxSize) throws IllegalArgumentException {
+      this(maxSize, Runtime.getRuntime().availableProcessors() * 4);
+   }
+
+   /**
+    * Get the pooled String, that is equal to <code>text</code>.
+    * If the pool does not contain such a String yet, <code>text</code> is added to the pool.
+    *
+    * @param text The text to be interned
+    *
+    * @return The pooled String equal to <code>text</code>
+    * or <code>null</code> if <code>text</code> is <code>null</code>
+    */
+   public String intern(CharSequence text) {
+      if (text == null)
+         return null;
+
+      return intern(text, 0, text.length());
+   }
+
+   /**
+    * Get the pooled String, that is equal to the chars of <code>text</code>
+    * from <code>start</code> inclusive to <code>end</code> exclusive.
+    * A new String is only created if the pool does not contain an equal String yet.
+    *
+    * @param text The text containing the chars to be interned
+    * @param start The index of the first char
+    * @param end The index after the last char
+    *
+    * @return The pooled String equal to the range of <code>text</code>
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    * @throws IndexOutOfBoundsException if <code>start</code> or <code>end</code> are out of bounds
+    */
+   public String intern(CharSequence text, int start, int end) throws NullPointerException,
+                                                                      IndexOutOfBoundsException {
+      if (start < 0 || end > text.length() || start > end)
+         throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + text.length());
+
+      int hash = 0;
+      for (int i = start; i < end; i++)
+         hash = 31 * hash + text.charAt(i);
+
+      return stripeOf(hash).intern(hash, text, start, end - start);
+   }
+
+   /**
+    * Get the pooled String, that is equal to the <code>length</code> chars of <code>chars</code>
+    * starting at <code>offset</code>.
+    * A new String is only created if the pool does not contain an equal String yet.
+    *
+    * @param chars The array containing the chars to be interned
+    * @param offset The index of the first char
+    * @param length The number of chars
+    *
+    * @return The pooled String equal to the range of <code>chars</code>
+    *
+    * @throws NullPointerException if <code>chars</code> is <code>null</code>
+    * @throws IndexOutOfBoundsException if <code>offset</code> or <code>length</code> are out of bounds
+    */
+   public String intern(char[] chars, int offset, int length) throws NullPointerException,
+                                                                     IndexOutOfBoundsException {
+      if (offset < 0 || length < 0 || offset + length > chars.length)
+         throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array length " + chars.length);
+
+      int hash = 0;
+      for (int i = offset; i < offset + length; i++)
+         hash = 31 * hash + chars[i];
+
+      return stripeOf(hash).intern(hash, chars, offset, length);
+   }
+
+   private Stripe stripeOf(int hash) {
+      // The upper bits of a multiplicative hash select the stripe,
+      // so they are independent of the lower bits, that select the bucket within the stripe.
+      return stripes[(int) (((hash * 0x9E3779B9L) & 0xFFFFFFFFL) >>> (32 - stripeBits))];
+   }
+
+   /**
+    * Removes all Strings from this pool. The statistics are kept.
+    */
+   public void clear() {
+      for (Stripe stripe : stripes)
+         stripe.clear();
+   }
+
+   /**
+    * Get the number of Strings currently in this pool.
+    *
+    * @return The number of pooled Strings
+    */
+   public int size() {
+      int size = 0;
+      for (Stripe stripe : stripes)
+         size += stripe.size();
+
+      return size;
+   }
+
+   /**
+    * Get the number of lookups, that found an equal String in this pool.
+    *
+    * @return The number of hits
+    */
+   public long getHits() {
+      return hits.sum();
+   }
+
+   /**
+    * Get the number of lookups, that had to add a new String to this pool.
+    *
+    * @return The number of misses
+    */
+   public long getMisses() {
+      return misses.sum();
+   }
+
+   /**
+    * Get the ratio of hits to all lookups.
+    *
+    * @return The hit rate between 0 and 1 or 0 if no lookups have been done yet
+    */
+   public double getHitRate() {
+      long hits = getHits();
+      long total = hits + getMisses();
+      return total == 0 ? 0 : (double) hits / total;
+   }
+
+   /**
+    * Get an estimate of the memory saved by this pool.
+    * Each hit is counted as one String, that does not need to be kept,
+    * assuming 2 bytes per char and a constant overhead per String.
+    *
+    * @return The estimated number of bytes saved
+    */
+   public long getBytesSaved() {
+      return bytesSaved.sum();
+   }
+
+   @Override
+   public String toString() {
+      return String.format("StringPool { size=%s, hits=%s, misses=%s, hitRate=%.3f, bytesSaved=%s }",
+                           size(),
+                           getHits(),
+                           getMisses(),
+                           getHitRate(),
+                           getBytesSaved());
+   }
+
+   private static boolean equals(String value, Object source, int offset, int length) {
+      if (value.length() != length)
+         return false;
+
+      if (source instanceof char[]) {
+         char[] chars = (char[]) source;
+         for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != chars[offset + i])
+               return false;
+         }
+      } else {
+         CharSequence text = (CharSequence) source;
+         for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != text.charAt(offset + i))
+               return false;
+         }
+      }
+      return true;
+   }
+
+   private static String create(Object source, int offset, int length) {
+      if (source instanceof char[])
+         return new String((char[]) source, offset, length);
+
+      CharSequence text = (CharSequence) source;
+      if (text instanceof String && offset == 0 && length == text.length())
+         return (String) text;
+
+      return text.subSequence(offset, offset + length).toString();
+   }
+
+   /**
+    * A hash table with separate chaining, whose entries are additionally linked
+    * in the order of their last access to evict the least recently used entry.
+    */
+   private class Stripe {
+      private final int capacity;
+      private final int maxTableSize;
+      private final Entry head = new Entry(0, null);
+      private Entry[] table;
+      private int size;
+
+      Stripe(int capacity) {
+         this.capacity = capacity;
+         // At least twice the capacity, so the chains stay short if the stripe is full
+         if (capacity >= MAX_TABLE_SIZE / 2)
+            this.maxTableSize = MAX_TABLE_SIZE;
+         else
+            this.maxTableSize = Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1) << 1;
+
+         this.table = new Entry[Math.min(maxTableSize, INITIAL_TABLE_SIZE)];
+         head.before = head;
+         head.after = head;
+      }
+
+      synchronized String intern(int hash, Object source, int offset, int length) {
+         int index = (hash ^ (hash >>> 16)) & (table.length - 1);
+         for (Entry e = table[index]; e != null; e = e.next) {
+            if (e.hash == hash && StringPool.equals(e.value, source, offset, length)) {
+               e.unlink();
+               e.linkBefore(head);
+               hits.increment();
+               bytesSaved.add(STRING_OVERHEAD + 2L * length);
+               return e.value;
+            }
+         }
+
+         misses.increment();
+         if (size == capacity)
+            evict(head.after);
+
+         Entry entry = new Entry(hash, create(source, offset, length));
+         entry.next = table[index];
+         table[index] = entry;
+         entry.linkBefore(head);
+         if (++size > table.length / 2 && table.length < maxTableSize)
+            grow();
+
+         return entry.value;
+      }
+
+      private void grow() {
+         Entry[] grown = new Entry[table.length * 2];
+         for (Entry e = head.after; e != head; e = e.after) {
+            int index = (e.hash ^ (e.hash >>> 16)) & (grown.length - 1);
+            e.next = grown[index];
+            grown[index] = e;
+         }
+         table = grown;
+      }
+
+      private void evict(Entry entry) {
+         int index = (entry.hash ^ (entry.hash >>> 16)) & (table.length - 1);
+         if (table[index] == entry) {
+            table[index] = entry.next;
+         } else {
+            Entry previous = table[index];
+            while (previous.next != entry)
+               previous = previous.next;
+
+            previous.next = entry.next;
+         }
+         entry.unlink();
+         size--;
+      }
+
+      synchronized void clear() {
+         table = new Entry[Math.min(maxTableSize, INITIAL_TABLE_SIZE)];
+         head.before = head;
+         head.after = head;
+         size = 0;
+      }
+
+      synchronized int size() {
+         return size;
+      }
+   }
+
+   private static class Entry {
+      final int hash;
+      final String value;
+      Entry next;
+      Entry before;
+      Entry after;
+
+      Entry(int hash, String value) {
+         this.hash = hash;
+         this.value = value;
+      }
+
+      void unlink() {
+         before.after = after;
+         after.before = before;
+      }
+
+      void linkBefore(Entry successor) {
+         this.after = successor;
+         this.before = successor.before;
+         successor.before.after = this;
+         successor.before = this;
+      }
+   }
+}
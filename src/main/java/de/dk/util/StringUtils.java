@@ -1,13 +1,27 @@
 package de.dk.util;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Contains utility methods for converting and validating Strings.
@@ -16,6 +30,9 @@ import java.util.stream.Stream;
  * <br>Erstellt am 30.08.2016
  */
 public final class StringUtils {
+   private static final int FILTER_BUFFER_SIZE = 8192;
+   private static final int PARALLEL_JOIN_THRESHOLD = 1 << 16;
+   private static final int NULL_LENGTH = 4;
 
    private StringUtils() {}
 
@@ -26,27 +43,205 @@ public final class StringUtils {
     * @param filter The filtering char, which can be a "\"
     * @param string The string to be filtered
     *
-    * @return The filtered string
+    * @return The filtered string or <code>string</code> itself
+    * if it does not contain the <code>filter</code> char
     */
    public static String filter(char filter, String string) {
-      if (string.length() <= 1)
-         return string;
+      return filter(filter, (CharSequence) string).toString();
+   }
+
+   /**
+    * Ignores all chars of the text which have a specific filter-char as prefix
+    * and returns the filtered text.
+    * The text is scanned for the <code>filter</code> char first.
+    * If it does not occur, the <code>text</code> itself is returned without copying it.
+    *
+    * @param filter The filtering char, which can be a "\"
+    * @param text The text to be filtered
+    *
+    * @return The filtered text or <code>text</code> itself
+    * if it does not contain the <code>filter</code> char
+    *
+    * @see #filter(char, String)
+    */
+   public static CharSequence filter(char filter, CharSequence text) {
+      int next;
+      if (text.length() <= 1 || (next = indexOf(text, filter, 0)) == -1)
+         return text;
+
+      int length = text.length();
+      StringBuilder builder = new StringBuilder(length - 1);
+      int from = 0;
+      while (next != -1) {
+         builder.append(text, from, next);
+         from = Math.min(next + 2, length);
+         next = indexOf(text, filter, from);
+      }
+      return builder.append(text, from, length);
+   }
+
+   /**
+    * Ignores all chars of the text which have a specific filter-char as prefix
+    * and appends the filtered text to <code>target</code>.
+    * The chars between the filtered ones are appended in bulk.
+    * If the text does not contain the <code>filter</code> char it is appended as a whole.
+    *
+    * @param filter The filtering char, which can be a "\"
+    * @param text The text to be filtered
+    * @param target The target to append the filtered text to
+    * @param <A> The type of the target
+    *
+    * @return The <code>target</code>
+    *
+    * @throws IOException If an I/O error occurs while appending to the <code>target</code>
+    *
+    * @see #filter(char, String)
+    */
+   public static <A extends Appendable> A filter(char filter, CharSequence text, A target) throws IOException {
+      int next;
+      if (text.length() <= 1 || (next = indexOf(text, filter, 0)) == -1) {
+         target.append(text);
+         return target;
+      }
+
+      int length = text.length();
+      int from = 0;
+      while (next != -1) {
+         target.append(text, from, next);
+         from = Math.min(next + 2, length);
+         next = indexOf(text, filter, from);
+      }
+      target.append(text, from, length);
+      return target;
+   }
+
+   /**
+    * Ignores all chars of the text which have a specific filter-char as prefix
+    * and puts the filtered text into the <code>target</code> buffer.
+    *
+    * @param filter The filtering char, which can be a "\"
+    * @param text The text to be filtered
+    * @param target The buffer to put the filtered text into
+    *
+    * @return The <code>target</code>
+    *
+    * @throws BufferOverflowException If the <code>target</code> has not enough space remaining.
+    * Nothing has been put into the buffer then.
+    * @throws ReadOnlyBufferException If the <code>target</code> is read-only
+    *
+    * @see #filter(char, String)
+    */
+   public static CharBuffer filter(char filter,
+                                   CharSequence text,
+                                   CharBuffer target) throws BufferOverflowException,
+                                                             ReadOnlyBufferException {
+      if (target.isReadOnly())
+         throw new ReadOnlyBufferException();
+
+      int length = text.length();
+      int next;
+      if (length <= 1 || (next = indexOf(text, filter, 0)) == -1) {
+         if (target.remaining() < length)
+            throw new BufferOverflowException();
+
+         put(text, 0, length, target);
+         return target;
+      }
+
+      // The space is checked up front, so the buffer isn't left with a part of the text
+      int filteredLength = length;
+      for (int i = next; i != -1; i = indexOf(text, filter, Math.min(i + 2, length)))
+         filteredLength -= Math.min(i + 2, length) - i;
 
-      StringBuilder builder = new StringBuilder();
+      if (target.remaining() < filteredLength)
+         throw new BufferOverflowException();
+
+      int from = 0;
+      while (next != -1) {
+         put(text, from, next, target);
+         from = Math.min(next + 2, length);
+         next = indexOf(text, filter, from);
+      }
+      put(text, from, length, target);
+      return target;
+   }
+
+   /**
+    * Ignores all chars read from the <code>reader</code> which have a specific filter-char as prefix
+    * and appends the filtered text to <code>target</code>.
+    * The reader is read in chunks until its end is reached, so the whole input
+    * never has to be held in memory. The reader is not closed by this method.
+    *
+    * @param filter The filtering char, which can be a "\"
+    * @param reader The reader to read the text to be filtered from
+    * @param target The target to append the filtered text to
+    * @param <A> The type of the target
+    *
+    * @return The <code>target</code>
+    *
+    * @throws IOException If an I/O error occurs while reading or appending
+    *
+    * @see #filter(char, String)
+    */
+   public static <A extends Appendable> A filter(char filter, Reader reader, A target) throws IOException {
+      char[] buf = new char[FILTER_BUFFER_SIZE];
+      CharBuffer chunk = CharBuffer.wrap(buf);
       boolean ignore = false;
-      for (int i = 0; i < string.length(); i++) {
-         char c = string.charAt(i);
-         if (ignore) {
+      for (int len = reader.read(buf); len != -1; len = reader.read(buf)) {
+         int from = 0;
+         if (ignore && len > 0) {
+            from = 1;
             ignore = false;
-            continue;
          }
 
-         ignore = c == filter;
-         if (!ignore)
-            builder.append(c);
+         for (int i = from; i < len; i++) {
+            if (buf[i] != filter)
+               continue;
+
+            target.append(chunk, from, i);
+            if (i + 1 < len) {
+               from = ++i + 1;
+            } else {
+               from = len;
+               ignore = true;
+            }
+         }
+         if (from < len)
+            target.append(chunk, from, len);
       }
+      return target;
+   }
+
+   /**
+    * Determines the index of the first occurence of the char <code>c</code>
+    * in the <code>text</code> starting at <code>fromIndex</code>.
+    * Strings are scanned using {@link String#indexOf(int, int)}.
+    *
+    * @param text The text to be searched
+    * @param c The char to look for
+    * @param fromIndex The index to start the search at
+    *
+    * @return The index of the first occurence of <code>c</code> at or after <code>fromIndex</code>
+    * or -1 if it does not occur
+    */
+   public static int indexOf(CharSequence text, char c, int fromIndex) {
+      if (text instanceof String)
+         return ((String) text).indexOf(c, fromIndex);
 
-      return builder.toString();
+      for (int i = Math.max(fromIndex, 0); i < text.length(); i++) {
+         if (text.charAt(i) == c)
+            return i;
+      }
+      return -1;
+   }
+
+   private static void put(CharSequence text, int start, int end, CharBuffer target) {
+      if (text instanceof String) {
+         target.put((String) text, start, end);
+      } else {
+         for (int i = start; i < end; i++)
+            target.put(text.charAt(i));
+      }
    }
 
    /**
@@ -130,9 +325,27 @@ public final class StringUtils {
     * @return <code>true</code> if the string is either <code>null</code>,
     * has a length of 0 or contains only whitespace characters
     * <code>false</code> otherwiese
+    *
+    * @see #isBlank(char)
     */
    public static boolean isBlank(String string) {
-      return string == null || string.trim().isEmpty();
+      return isBlank((CharSequence) string);
+   }
+
+   /**
+    * Checks whether the text is <code>null</code>, empty or
+    * contains only whitespaces. Nothing is allocated.
+    *
+    * @param text The text to be checked if blank
+    *
+    * @return <code>true</code> if the text is either <code>null</code>,
+    * has a length of 0 or contains only whitespace characters
+    * <code>false</code> otherwiese
+    *
+    * @see #isBlank(char)
+    */
+   public static boolean isBlank(CharSequence text) {
+      return text == null || indexOfNonBlank(text, 0) == -1;
    }
 
    /**
@@ -231,6 +444,8 @@ public final class StringUtils {
 
    /**
     * Checks whether the char is whitespace.
+    * Just like {@link String#trim()} all chars less than or equal to <code>'\u0020'</code>
+    * are considered whitespace, these are the space and all control chars.
     *
     * @param c The char to be checked for whitespace
     *
@@ -238,7 +453,118 @@ public final class StringUtils {
     * <code>false</code> otherwise
     */
    public static boolean isBlank(char c) {
-      return isBlank("" + c);
+      return c <= ' ';
+   }
+
+   /**
+    * Determines the index of the first whitespace char in the <code>text</code>
+    * at or after <code>fromIndex</code>.
+    *
+    * @param text The text to be scanned
+    * @param fromIndex The index to start the scan at
+    *
+    * @return The index of the next whitespace char or -1 if there is none
+    *
+    * @see #isBlank(char)
+    */
+   public static int indexOfBlank(CharSequence text, int fromIndex) {
+      int length = text.length();
+      for (int i = Math.max(fromIndex, 0); i < length; i++) {
+         if (text.charAt(i) <= ' ')
+            return i;
+      }
+      return -1;
+   }
+
+   /**
+    * Determines the index of the first char in the <code>text</code>, that is not whitespace,
+    * at or after <code>fromIndex</code>.
+    *
+    * @param text The text to be scanned
+    * @param fromIndex The index to start the scan at
+    *
+    * @return The index of the next non whitespace char or -1 if there is none
+    *
+    * @see #isBlank(char)
+    */
+   public static int indexOfNonBlank(CharSequence text, int fromIndex) {
+      int length = text.length();
+      for (int i = Math.max(fromIndex, 0); i < length; i++) {
+         if (text.charAt(i) > ' ')
+            return i;
+      }
+      return -1;
+   }
+
+   /**
+    * Determines the index of the first whitespace byte in the ASCII or UTF-8 encoded
+    * <code>data</code> from <code>fromIndex</code> inclusive to <code>toIndex</code> exclusive.
+    * Whitespace bytes are all bytes from 0 to 0x20, see {@link #isBlank(char)}.
+    * Bytes of multi-byte UTF-8 sequences are never whitespace.
+    * The data is inspected 8 bytes at a time.
+    *
+    * @param data The data to be scanned
+    * @param fromIndex The index to start the scan at
+    * @param toIndex The index to stop the scan at
+    *
+    * @return The index of the next whitespace byte or -1 if there is none
+    *
+    * @throws IndexOutOfBoundsException if <code>fromIndex</code> or <code>toIndex</code> are out of bounds
+    */
+   public static int indexOfBlank(byte[] data, int fromIndex, int toIndex) throws IndexOutOfBoundsException {
+      checkRange(data, fromIndex, toIndex);
+      ByteBuffer words = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+      int i = fromIndex;
+      for (; i + 8 <= toIndex; i += 8) {
+         long word = words.getLong(i);
+         // Sets the high bit of the first byte that is less than 0x21
+         long found = (word - 0x2121212121212121L) & ~word & 0x8080808080808080L;
+         if (found != 0)
+            return i + (Long.numberOfTrailingZeros(found) >>> 3);
+      }
+      for (; i < toIndex; i++) {
+         if ((data[i] & 0xFF) <= ' ')
+            return i;
+      }
+      return -1;
+   }
+
+   /**
+    * Determines the index of the first byte in the ASCII or UTF-8 encoded <code>data</code>,
+    * that is not whitespace, from <code>fromIndex</code> inclusive to <code>toIndex</code> exclusive.
+    * Whitespace bytes are all bytes from 0 to 0x20, see {@link #isBlank(char)}.
+    * Bytes of multi-byte UTF-8 sequences are never whitespace.
+    * The data is inspected 8 bytes at a time.
+    *
+    * @param data The data to be scanned
+    * @param fromIndex The index to start the scan at
+    * @param toIndex The index to stop the scan at
+    *
+    * @return The index of the next non whitespace byte or -1 if there is none
+    *
+    * @throws IndexOutOfBoundsException if <code>fromIndex</code> or <code>toIndex</code> are out of bounds
+    */
+   public static int indexOfNonBlank(byte[] data, int fromIndex, int toIndex) throws IndexOutOfBoundsException {
+      checkRange(data, fromIndex, toIndex);
+      ByteBuffer words = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+      int i = fromIndex;
+      for (; i + 8 <= toIndex; i += 8) {
+         long word = words.getLong(i);
+         // Sets the high bit of the first byte that is greater than 0x20
+         long found = ((word + 0x5F5F5F5F5F5F5F5FL) | word) & 0x8080808080808080L;
+         if (found != 0)
+            return i + (Long.numberOfTrailingZeros(found) >>> 3);
+      }
+      for (; i < toIndex; i++) {
+         if ((data[i] & 0xFF) > ' ')
+            return i;
+      }
+      return -1;
+   }
+
+   private static void checkRange(byte[] data, int fromIndex, int toIndex) throws IndexOutOfBoundsException {
+      if (fromIndex < 0 || toIndex > data.length || fromIndex > toIndex)
+         throw new IndexOutOfBoundsException("from " + fromIndex + ", to " + toIndex + ", length " + data.length);
    }
 
    /**
@@ -249,14 +575,19 @@ public final class StringUtils {
     * @return the first line of the <code>text</code>
     */
    public static String getFirstLineOf(String text) {
-      StringBuilder builder = new StringBuilder();
-      for (char c : text.toCharArray()) {
-         if (c == '\n' || c == '\r')
-            return builder.toString();
+      return text.substring(0, indexOfLineEnd(text, 0));
+   }
 
-         builder.append(c);
-      }
-      return builder.toString();
+   /**
+    * Gets the first line of the <code>text</code> as a view of the <code>text</code>.
+    * For {@link Rope}s this does not copy the line.
+    *
+    * @param text The text of which you want the first line
+    *
+    * @return the first line of the <code>text</code>
+    */
+   public static CharSequence getFirstLineOf(CharSequence text) {
+      return text.subSequence(0, indexOfLineEnd(text, 0));
    }
 
    /**
@@ -267,22 +598,22 @@ public final class StringUtils {
     * @return The last line of the string or an empty string if the string is <code>null</code>.
     */
    public static String getLastLineOf(String text) {
-      if (Objects.requireNonNull(text).equals(""))
-         return "";
-
-      if (!text.contains("\n") && !text.contains("\r"))
-         return text;
-
-      if (text.length() <= 1)
-         return "";
-
-      int lastN = text.lastIndexOf('\n');
-      int lastR = text.lastIndexOf('\r');
-      int lastReturnIndex = lastN == -1 ?
-                            lastR :
-                            lastR == -1 ? lastN : Math.min(lastN, lastR);
+      Objects.requireNonNull(text);
+      return text.substring(indexOfLineStart(text, text.length()));
+   }
 
-      return text.substring(lastReturnIndex + 1);
+   /**
+    * Retrieves the last line of the text as a view of the <code>text</code>.
+    * For {@link Rope}s this does not copy the line.
+    *
+    * @param text The text to be inspected.
+    *
+    * @return The last line of the text
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    */
+   public static CharSequence getLastLineOf(CharSequence text) throws NullPointerException {
+      return text.subSequence(indexOfLineStart(text, text.length()), text.length());
    }
 
    /**
@@ -304,7 +635,11 @@ public final class StringUtils {
       if (separator == null)
          separator = "";
 
-      StringBuilder result = new StringBuilder();
+      long length = (long) separator.length() * Math.max(strings.length - 1, 0);
+      for (String string : strings)
+         length += lengthOf(string);
+
+      StringBuilder result = new StringBuilder(DMath.cutToInt(length));
       for (int i = 0; i < strings.length; i++) {
          result.append(strings[i]);
          if (i < strings.length - 1)
@@ -313,6 +648,152 @@ public final class StringUtils {
       return result.toString();
    }
 
+   /**
+    * Joins the <code>elements</code> to one <code>String</code> inserting the <code>separator</code>
+    * between them. If <code>elements</code> is a <code>Collection</code>, the exact length
+    * of the result is computed up front, so the chars are copied only once.
+    * <code>null</code> elements are joined as <code>"null"</code>.
+    *
+    * @param separator The separator to be inserted between the <code>elements</code>.
+    * If <code>null</code> is given, no separator will be inserted.
+    * @param elements The elements to be joined
+    *
+    * @return The joined elements
+    *
+    * @throws NullPointerException if <code>elements</code> is <code>null</code>
+    */
+   public static String join(CharSequence separator, Iterable<? extends CharSequence> elements) throws NullPointerException {
+      if (separator == null)
+         separator = "";
+
+      int capacity = 16;
+      if (elements instanceof Collection) {
+         Collection<? extends CharSequence> collection = (Collection<? extends CharSequence>) elements;
+         long length = (long) separator.length() * Math.max(collection.size() - 1, 0);
+         for (CharSequence element : collection)
+            length += lengthOf(element);
+
+         capacity = DMath.cutToInt(length);
+      }
+
+      try {
+         return join(separator, elements, new StringBuilder(capacity)).toString();
+      } catch (IOException e) {
+         throw new InternalError("StringBuilder threw an IOException.", e);
+      }
+   }
+
+   /**
+    * Joins the <code>elements</code> inserting the <code>separator</code> between them
+    * and appends the result directly to the <code>target</code>,
+    * without building an intermediate <code>String</code>.
+    * <code>null</code> elements are joined as <code>"null"</code>.
+    *
+    * @param separator The separator to be inserted between the <code>elements</code>.
+    * If <code>null</code> is given, no separator will be inserted.
+    * @param elements The elements to be joined
+    * @param target The target to append the joined elements to
+    * @param <A> The type of the target
+    *
+    * @return The <code>target</code>
+    *
+    * @throws IOException If an I/O error occurs while appending to the <code>target</code>
+    * @throws NullPointerException if <code>elements</code> or <code>target</code> is <code>null</code>
+    */
+   public static <A extends Appendable> A join(CharSequence separator,
+                                               Iterable<? extends CharSequence> elements,
+                                               A target) throws IOException, NullPointerException {
+      if (separator == null)
+         separator = "";
+
+      Iterator<? extends CharSequence> iterator = elements.iterator();
+      while (iterator.hasNext()) {
+         target.append(iterator.next());
+         if (iterator.hasNext())
+            target.append(separator);
+      }
+      return target;
+   }
+
+   /**
+    * Joins the elements of the <code>stream</code> to one <code>String</code>
+    * inserting the <code>separator</code> between them.
+    * Parallel streams are joined in chunks, that are concatenated independently.
+    *
+    * @param separator The separator to be inserted between the elements.
+    * If <code>null</code> is given, no separator will be inserted.
+    * @param stream The stream of the elements to be joined
+    *
+    * @return The joined elements
+    *
+    * @throws NullPointerException if <code>stream</code> is <code>null</code>
+    */
+   public static String join(CharSequence separator, Stream<? extends CharSequence> stream) throws NullPointerException {
+      return stream.collect(Collectors.joining(separator == null ? "" : separator));
+   }
+
+   /**
+    * Joins the <code>elements</code> to one <code>String</code> inserting the <code>separator</code>
+    * between them. The offset of each element in the result is computed up front,
+    * then the elements are copied into their place in parallel.
+    * This is only worthwhile for very large amounts of data,
+    * small inputs are joined sequentially.
+    * <code>null</code> elements are joined as <code>"null"</code>.
+    *
+    * @param separator The separator to be inserted between the <code>elements</code>.
+    * If <code>null</code> is given, no separator will be inserted.
+    * @param elements The elements to be joined
+    *
+    * @return The joined elements
+    *
+    * @throws NullPointerException if <code>elements</code> is <code>null</code>
+    * @throws IllegalArgumentException if the result would be longer than <code>Integer.MAX_VALUE</code>
+    */
+   public static String joinParallel(CharSequence separator, CharSequence[] elements) throws NullPointerException,
+                                                                                             IllegalArgumentException {
+      String sep = separator == null ? "" : separator.toString();
+      int n = elements.length;
+      if (n == 0)
+         return "";
+
+      long[] ends = new long[n];
+      Arrays.parallelSetAll(ends, i -> lengthOf(elements[i]) + (i < n - 1 ? sep.length() : 0));
+      Arrays.parallelPrefix(ends, Long::sum);
+      long length = ends[n - 1];
+      if (length > Integer.MAX_VALUE)
+         throw new IllegalArgumentException("Result too large: " + length + " chars");
+
+      if (length < PARALLEL_JOIN_THRESHOLD)
+         return join(sep, Arrays.asList(elements));
+
+      char[] result = new char[(int) length];
+      IntStream.range(0, n)
+               .parallel()
+               .forEach(i -> {
+                  int offset = (int) ends[i] - (i < n - 1 ? sep.length() : 0);
+                  CharSequence element = elements[i] == null ? "null" : elements[i];
+                  offset -= element.length();
+                  copy(element, result, offset);
+                  if (i < n - 1)
+                     sep.getChars(0, sep.length(), result, offset + element.length());
+               });
+
+      return new String(result);
+   }
+
+   private static void copy(CharSequence text, char[] target, int offset) {
+      if (text instanceof String) {
+         ((String) text).getChars(0, text.length(), target, offset);
+      } else {
+         for (int i = 0; i < text.length(); i++)
+            target[offset + i] = text.charAt(i);
+      }
+   }
+
+   private static int lengthOf(CharSequence text) {
+      return text == null ? NULL_LENGTH : text.length();
+   }
+
    /**
     * Retrieves the substring of the line of the index until the index exclusive.
     *
@@ -329,12 +810,96 @@ public final class StringUtils {
       if (index < 0 || index > text.length())
          throw new StringIndexOutOfBoundsException(index);
 
-      boolean entireLineWanted = index == text.length() || (text.charAt(index) == '\n' || text.charAt(index) == '\r');
-      String left = text.substring(0, index + (entireLineWanted ? 0 : 1));
+      return text.substring(indexOfLineStart(text, index), index);
+   }
+
+   /**
+    * Retrieves the part of the line of the index until the index exclusive
+    * as a view of the <code>text</code>. For {@link Rope}s this does not copy the line.
+    *
+    * @param text The text to be inspected.
+    * @param index The index after the last char of the result.
+    *
+    * @return The part of the line of the index until the index exclusive.
+    *
+    * @throws IndexOutOfBoundsException if the index is less than zero or greater than the texts length.
+    */
+   public static CharSequence getLineUntil(CharSequence text, int index) throws IndexOutOfBoundsException {
+      return text.subSequence(indexOfLineStart(text, index), index);
+   }
+
+   /**
+    * Determines the index of the end of the line, that contains the char at <code>index</code>.
+    * The end of the line is the index of the line terminator
+    * (<code>\n</code>, <code>\r\n</code> or <code>\r</code>)
+    * or the length of the <code>text</code> if the line is the last one.
+    * If the char at <code>index</code> is a line terminator itself, <code>index</code> is returned.
+    *
+    * @param text The text to be inspected
+    * @param index The index of any char of the line
+    *
+    * @return The index after the last char of the line
+    *
+    * @throws IndexOutOfBoundsException if <code>index &lt; 0 || index &gt; text.length()</code>
+    */
+   public static int indexOfLineEnd(CharSequence text, int index) throws IndexOutOfBoundsException {
+      int length = text.length();
+      if (index < 0 || index > length)
+         throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
 
-      int beginIndex = Math.max(Math.max(left.lastIndexOf('\n') + 1, left.lastIndexOf('\r') + 1), 0);
+      for (int i = index; i < length; i++) {
+         char c = text.charAt(i);
+         if (c == '\n' || c == '\r')
+            return i;
+      }
+      return length;
+   }
 
-      return text.substring(beginIndex, index);
+   /**
+    * Determines the index of the first char of the line, that ends at or contains
+    * the char before <code>index</code>.
+    * In other words the index after the last line terminator before <code>index</code>
+    * or 0 if there is none.
+    *
+    * @param text The text to be inspected
+    * @param index The index after any char of the line
+    *
+    * @return The index of the first char of the line
+    *
+    * @throws IndexOutOfBoundsException if <code>index &lt; 0 || index &gt; text.length()</code>
+    */
+   public static int indexOfLineStart(CharSequence text, int index) throws IndexOutOfBoundsException {
+      if (index < 0 || index > text.length())
+         throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + text.length());
+
+      for (int i = index - 1; i >= 0; i--) {
+         char c = text.charAt(i);
+         if (c == '\n' || c == '\r')
+            return i + 1;
+      }
+      return 0;
+   }
+
+   /**
+    * Determines the length of the line terminator at <code>index</code>.
+    *
+    * @param text The text to be inspected
+    * @param index The index of the potential line terminator
+    *
+    * @return 2 for <code>\r\n</code>, 1 for <code>\n</code> or <code>\r</code>
+    * and 0 if there is no line terminator at <code>index</code>
+    */
+   static int lineTerminatorLength(CharSequence text, int index) {
+      if (index >= text.length())
+         return 0;
+
+      char c = text.charAt(index);
+      if (c == '\n')
+         return 1;
+      if (c != '\r')
+         return 0;
+
+      return index + 1 < text.length() && text.charAt(index + 1) == '\n' ? 2 : 1;
    }
 
    /**
@@ -391,17 +956,78 @@ public final class StringUtils {
       return indices;
    }
 
+   /**
+    * Computes the Levenshtein distance between <code>a</code> and <code>b</code>
+    * using the bit-parallel algorithm of Myers.
+    * To compare one text to many others compile it once with {@link FuzzyPattern#compile(CharSequence)}.
+    *
+    * @param a The first text
+    * @param b The second text
+    *
+    * @return The minimal number of inserted, deleted or substituted chars,
+    * that are needed to turn <code>a</code> into <code>b</code>
+    *
+    * @throws NullPointerException if <code>a</code> or <code>b</code> is <code>null</code>
+    */
+   public static int levenshtein(CharSequence a, CharSequence b) throws NullPointerException {
+      return levenshtein(a, b, Integer.MAX_VALUE);
+   }
+
+   /**
+    * Computes the Levenshtein distance between <code>a</code> and <code>b</code>
+    * if it does not exceed <code>max</code>. The computation is aborted as soon as
+    * the distance is known to be greater than <code>max</code>.
+    *
+    * @param a The first text
+    * @param b The second text
+    * @param max The maximum distance of interest
+    *
+    * @return The Levenshtein distance or -1 if it is greater than <code>max</code>
+    *
+    * @throws NullPointerException if <code>a</code> or <code>b</code> is <code>null</code>
+    *
+    * @see FuzzyPattern#distance(CharSequence, int)
+    */
+   public static int levenshtein(CharSequence a, CharSequence b, int max) throws NullPointerException {
+      if (a.length() > b.length())
+         return FuzzyPattern.compile(b).distance(a, max);
+
+      return FuzzyPattern.compile(a).distance(b, max);
+   }
+
+   /**
+    * Creates an <code>IntStream</code> of the chars of the <code>text</code>
+    * without copying it or boxing the chars.
+    * The stream is backed by a {@link CharSpliterator}, which splits the text
+    * into halves for parallel processing.
+    *
+    * @param text The text to stream the chars of
+    * @param parallel <code>true</code> for a parallel stream,
+    * <code>false</code> for a sequential one
+    *
+    * @return A stream of the chars of the <code>text</code>
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    */
+   public static IntStream chars(CharSequence text, boolean parallel) throws NullPointerException {
+      return StreamSupport.intStream(new CharSpliterator(text), parallel);
+   }
+
+   /**
+    * An iterator over the chars of a <code>String</code>.
+    * Prefer the {@link CharIterator}, which does not box the chars.
+    */
    public static class SimpleStringIterator implements Iterator<Character> {
-      private char[] value;
+      private final CharSequence value;
       private int index = 0;
 
       public SimpleStringIterator(String value) {
-         this.value = value.toCharArray();
+         this.value = Objects.requireNonNull(value);
       }
 
       @Override
       public boolean hasNext() {
-         return index < value.length;
+         return index < value.length();
       }
 
       @Override
@@ -409,7 +1035,178 @@ public final class StringUtils {
          if (!hasNext())
             throw new NoSuchElementException();
 
-         return value[index++];
+         return value.charAt(index++);
+      }
+   }
+
+   /**
+    * A primitive iterator over the chars of a <code>CharSequence</code>.
+    * The chars are neither copied nor boxed, as long as {@link #nextChar()}
+    * or {@link #nextInt()} is used.
+    * The underlying text must not be modified while it is iterated.
+    */
+   public static class CharIterator implements PrimitiveIterator.OfInt {
+      private final CharSequence text;
+      private final int end;
+      private int index;
+
+      /**
+       * Creates a new iterator over the chars of <code>text</code>
+       * from <code>start</code> inclusive to <code>end</code> exclusive.
+       *
+       * @param text The text to iterate over
+       * @param start The index of the first char
+       * @param end The index after the last char
+       *
+       * @throws NullPointerException if <code>text</code> is <code>null</code>
+       * @throws IndexOutOfBoundsException if <code>start</code> or <code>end</code> are out of bounds
+       */
+      public CharIterator(CharSequence text, int start, int end) throws NullPointerException,
+                                                                        IndexOutOfBoundsException {
+         this.text = Objects.requireNonNull(text);
+         if (start < 0 || end > text.length() || start > end)
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + text.length());
+
+         this.index = start;
+         this.end = end;
+      }
+
+      /**
+       * Creates a new iterator over all chars of <code>text</code>.
+       *
+       * @param text The text to iterate over
+       *
+       * @throws NullPointerException if <code>text</code> is <code>null</code>
+       */
+      public CharIterator(CharSequence text) throws NullPointerException {
+         this(text, 0, text.length());
+      }
+
+      @Override
+      public boolean hasNext() {
+         return index < end;
+      }
+
+      /**
+       * Get the next char.
+       *
+       * @return the next char
+       *
+       * @throws NoSuchElementException if there are no more chars
+       */
+      public char nextChar() throws NoSuchElementException {
+         if (index >= end)
+            throw new NoSuchElementException();
+
+         return text.charAt(index++);
+      }
+
+      @Override
+      public int nextInt() throws NoSuchElementException {
+         return nextChar();
+      }
+
+      @Override
+      public void forEachRemaining(IntConsumer action) {
+         Objects.requireNonNull(action);
+         for (; index < end; index++)
+            action.accept(text.charAt(index));
+      }
+
+      /**
+       * Get the index of the char, that will be returned by the next call to {@link #nextChar()}.
+       *
+       * @return The index of the next char
+       */
+      public int getIndex() {
+         return index;
+      }
+   }
+
+   /**
+    * A spliterator over the chars of a <code>CharSequence</code>, that does not copy the text.
+    * The spliterator splits its range into halves, so the chars of large texts
+    * can be processed by parallel streams without boxing.
+    * The underlying text must not be modified while it is traversed.
+    *
+    * @see StringUtils#chars(CharSequence, boolean)
+    */
+   public static class CharSpliterator implements Spliterator.OfInt {
+      private static final int MIN_SPLIT_SIZE = 1024;
+
+      private final CharSequence text;
+      private final int end;
+      private int index;
+
+      /**
+       * Creates a new spliterator over the chars of <code>text</code>
+       * from <code>start</code> inclusive to <code>end</code> exclusive.
+       *
+       * @param text The text to traverse
+       * @param start The index of the first char
+       * @param end The index after the last char
+       *
+       * @throws NullPointerException if <code>text</code> is <code>null</code>
+       * @throws IndexOutOfBoundsException if <code>start</code> or <code>end</code> are out of bounds
+       */
+      public CharSpliterator(CharSequence text, int start, int end) throws NullPointerException,
+                                                                           IndexOutOfBoundsException {
+         this.text = Objects.requireNonNull(text);
+         if (start < 0 || end > text.length() || start > end)
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + text.length());
+
+         this.index = start;
+         this.end = end;
+      }
+
+      /**
+       * Creates a new spliterator over all chars of <code>text</code>.
+       *
+       * @param text The text to traverse
+       *
+       * @throws NullPointerException if <code>text</code> is <code>null</code>
+       */
+      public CharSpliterator(CharSequence text) throws NullPointerException {
+         this(text, 0, text.length());
+      }
+
+      @Override
+      public boolean tryAdvance(IntConsumer action) {
+         Objects.requireNonNull(action);
+         if (index >= end)
+            return false;
+
+         action.accept(text.charAt(index++));
+         return true;
+      }
+
+      @Override
+      public void forEachRemaining(IntConsumer action) {
+         Objects.requireNonNull(action);
+         for (; index < end; index++)
+            action.accept(text.charAt(index));
+      }
+
+      @Override
+      public CharSpliterator trySplit() {
+         int size = end - index;
+         if (size < MIN_SPLIT_SIZE)
+            return null;
+
+         int mid = index + (size >>> 1);
+         CharSpliterator prefix = new CharSpliterator(text, index, mid);
+         this.index = mid;
+         return prefix;
+      }
+
+      @Override
+      public long estimateSize() {
+         return end - index;
+      }
+
+      @Override
+      public int characteristics() {
+         return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
       }
    }
-}
\ No newline at end of file
+}
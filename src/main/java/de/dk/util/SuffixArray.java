@@ -0,0 +1,479 @@
+package de.dk.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A full-text index of an immutable text, that answers substring queries without scanning the text.
+ * The suffix array is built in linear time with the SA-IS algorithm
+ * and complemented by the LCP array, that contains the length of the longest common prefix
+ * of neighbouring suffixes.
+ * All occurences of a pattern <i>P</i> are found in O(|P| log n).<br>
+ * An index can be written to a file with {@link #write(File)} and loaded again
+ * with {@link #map(File)}, which maps the file into memory instead of reading it onto the heap,
+ * so the index does not need to be rebuilt on startup.
+ * A <code>SuffixArray</code> is immutable and can be used by multiple threads at once.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class SuffixArray {
+   private static final int MAGIC = 0x53554658;
+   private static final int VERSION = 1;
+   private static final int HEADER_SIZE = 16;
+   private static final int NAIVE_THRESHOLD = 10;
+
+   private final CharSequence text;
+   private final IntBuffer sa;
+   private final IntBuffer lcp;
+
+   private SuffixArray(CharSequence text, IntBuffer sa, IntBuffer lcp) {
+      this.text = text;
+      this.sa = sa;
+      this.lcp = lcp;
+   }
+
+   /**
+    * Builds the suffix array and LCP array of the <code>text</code>.
+    * The text must not be modified as long as the index is in use.
+    *
+    * @param text The text to be indexed
+    *
+    * @return The index of the <code>text</code>
+    *
+    * @throws NullPointerException if <code>text</code> is <code>null</code>
+    */
+   public static SuffixArray of(CharSequence text) throws NullPointerException {
+      int n = Objects.requireNonNull(text).length();
+      int[] s = new int[n];
+      int upper = 0;
+      for (int i = 0; i < n; i++) {
+         s[i] = text.charAt(i);
+         upper = Math.max(upper, s[i]);
+      }
+      int[] sa = sais(s, upper);
+      int[] lcp = lcp(s, sa);
+      return new SuffixArray(text, IntBuffer.wrap(sa), IntBuffer.wrap(lcp));
+   }
+
+   /**
+    * Loads an index, that has been written by {@link #write(File)}, by mapping the <code>file</code>
+    * into memory. The text, the suffix array and the LCP array are read directly from the mapping.
+    * The file must not be modified as long as the index is in use.
+    *
+    * @param file The file to load the index from
+    *
+    * @return The loaded index
+    *
+    * @throws IOException If an I/O error occurs, the file is not an index file
+    * or is too large to be mapped at once
+    */
+   public static SuffixArray map(File file) throws IOException {
+      MappedByteBuffer buffer;
+      try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+           FileChannel channel = raf.getChannel()) {
+         if (channel.size() > Integer.MAX_VALUE)
+            throw new IOException("Index file too large to be mapped (" + channel.size() + " bytes).");
+
+         buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+
+      if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+         throw new IOException(file + " is not a suffix array index file.");
+      if (buffer.getInt(4) != VERSION)
+         throw new IOException("Unsupported index file version " + buffer.getInt(4));
+
+      int n = buffer.getInt(8);
+      int textBytes = align(n * 2);
+      long expectedSize = HEADER_SIZE + (long) textBytes + 8L * n;
+      if (n < 0 || buffer.capacity() != expectedSize)
+         throw new IOException("Corrupt index file " + file);
+
+      CharBuffer text = slice(buffer, HEADER_SIZE, n * 2).asCharBuffer();
+      IntBuffer sa = slice(buffer, HEADER_SIZE + textBytes, n * 4).asIntBuffer();
+      IntBuffer lcp = slice(buffer, HEADER_SIZE + textBytes + n * 4, n * 4).asIntBuffer();
+      return new SuffixArray(text, sa, lcp);
+   }
+
+   private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+      ByteBuffer duplicate = buffer.duplicate();
+      // Called through Buffer to stay binary compatible with Java 8
+      ((Buffer) duplicate).position(offset);
+      ((Buffer) duplicate).limit(offset + length);
+      return duplicate.slice();
+   }
+
+   private static int align(int bytes) {
+      return (bytes + 3) & ~3;
+   }
+
+   /**
+    * Writes this index including the indexed text to the <code>file</code>,
+    * so it can be loaded with {@link #map(File)} later.
+    *
+    * @param file The file to write to. It is overwritten if it already exists.
+    *
+    * @throws IOException If an I/O error occurs
+    */
+   public void write(File file) throws IOException {
+      int n = length();
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+         out.writeInt(MAGIC);
+         out.writeInt(VERSION);
+         out.writeInt(n);
+         out.writeInt(0);
+         for (int i = 0; i < n; i++)
+            out.writeChar(text.charAt(i));
+
+         for (int i = n * 2; i < align(n * 2); i++)
+            out.writeByte(0);
+
+         for (int i = 0; i < n; i++)
+            out.writeInt(sa.get(i));
+
+         for (int i = 0; i < n; i++)
+            out.writeInt(lcp.get(i));
+      }
+   }
+
+   /**
+    * Finds all occurences of the <code>pattern</code> in the indexed text.
+    *
+    * @param pattern The pattern to look for
+    *
+    * @return The indices of the first char of all the occurences of the <code>pattern</code>
+    * in ascending order. If no matches are found an empty array is returned.
+    *
+    * @throws NullPointerException if <code>pattern</code> is <code>null</code>
+    *
+    * @see StringUtils#getIndicesOf(String, String)
+    */
+   public int[] findAll(CharSequence pattern) throws NullPointerException {
+      int from = lowerBound(pattern);
+      int to = upperBound(pattern, from);
+      int[] result = new int[to - from];
+      for (int i = from; i < to; i++)
+         result[i - from] = sa.get(i);
+
+      Arrays.sort(result);
+      return result;
+   }
+
+   /**
+    * Counts the occurences of the <code>pattern</code> in the indexed text.
+    *
+    * @param pattern The pattern to look for
+    *
+    * @return The number of occurences of the <code>pattern</code>
+    *
+    * @throws NullPointerException if <code>pattern</code> is <code>null</code>
+    */
+   public int count(CharSequence pattern) throws NullPointerException {
+      int from = lowerBound(pattern);
+      return upperBound(pattern, from) - from;
+   }
+
+   /**
+    * Checks whether the indexed text contains the <code>pattern</code>.
+    *
+    * @param pattern The pattern to look for
+    *
+    * @return <code>true</code> if the <code>pattern</code> occurs in the indexed text
+    *
+    * @throws NullPointerException if <code>pattern</code> is <code>null</code>
+    */
+   public boolean contains(CharSequence pattern) throws NullPointerException {
+      return count(pattern) > 0;
+   }
+
+   /**
+    * Determines the longest substring, that occurs at least twice in the indexed text,
+    * using the LCP array.
+    *
+    * @return The longest repeated substring or an empty string if there is none
+    */
+   public String getLongestRepeatedSubstring() {
+      int best = 0;
+      for (int i = 1; i < length(); i++) {
+         if (lcp.get(i) > lcp.get(best))
+            best = i;
+      }
+      if (length() == 0 || lcp.get(best) == 0)
+         return "";
+
+      int start = sa.get(best);
+      return text.subSequence(start, start + lcp.get(best)).toString();
+   }
+
+   private int lowerBound(CharSequence pattern) {
+      int low = 0;
+      int high = length();
+      while (low < high) {
+         int mid = (low + high) >>> 1;
+         if (compare(sa.get(mid), pattern) < 0)
+            low = mid + 1;
+         else
+            high = mid;
+      }
+      return low;
+   }
+
+   private int upperBound(CharSequence pattern, int from) {
+      int low = from;
+      int high = length();
+      while (low < high) {
+         int mid = (low + high) >>> 1;
+         if (compare(sa.get(mid), pattern) <= 0)
+            low = mid + 1;
+         else
+            high = mid;
+      }
+      return low;
+   }
+
+   /**
+    * Compares the suffix at <code>position</code> to the <code>pattern</code>,
+    * considering only the first <code>pattern.length()</code> chars of the suffix.
+    */
+   private int compare(int position, CharSequence pattern) {
+      int n = text.length();
+      int m = pattern.length();
+      for (int i = 0; i < m; i++) {
+         if (position + i >= n)
+            return -1;
+
+         int diff = text.charAt(position + i) - pattern.charAt(i);
+         if (diff != 0)
+            return diff;
+      }
+      return 0;
+   }
+
+   /**
+    * Get the position of the suffix with the given <code>rank</code> in the indexed text.
+    *
+    * @param rank The rank of the suffix in the lexicographic order of all suffixes
+    *
+    * @return The index of the first char of the suffix
+    *
+    * @throws IndexOutOfBoundsException if <code>rank &lt; 0 || rank &gt;= length()</code>
+    */
+   public int getSuffix(int rank) throws IndexOutOfBoundsException {
+      return sa.get(rank);
+   }
+
+   /**
+    * Get the length of the longest common prefix of the suffix with the given <code>rank</code>
+    * and the suffix with the previous rank.
+    *
+    * @param rank The rank of the suffix in the lexicographic order of all suffixes
+    *
+    * @return The length of the longest common prefix or 0 for <code>rank == 0</code>
+    *
+    * @throws IndexOutOfBoundsException if <code>rank &lt; 0 || rank &gt;= length()</code>
+    */
+   public int getLcp(int rank) throws IndexOutOfBoundsException {
+      return lcp.get(rank);
+   }
+
+   /**
+    * Get the indexed text.
+    *
+    * @return The indexed text
+    */
+   public CharSequence getText() {
+      return text;
+   }
+
+   /**
+    * Get the length of the indexed text, which is the number of suffixes.
+    *
+    * @return The length of the indexed text
+    */
+   public int length() {
+      return text.length();
+   }
+
+   private static int[] lcp(int[] s, int[] sa) {
+      int n = s.length;
+      int[] rank = new int[n];
+      for (int i = 0; i < n; i++)
+         rank[sa[i]] = i;
+
+      int[] lcp = new int[n];
+      int h = 0;
+      for (int i = 0; i < n; i++) {
+         if (rank[i] == 0) {
+            h = 0;
+            continue;
+         }
+
+         int j = sa[rank[i] - 1];
+         while (i + h < n && j + h < n && s[i + h] == s[j + h])
+            h++;
+
+         lcp[rank[i]] = h;
+         if (h > 0)
+            h--;
+      }
+      return lcp;
+   }
+
+   private static int[] naive(int[] s) {
+      int n = s.length;
+      Integer[] suffixes = new Integer[n];
+      for (int i = 0; i < n; i++)
+         suffixes[i] = i;
+
+      Arrays.sort(suffixes, (a, b) -> {
+         while (a < n && b < n) {
+            if (s[a] != s[b])
+               return Integer.compare(s[a], s[b]);
+
+            a++;
+            b++;
+         }
+         return a == n ? (b == n ? 0 : -1) : 1;
+      });
+
+      int[] sa = new int[n];
+      for (int i = 0; i < n; i++)
+         sa[i] = suffixes[i];
+
+      return sa;
+   }
+
+   /**
+    * Builds the suffix array of <code>s</code> with the SA-IS algorithm
+    * (Nong, Zhang and Chan, "Two Efficient Algorithms for Linear Time Suffix Array Construction").
+    *
+    * @param s The text, where each value is in the range [0, upper]
+    * @param upper The greatest value of the alphabet
+    *
+    * @return The suffix array
+    */
+   private static int[] sais(int[] s, int upper) {
+      int n = s.length;
+      if (n < NAIVE_THRESHOLD)
+         return naive(s);
+
+      int[] sa = new int[n];
+      boolean[] ls = new boolean[n];
+      for (int i = n - 2; i >= 0; i--)
+         ls[i] = s[i] == s[i + 1] ? ls[i + 1] : s[i] < s[i + 1];
+
+      int[] sumL = new int[upper + 2];
+      int[] sumS = new int[upper + 2];
+      for (int i = 0; i < n; i++) {
+         if (!ls[i])
+            sumS[s[i]]++;
+         else
+            sumL[s[i] + 1]++;
+      }
+      for (int i = 0; i <= upper; i++) {
+         sumS[i] += sumL[i];
+         if (i < upper)
+            sumL[i + 1] += sumS[i];
+      }
+
+      int[] lmsMap = new int[n + 1];
+      Arrays.fill(lmsMap, -1);
+      int m = 0;
+      for (int i = 1; i < n; i++) {
+         if (!ls[i - 1] && ls[i])
+            lmsMap[i] = m++;
+      }
+      int[] lms = new int[m];
+      for (int i = 1, j = 0; i < n; i++) {
+         if (!ls[i - 1] && ls[i])
+            lms[j++] = i;
+      }
+
+      int[] buf = new int[upper + 2];
+      induce(s, sa, ls, lms, sumS, sumL, buf);
+
+      if (m > 0) {
+         int[] sortedLms = new int[m];
+         int count = 0;
+         for (int v : sa) {
+            if (lmsMap[v] != -1)
+               sortedLms[count++] = v;
+         }
+
+         int[] recS = new int[m];
+         int recUpper = 0;
+         recS[lmsMap[sortedLms[0]]] = 0;
+         for (int i = 1; i < m; i++) {
+            int l = sortedLms[i - 1];
+            int r = sortedLms[i];
+            int endL = lmsMap[l] + 1 < m ? lms[lmsMap[l] + 1] : n;
+            int endR = lmsMap[r] + 1 < m ? lms[lmsMap[r] + 1] : n;
+            boolean same = true;
+            if (endL - l != endR - r) {
+               same = false;
+            } else {
+               while (l < endL && s[l] == s[r]) {
+                  l++;
+                  r++;
+               }
+               if (l == n || s[l] != s[r])
+                  same = false;
+            }
+            if (!same)
+               recUpper++;
+
+            recS[lmsMap[sortedLms[i]]] = recUpper;
+         }
+
+         int[] recSa = sais(recS, recUpper);
+         for (int i = 0; i < m; i++)
+            sortedLms[i] = lms[recSa[i]];
+
+         induce(s, sa, ls, sortedLms, sumS, sumL, buf);
+      }
+      return sa;
+   }
+
+   private static void induce(int[] s,
+                              int[] sa,
+                              boolean[] ls,
+                              int[] lms,
+                              int[] sumS,
+                              int[] sumL,
+                              int[] buf) {
+      int n = s.length;
+      Arrays.fill(sa, -1);
+      System.arraycopy(sumS, 0, buf, 0, buf.length);
+      for (int d : lms) {
+         if (d != n)
+            sa[buf[s[d]]++] = d;
+      }
+
+      System.arraycopy(sumL, 0, buf, 0, buf.length);
+      sa[buf[s[n - 1]]++] = n - 1;
+      for (int i = 0; i < n; i++) {
+         int v = sa[i];
+         if (v >= 1 && !ls[v - 1])
+            sa[buf[s[v - 1]]++] = v - 1;
+      }
+
+      System.arraycopy(sumL, 0, buf, 0, buf.length);
+      for (int i = n - 1; i >= 0; i--) {
+         int v = sa[i];
+         if (v >= 1 && ls[v - 1])
+            sa[--buf[s[v - 1] + 1]] = v - 1;
+      }
+   }
+}
@@ -0,0 +1,368 @@
+package de.dk.util;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the transfers of {@link IO} and {@link FileUtils}, to find out where the time of a slow copy goes.
+ * It counts the transferred bytes and the processed files, the time spent blocked in reading
+ * and in writing and records the latencies of the operations in histograms.
+ * <p>
+ * The measurement is disabled by default. It is enabled by {@link #install(TransferMetrics) installing}
+ * an instance, which then measures the transfers of all threads until it is uninstalled.
+ * While no instance is installed a transfer only checks a volatile field once,
+ * so the overhead is negligible.
+ * </p>
+ * The current values can be taken as an immutable {@link #snapshot() snapshot}
+ * or received as they are measured by a {@link Listener}.
+ * Listeners are called in the thread of the transfer, so they should return quickly.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class TransferMetrics {
+   /** The number of buckets of a histogram, the bucket <code>i</code> holds latencies below <code>2^i</code> ns. */
+   public static final int BUCKET_COUNT = 64;
+
+   private static volatile TransferMetrics installed;
+
+   private final LongAdder bytes = new LongAdder();
+   private final LongAdder files = new LongAdder();
+   private final LongAdder readNanos = new LongAdder();
+   private final LongAdder writeNanos = new LongAdder();
+   private final Map<Operation, AtomicLongArray> histograms = new EnumMap<>(Operation.class);
+   private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+   /**
+    * Creates a new instance, that doesn't measure anything until it is {@link #install(TransferMetrics) installed}.
+    */
+   public TransferMetrics() {
+      for (Operation operation : Operation.values())
+         histograms.put(operation, new AtomicLongArray(BUCKET_COUNT));
+   }
+
+   /**
+    * Installs the <code>metrics</code>, so all following transfers are measured by it.
+    * A previously installed instance is replaced.
+    *
+    * @param metrics The metrics to measure the transfers or <code>null</code> to disable the measurement
+    *
+    * @return The previously installed instance or <code>null</code> if there was none
+    */
+   public static TransferMetrics install(TransferMetrics metrics) {
+      TransferMetrics previous = installed;
+      installed = metrics;
+      return previous;
+   }
+
+   /**
+    * Disables the measurement of the transfers.
+    *
+    * @return The previously installed instance or <code>null</code> if there was none
+    */
+   public static TransferMetrics uninstall() {
+      return install(null);
+   }
+
+   /**
+    * Get the installed instance, that measures the transfers.
+    *
+    * @return The installed instance or <code>null</code> if the measurement is disabled
+    */
+   public static TransferMetrics installed() {
+      return installed;
+   }
+
+   static int bucketOf(long nanos) {
+      return nanos <= 0 ? 0 : Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(nanos));
+   }
+
+   /**
+    * Records transferred data.
+    *
+    * @param byteCount The number of transferred bytes
+    * @param readNanos The time spent blocked in reading
+    * @param writeNanos The time spent blocked in writing
+    */
+   void transferred(long byteCount, long readNanos, long writeNanos) {
+      bytes.add(byteCount);
+      this.readNanos.add(readNanos);
+      this.writeNanos.add(writeNanos);
+      for (Listener listener : listeners)
+         listener.transferred(byteCount, readNanos, writeNanos);
+   }
+
+   /**
+    * Records a completed operation.
+    *
+    * @param operation The completed operation
+    * @param nanos The latency of the operation
+    */
+   void completed(Operation operation, long nanos) {
+      if (operation == Operation.FILE)
+         files.increment();
+
+      histograms.get(operation).incrementAndGet(bucketOf(nanos));
+      for (Listener listener : listeners)
+         listener.completed(operation, nanos);
+   }
+
+   /**
+    * Adds a listener, that is informed about every measured transfer and operation.
+    *
+    * @param listener The listener to add
+    *
+    * @return This instance to go on
+    */
+   public TransferMetrics addListener(Listener listener) {
+      listeners.add(listener);
+      return this;
+   }
+
+   /**
+    * Removes a listener.
+    *
+    * @param listener The listener to remove
+    *
+    * @return <code>true</code> if the listener has been added before
+    */
+   public boolean removeListener(Listener listener) {
+      return listeners.remove(listener);
+   }
+
+   /**
+    * Takes a snapshot of the current values.
+    * If transfers are running meanwhile the values may not be exactly consistent with each other.
+    *
+    * @return An immutable snapshot of the current values
+    */
+   public Snapshot snapshot() {
+      Map<Operation, Histogram> snapshots = new EnumMap<>(Operation.class);
+      for (Map.Entry<Operation, AtomicLongArray> entry : histograms.entrySet()) {
+         AtomicLongArray buckets = entry.getValue();
+         long[] counts = new long[BUCKET_COUNT];
+         for (int i = 0; i < BUCKET_COUNT; i++)
+            counts[i] = buckets.get(i);
+
+         snapshots.put(entry.getKey(), new Histogram(counts));
+      }
+      return new Snapshot(bytes.sum(), files.sum(), readNanos.sum(), writeNanos.sum(), snapshots);
+   }
+
+   /**
+    * Resets all values to zero.
+    */
+   public void reset() {
+      bytes.reset();
+      files.reset();
+      readNanos.reset();
+      writeNanos.reset();
+      for (AtomicLongArray buckets : histograms.values()) {
+         for (int i = 0; i < BUCKET_COUNT; i++)
+            buckets.set(i, 0);
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "TransferMetrics { " + snapshot() + " }";
+   }
+
+   /**
+    * The measured operations.
+    */
+   public static enum Operation {
+      /** A transfer from one stream to another by {@link IO#write(java.io.InputStream, java.io.OutputStream)}. */
+      STREAM,
+      /** The transfer of the content of one file by {@link FileUtils#writeContentOf(java.io.File, java.io.OutputStream)}. */
+      FILE,
+      /** The copy of one file by {@link FileUtils#copy(java.io.File, java.io.File)}, including opening and creating the files. */
+      COPY
+   }
+
+   /**
+    * A listener, that is informed about the measured transfers and operations.
+    * Both methods do nothing by default.
+    */
+   public static interface Listener {
+      /**
+       * Called after data has been transferred.
+       * If the data has been transferred from channel to channel by the operating system,
+       * the time is neither counted as reading nor as writing.
+       *
+       * @param bytes The number of transferred bytes
+       * @param readNanos The time spent blocked in reading
+       * @param writeNanos The time spent blocked in writing
+       */
+      public default void transferred(long bytes, long readNanos, long writeNanos) {
+
+      }
+
+      /**
+       * Called after an operation has been completed successfully.
+       *
+       * @param operation The completed operation
+       * @param nanos The latency of the operation
+       */
+      public default void completed(Operation operation, long nanos) {
+
+      }
+   }
+
+   /**
+    * An immutable snapshot of the values of a {@link TransferMetrics}.
+    */
+   public static final class Snapshot {
+      private final long bytes;
+      private final long files;
+      private final long readNanos;
+      private final long writeNanos;
+      private final Map<Operation, Histogram> histograms;
+
+      private Snapshot(long bytes, long files, long readNanos, long writeNanos, Map<Operation, Histogram> histograms) {
+         this.bytes = bytes;
+         this.files = files;
+         this.readNanos = readNanos;
+         this.writeNanos = writeNanos;
+         this.histograms = histograms;
+      }
+
+      /**
+       * Get the number of transferred bytes.
+       *
+       * @return The number of bytes
+       */
+      public long getBytes() {
+         return bytes;
+      }
+
+      /**
+       * Get the number of files, whose content has been transferred.
+       *
+       * @return The number of files
+       */
+      public long getFiles() {
+         return files;
+      }
+
+      /**
+       * Get the total time the transfers spent blocked in reading.
+       *
+       * @return The read time in nanoseconds
+       */
+      public long getReadNanos() {
+         return readNanos;
+      }
+
+      /**
+       * Get the total time the transfers spent blocked in writing.
+       *
+       * @return The write time in nanoseconds
+       */
+      public long getWriteNanos() {
+         return writeNanos;
+      }
+
+      /**
+       * Get the histogram of the latencies of an operation.
+       *
+       * @param operation The operation
+       *
+       * @return The latency histogram of the operation
+       */
+      public Histogram getHistogram(Operation operation) {
+         return histograms.get(operation);
+      }
+
+      @Override
+      public String toString() {
+         StringBuilder builder = new StringBuilder();
+         builder.append(String.format("bytes=%d, files=%d, read=%.3f ms, write=%.3f ms",
+                                      bytes,
+                                      files,
+                                      readNanos / 1e6,
+                                      writeNanos / 1e6));
+         for (Map.Entry<Operation, Histogram> entry : histograms.entrySet())
+            builder.append(", ").append(entry.getKey()).append("=").append(entry.getValue());
+
+         return builder.toString();
+      }
+   }
+
+   /**
+    * An immutable histogram of latencies in buckets of powers of two,
+    * so its values are precise up to a factor of 2.
+    */
+   public static final class Histogram {
+      private final long[] buckets;
+      private final long count;
+
+      private Histogram(long[] buckets) {
+         this.buckets = buckets;
+         long count = 0;
+         for (long n : buckets)
+            count += n;
+
+         this.count = count;
+      }
+
+      /**
+       * Get the number of recorded latencies.
+       *
+       * @return The number of operations
+       */
+      public long getCount() {
+         return count;
+      }
+
+      /**
+       * Get the number of latencies in the bucket <code>i</code>, which are at least
+       * <code>2^(i-1)</code> and less than <code>2^i</code> nanoseconds.
+       *
+       * @param i The index of the bucket
+       *
+       * @return The number of latencies in the bucket
+       *
+       * @throws IndexOutOfBoundsException if <code>i</code> is negative or not less than {@link TransferMetrics#BUCKET_COUNT}
+       */
+      public long getBucket(int i) throws IndexOutOfBoundsException {
+         return buckets[i];
+      }
+
+      /**
+       * Get an upper bound of the latency, that the given fraction of the operations didn't exceed.
+       * The bound is at most twice the exact percentile.
+       *
+       * @param fraction The fraction between 0 and 1, e.g. <code>0.99</code> for the 99th percentile
+       *
+       * @return The upper bound of the percentile in nanoseconds or 0 if no latency has been recorded
+       *
+       * @throws IllegalArgumentException if <code>fraction</code> is not between 0 and 1
+       */
+      public long getPercentile(double fraction) throws IllegalArgumentException {
+         if (fraction < 0 || fraction > 1)
+            throw new IllegalArgumentException("fraction must be between 0 and 1. Was " + fraction);
+         if (count == 0)
+            return 0;
+
+         long rank = Math.max(1, (long) Math.ceil(fraction * count));
+         long seen = 0;
+         int i = 0;
+         for (; i < BUCKET_COUNT - 1; i++) {
+            seen += buckets[i];
+            if (seen >= rank)
+               break;
+         }
+         return i == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+      }
+
+      @Override
+      public String toString() {
+         return String.format("{ count=%d, p50<=%d ns, p99<=%d ns }", count, getPercentile(0.5), getPercentile(0.99));
+      }
+   }
+}
@@ -0,0 +1,201 @@
+package de.dk.util;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+
+/**
+ * The non-cryptographic 64 bit hash function XXH64 as a <code>MessageDigest</code>.
+ * It is many times faster than cryptographic hash functions and meant for
+ * checksums and change detection, where no protection against deliberate collisions is needed.
+ * The digest is the 64 bit hash in big endian byte order, so it is equal to the
+ * canonical hexadecimal representation of other XXH64 implementations.
+ * Like every <code>MessageDigest</code> an instance must not be used by several threads at the same time.
+ *
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public final class XXHash64 extends MessageDigest implements Cloneable {
+   /** The name of the algorithm. */
+   public static final String ALGORITHM = "XXH64";
+
+   private static final long PRIME1 = 0x9E3779B185EBCA87L;
+   private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+   private static final long PRIME3 = 0x165667B19E3779F9L;
+   private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+   private static final long PRIME5 = 0x27D4EB2F165667C5L;
+   private static final int STRIPE = 32;
+
+   private final long seed;
+   private long v1;
+   private long v2;
+   private long v3;
+   private long v4;
+   private long totalLength;
+   private byte[] pending = new byte[STRIPE];
+   private int pendingLength;
+
+   /**
+    * Creates a new digest with the seed 0.
+    */
+   public XXHash64() {
+      this(0);
+   }
+
+   /**
+    * Creates a new digest with the given seed.
+    *
+    * @param seed The seed of the hash function
+    */
+   public XXHash64(long seed) {
+      super(ALGORITHM);
+      this.seed = seed;
+      engineReset();
+   }
+
+   /**
+    * Calculates the hash of the range of <code>data</code>.
+    *
+    * @param data The data to hash
+    * @param offset The index of the first byte to hash
+    * @param length The number of bytes to hash
+    * @param seed The seed of the hash function
+    *
+    * @return The 64 bit hash
+    */
+   public static long hash(byte[] data, int offset, int length, long seed) {
+      XXHash64 digest = new XXHash64(seed);
+      digest.engineUpdate(data, offset, length);
+      return digest.getValue();
+   }
+
+   private static long round(long acc, long input) {
+      acc += input * PRIME2;
+      acc = Long.rotateLeft(acc, 31);
+      return acc * PRIME1;
+   }
+
+   private static long merge(long acc, long v) {
+      acc ^= round(0, v);
+      return acc * PRIME1 + PRIME4;
+   }
+
+   private void stripe(ByteBuffer data, int index) {
+      v1 = round(v1, data.getLong(index));
+      v2 = round(v2, data.getLong(index + 8));
+      v3 = round(v3, data.getLong(index + 16));
+      v4 = round(v4, data.getLong(index + 24));
+   }
+
+   @Override
+   protected void engineUpdate(byte input) {
+      engineUpdate(new byte[] {input}, 0, 1);
+   }
+
+   @Override
+   protected void engineUpdate(byte[] input, int offset, int len) {
+      engineUpdate(ByteBuffer.wrap(input, offset, len));
+   }
+
+   @Override
+   protected void engineUpdate(ByteBuffer input) {
+      int position = input.position();
+      int limit = input.limit();
+      totalLength += limit - position;
+      // Absolute reads on a little endian view, so the position is only moved once
+      ByteBuffer data = input.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+      if (pendingLength > 0) {
+         int n = Math.min(STRIPE - pendingLength, limit - position);
+         for (int i = 0; i < n; i++)
+            pending[pendingLength++] = data.get(position++);
+
+         if (pendingLength < STRIPE) {
+            ((Buffer) input).position(limit);
+            return;
+         }
+         stripe(ByteBuffer.wrap(pending).order(ByteOrder.LITTLE_ENDIAN), 0);
+         pendingLength = 0;
+      }
+
+      for (; position <= limit - STRIPE; position += STRIPE)
+         stripe(data, position);
+
+      while (position < limit)
+         pending[pendingLength++] = data.get(position++);
+
+      ((Buffer) input).position(limit);
+   }
+
+   /**
+    * Get the hash of the data passed so far without resetting this digest.
+    *
+    * @return The 64 bit hash
+    */
+   public long getValue() {
+      long h;
+      if (totalLength >= STRIPE) {
+         h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+         h = merge(h, v1);
+         h = merge(h, v2);
+         h = merge(h, v3);
+         h = merge(h, v4);
+      } else {
+         h = seed + PRIME5;
+      }
+      h += totalLength;
+
+      ByteBuffer rest = ByteBuffer.wrap(pending, 0, pendingLength).order(ByteOrder.LITTLE_ENDIAN);
+      int i = 0;
+      for (; i + 8 <= pendingLength; i += 8) {
+         h ^= round(0, rest.getLong(i));
+         h = Long.rotateLeft(h, 27) * PRIME1 + PRIME4;
+      }
+      if (i + 4 <= pendingLength) {
+         h ^= (rest.getInt(i) & 0xFFFFFFFFL) * PRIME1;
+         h = Long.rotateLeft(h, 23) * PRIME2 + PRIME3;
+         i += 4;
+      }
+      for (; i < pendingLength; i++) {
+         h ^= (pending[i] & 0xFFL) * PRIME5;
+         h = Long.rotateLeft(h, 11) * PRIME1;
+      }
+
+      h ^= h >>> 33;
+      h *= PRIME2;
+      h ^= h >>> 29;
+      h *= PRIME3;
+      h ^= h >>> 32;
+      return h;
+   }
+
+   @Override
+   protected byte[] engineDigest() {
+      long value = getValue();
+      engineReset();
+      return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+   }
+
+   @Override
+   protected int engineGetDigestLength() {
+      return Long.BYTES;
+   }
+
+   @Override
+   protected void engineReset() {
+      v1 = seed + PRIME1 + PRIME2;
+      v2 = seed + PRIME2;
+      v3 = seed;
+      v4 = seed - PRIME1;
+      totalLength = 0;
+      pendingLength = 0;
+   }
+
+   @Override
+   public Object clone() throws CloneNotSupportedException {
+      XXHash64 clone = (XXHash64) super.clone();
+      clone.pending = pending.clone();
+      return clone;
+   }
+}
@@ -0,0 +1,103 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class AsyncFilesTest {
+   private File workingDir;
+
+   public AsyncFilesTest() {
+
+   }
+
+   @BeforeEach
+   public void init() {
+      this.workingDir = FileUtils.createTempDir();
+   }
+
+   @Test
+   public void testWriteReadCopy() throws Exception {
+      // Small buffers, so every operation takes several steps
+      AsyncFiles files = new AsyncFiles(3, 1000);
+      Random rnd = new Random(3);
+      List<byte[]> contents = new ArrayList<>();
+      List<CompletableFuture<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+         byte[] content = new byte[rnd.nextInt(5000)];
+         rnd.nextBytes(content);
+         contents.add(content);
+         Path path = new File(workingDir, "file" + i).toPath();
+         futures.add(files.writeAsync(path, content)
+                          .thenCompose(n -> files.copyAsync(path, new File(workingDir, "copy" + path.getFileName()).toPath())));
+      }
+      CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+      // The bound must hold while the operations run
+      int peak = 0;
+      while (!all.isDone())
+         peak = Math.max(peak, files.getInFlight());
+      all.get();
+      assertTrue(peak <= files.getMaxInFlight(), "Peak of " + peak + " operations in flight");
+
+      for (int i = 0; i < contents.size(); i++) {
+         Path copy = new File(workingDir, "copyfile" + i).toPath();
+         assertArrayEquals(contents.get(i), files.readAsync(copy).get());
+         assertArrayEquals(contents.get(i), FileUtils.getContentOf(copy.toFile()));
+      }
+      assertEquals(0, files.getInFlight());
+   }
+
+   @Test
+   public void testReadMissingFile() {
+      Path missing = new File(workingDir, "missing").toPath();
+      ExecutionException e = assertThrows(ExecutionException.class, () -> FileUtils.readAsync(missing).get());
+      assertTrue(e.getCause() instanceof NoSuchFileException);
+   }
+
+   @Test
+   public void testManyFailuresBehindSlowOperation() throws Exception {
+      AsyncFiles files = new AsyncFiles(1, 256);
+      byte[] content = new byte[4 * 1024 * 1024];
+      new Random(5).nextBytes(content);
+      Path large = new File(workingDir, "large").toPath();
+      Files.write(large, content);
+
+      CompletableFuture<byte[]> slow = files.readAsync(large);
+      List<CompletableFuture<byte[]>> failing = new ArrayList<>();
+      for (int i = 0; i < 20000; i++)
+         failing.add(files.readAsync(new File(workingDir, "missing" + i).toPath()));
+
+      assertArrayEquals(content, slow.get(60, TimeUnit.SECONDS));
+      for (CompletableFuture<byte[]> future : failing) {
+         ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(60, TimeUnit.SECONDS));
+         assertTrue(e.getCause() instanceof NoSuchFileException);
+      }
+      assertEquals(0, files.getInFlight());
+   }
+
+   @AfterEach
+   public void cleanUp() throws IOException {
+      FileUtils.delete(workingDir);
+   }
+}
@@ -0,0 +1,85 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class BufferPoolTest {
+
+   public BufferPoolTest() {
+
+   }
+
+   @Test
+   public void testSizeClasses() {
+      BufferPool pool = new BufferPool(5000, 4);
+      try (BufferPool.Lease lease = pool.lease()) {
+         assertEquals(8192, lease.array().length);
+      }
+      try (BufferPool.Lease small = pool.lease(1);
+           BufferPool.Lease exact = pool.lease(2048);
+           BufferPool.Lease large = pool.lease(BufferPool.MAX_CLASS_SIZE + 1)) {
+         assertEquals(BufferPool.MIN_CLASS_SIZE, small.buffer().capacity());
+         assertEquals(2048, exact.buffer().capacity());
+         assertEquals(BufferPool.MAX_CLASS_SIZE + 1, large.buffer().capacity());
+      }
+      assertThrows(IllegalArgumentException.class, () -> pool.lease(-1));
+   }
+
+   @Test
+   public void testReuse() {
+      BufferPool pool = new BufferPool(4096, 1);
+      ByteBuffer first;
+      try (BufferPool.Lease lease = pool.leaseDirect()) {
+         first = lease.buffer();
+         assertTrue(first.isDirect());
+         assertThrows(UnsupportedOperationException.class, lease::array);
+         first.put((byte) 1);
+         assertEquals(4096, pool.getOutstandingBytes());
+      }
+      assertEquals(0, pool.getOutstandingBytes());
+      assertEquals(0, pool.getHits());
+      assertEquals(1, pool.getMisses());
+
+      try (BufferPool.Lease lease = pool.leaseDirect();
+           BufferPool.Lease second = pool.leaseDirect();
+           BufferPool.Lease heap = pool.lease()) {
+         assertSame(first, lease.buffer());
+         assertEquals(0, lease.buffer().position());
+         assertNotSame(first, second.buffer());
+         assertFalse(heap.buffer().isDirect());
+         assertEquals(3 * 4096, pool.getOutstandingBytes());
+      }
+      assertEquals(1, pool.getHits());
+      assertEquals(3, pool.getMisses());
+
+      // One buffer is cached by the thread, one is kept globally, the third one is dropped
+      try (BufferPool.Lease a = pool.leaseDirect();
+           BufferPool.Lease b = pool.leaseDirect();
+           BufferPool.Lease c = pool.leaseDirect()) {
+         assertEquals(3 * 4096, pool.getOutstandingBytes());
+      }
+      assertEquals(3, pool.getHits());
+      assertEquals(4, pool.getMisses());
+   }
+
+   @Test
+   public void testClosedLease() {
+      BufferPool.Lease lease = new BufferPool(1024, 0).lease();
+      lease.close();
+      lease.close();
+      assertThrows(IllegalStateException.class, lease::buffer);
+      assertThrows(IllegalStateException.class, lease::array);
+   }
+}
@@ -0,0 +1,142 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class CompressionTest {
+   private File workingDir;
+
+   public CompressionTest() {
+
+   }
+
+   @BeforeEach
+   public void init() {
+      this.workingDir = FileUtils.createTempDir();
+   }
+
+   /**
+    * Data, that is compressible, but not trivially.
+    */
+   private static byte[] data(int length) {
+      byte[] data = new byte[length];
+      Random random = new Random(length);
+      for (int i = 0; i < length; i++)
+         data[i] = (byte) ('a' + random.nextInt(8));
+      return data;
+   }
+
+   private static byte[] roundTrip(Compression compression, byte[] data) throws IOException {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      IO.write(new ByteArrayInputStream(data), compressed, compression);
+      try (InputStream in = compression.decompress(new ByteArrayInputStream(compressed.toByteArray()))) {
+         return IO.readData(in);
+      }
+   }
+
+   @Test
+   public void testRoundTrip() throws IOException {
+      Compression[] compressions = {
+         Compression.store(),
+         Compression.deflate(Deflater.BEST_SPEED),
+         Compression.gzip(),
+         Compression.gzip(Deflater.BEST_COMPRESSION),
+         Compression.parallelGzip(Deflater.DEFAULT_COMPRESSION)
+      };
+      for (Compression compression : compressions) {
+         for (int length : new int[] {0, 1, 1000, 300000}) {
+            byte[] data = data(length);
+            assertArrayEquals(data, roundTrip(compression, data), compression + ", length " + length);
+         }
+      }
+   }
+
+   @Test
+   public void testParallelGzipBlocks() throws IOException {
+      ExecutorService executor = Executors.newFixedThreadPool(3);
+      try {
+         // Blocks smaller than the dictionary and blocks larger than it
+         for (int blockSize : new int[] {1000, 40000}) {
+            byte[] data = data(200000);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream out = new ParallelGzipOutputStream(compressed, 6, blockSize, executor, 2)) {
+               for (int off = 0; off < data.length; off += 777) {
+                  out.write(data, off, Math.min(777, data.length - off));
+                  out.flush();
+               }
+               out.write('x');
+            }
+
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+               byte[] result = IO.readData(in);
+               assertEquals(data.length + 1, result.length);
+               assertEquals('x', result[data.length]);
+               for (int i = 0; i < data.length; i++)
+                  assertEquals(data[i], result[i]);
+            }
+            assertTrue(compressed.size() < data.length / 2);
+         }
+      } finally {
+         executor.shutdown();
+      }
+   }
+
+   @Test
+   public void testCopyCompressed() throws IOException {
+      File dir = new File(workingDir, "source");
+      File sub = new File(dir, "sub");
+      sub.mkdirs();
+      byte[] content = data(5000);
+      try (FileOutputStream out = new FileOutputStream(new File(sub, "test.txt"))) {
+         out.write(content);
+      }
+
+      File target = new File(workingDir, "target");
+      target.mkdir();
+      Compression compression = Compression.gzip();
+      FileUtils.copy(dir, target, compression);
+
+      File copy = new File(target, "source" + File.separator + "sub" + File.separator + "test.txt.gz");
+      assertTrue(copy.isFile());
+      assertTrue(copy.length() < content.length);
+      try (InputStream in = compression.decompress(new FileInputStream(copy))) {
+         assertArrayEquals(content, IO.readData(in));
+      }
+   }
+
+   @Test
+   public void testInvalidLevel() {
+      assertThrows(IllegalArgumentException.class, () -> Compression.gzip(10));
+      assertThrows(IllegalArgumentException.class, () -> Compression.deflate(-2));
+      assertThrows(IllegalArgumentException.class, () -> Compression.parallelGzip(42));
+   }
+
+   @AfterEach
+   public void cleanUp() throws IOException {
+      FileUtils.delete(workingDir);
+   }
+}
@@ -0,0 +1,112 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class ContentHasherTest {
+   private File workingDir;
+
+   public ContentHasherTest() {
+
+   }
+
+   private static void write(File file, byte[] content) throws IOException {
+      file.getParentFile().mkdirs();
+      try (FileOutputStream out = new FileOutputStream(file)) {
+         out.write(content);
+      }
+   }
+
+   @BeforeEach
+   public void init() {
+      this.workingDir = FileUtils.createTempDir();
+   }
+
+   @Test
+   public void testXXHash64() {
+      assertEquals(0xEF46DB3751D8E999L, XXHash64.hash(new byte[0], 0, 0, 0));
+      assertEquals(0xD24EC4F1A98C6E5BL, XXHash64.hash("a".getBytes(StandardCharsets.US_ASCII), 0, 1, 0));
+      assertEquals(0x44BC2CF5AD770999L, XXHash64.hash("abc".getBytes(StandardCharsets.US_ASCII), 0, 3, 0));
+      byte[] text = "Nobody inspects the spammish repetition".getBytes(StandardCharsets.US_ASCII);
+      assertEquals(0xFBCEA83C8A378BF1L, XXHash64.hash(text, 0, text.length, 0));
+      assertEquals("44bc2cf5ad770999", ContentHasher.toHex(new XXHash64().digest("abc".getBytes(StandardCharsets.US_ASCII))));
+
+      byte[] data = new byte[1000];
+      new Random(5).nextBytes(data);
+      Random rnd = new Random(6);
+      for (int length : new int[] {7, 31, 32, 33, 64, 100, 1000}) {
+         long expected = XXHash64.hash(data, 0, length, 42);
+         XXHash64 digest = new XXHash64(42);
+         for (int i = 0; i < length;) {
+            int n = Math.min(length - i, rnd.nextInt(40));
+            digest.update(data, i, n);
+            i += n;
+         }
+         assertEquals(expected, digest.getValue());
+      }
+   }
+
+   @Test
+   public void testHashFile() throws Exception {
+      byte[] content = new byte[3 * 1024 * 1024 + 5];
+      new Random(1).nextBytes(content);
+      File large = new File(workingDir, "large.bin");
+      File small = new File(workingDir, "small.bin");
+      write(large, content);
+      write(small, Arrays.copyOf(content, 5000));
+
+      ContentHasher sha = new ContentHasher("SHA-256");
+      assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(content), sha.hash(large));
+      assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(Arrays.copyOf(content, 5000)), sha.hash(small));
+
+      ContentHasher fast = ContentHasher.fast();
+      assertArrayEquals(fast.hash(new ByteArrayInputStream(content)), fast.hash(large));
+      assertThrows(IllegalArgumentException.class, () -> new ContentHasher("NO-SUCH-HASH"));
+   }
+
+   @Test
+   public void testHashDirectory() throws IOException {
+      File dir = new File(workingDir, "dir");
+      for (int i = 0; i < 50; i++)
+         write(new File(dir, "sub" + (i % 5) + "/file" + i), ("content " + i).getBytes());
+
+      ContentHasher hasher = ContentHasher.fast();
+      byte[] hash = hasher.hash(dir);
+      File copy = new File(workingDir, "copy");
+      FileUtils.copy(dir, copy);
+      assertArrayEquals(hash, hasher.hash(new File(copy, dir.getName())));
+
+      write(new File(dir, "sub3/file3"), "changed".getBytes());
+      byte[] changed = hasher.hash(dir);
+      assertFalse(Arrays.equals(hash, changed));
+
+      new File(dir, "sub3/file3").renameTo(new File(dir, "sub3/renamed"));
+      assertFalse(Arrays.equals(changed, hasher.hash(dir)));
+
+      assertThrows(IOException.class, () -> hasher.hash(new File(workingDir, "missing")));
+   }
+
+   @AfterEach
+   public void cleanUp() throws IOException {
+      FileUtils.delete(workingDir);
+   }
+}
@@ -0,0 +1,151 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class DirectorySyncTest {
+   private File workingDir;
+   private File source;
+   private File target;
+
+   public DirectorySyncTest() {
+
+   }
+
+   private static void write(File file, String content, long modified) throws IOException {
+      file.getParentFile().mkdirs();
+      try (FileOutputStream out = new FileOutputStream(file)) {
+         out.write(content.getBytes());
+      }
+      file.setLastModified(modified);
+   }
+
+   private static String read(File file) throws IOException {
+      return new String(FileUtils.getContentOf(file));
+   }
+
+   @BeforeEach
+   public void init() throws IOException {
+      this.workingDir = FileUtils.createTempDir();
+      this.source = new File(workingDir, "source");
+      this.target = new File(workingDir, "target");
+      for (int i = 0; i < 20; i++)
+         write(new File(source, "dir" + (i % 3) + "/file" + i), "content " + i, 1000000000000L);
+   }
+
+   @Test
+   public void testSync() throws IOException {
+      DirectorySync.Result result = FileUtils.sync(source, target);
+      assertEquals(20, result.getCopiedCount());
+      assertEquals(0, result.getUnchangedCount());
+      assertEquals("content 7", read(new File(target, "dir1/file7")));
+
+      write(new File(source, "dir1/file7"), "changed", 1000000001000L);
+      write(new File(source, "new/file"), "new", 1000000000000L);
+      assertTrue(new File(source, "dir2/file2").delete());
+      write(new File(target, "extra/file"), "extra", 1000000000000L);
+
+      result = FileUtils.sync(source, target);
+      assertEquals(2, result.getCopiedCount());
+      assertEquals(18, result.getUnchangedCount());
+      assertEquals(2, result.getDeletedCount());
+      assertEquals("changed", read(new File(target, "dir1/file7")));
+      assertEquals("new", read(new File(target, "new/file")));
+      assertFalse(new File(target, "dir2/file2").exists());
+      assertFalse(new File(target, "extra").exists());
+   }
+
+   @Test
+   public void testCompareContent() throws IOException {
+      DirectorySync sync = new DirectorySync(2).setCompareContent(true);
+      sync.sync(source, target);
+
+      // Touched, but not changed
+      new File(source, "dir0/file0").setLastModified(1000000005000L);
+      // Changed, but with the same size
+      write(new File(source, "dir0/file3"), "CONTENT 3", 1000000000000L);
+      new File(target, "dir0/file3").setLastModified(1000000001000L);
+
+      DirectorySync.Result result = sync.sync(source, target);
+      assertEquals(1, result.getCopiedCount());
+      assertEquals(19, result.getUnchangedCount());
+      assertEquals("CONTENT 3", read(new File(target, "dir0/file3")));
+      assertEquals(1000000005000L, new File(target, "dir0/file0").lastModified());
+   }
+
+   @Test
+   public void testManifest() throws IOException {
+      File manifest = new File(workingDir, "sync.manifest");
+      DirectorySync sync = new DirectorySync().setDeleteRemoved(true)
+                                              .setManifest(manifest);
+      assertEquals(20, sync.sync(source, target).getCopiedCount());
+      assertTrue(manifest.exists());
+
+      // The manifest is trusted, the target is not compared
+      write(new File(target, "dir0/file0"), "modified in target", 1000000000000L);
+      write(new File(source, "dir1/file1"), "changed", 1000000002000L);
+      assertTrue(new File(source, "dir2/file5").delete());
+
+      DirectorySync.Result result = sync.sync(source, target);
+      assertEquals(1, result.getCopiedCount());
+      assertEquals(18, result.getUnchangedCount());
+      assertEquals(1, result.getDeletedCount());
+      assertEquals("modified in target", read(new File(target, "dir0/file0")));
+      assertEquals("changed", read(new File(target, "dir1/file1")));
+      assertFalse(new File(target, "dir2/file5").exists());
+
+      String[] names = new File(target, "dir2").list();
+      Arrays.sort(names);
+      assertArrayEquals(new String[] {"file11", "file14", "file17", "file2", "file8"}, names);
+   }
+
+   @Test
+   public void testManifestOfFailedRun() throws IOException {
+      File manifest = new File(workingDir, "sync.manifest");
+      File stale = new File(workingDir, "stale.manifest");
+      File file = new File(source, "dir0/file0");
+      File copy = new File(target, "dir0/file0");
+      DirectorySync sync = new DirectorySync().setCompareContent(true)
+                                              .setManifest(manifest);
+      sync.sync(source, target);
+      // Touched, so the compared hash of the content is recorded
+      file.setLastModified(1000000001000L);
+      assertEquals(20, sync.sync(source, target).getUnchangedCount());
+      Files.copy(manifest.toPath(), stale.toPath());
+
+      // A run, that copies a changed file and fails before it writes the manifest
+      write(file, "changed 0", 1000000002000L);
+      assertEquals(1, sync.sync(source, target).getCopiedCount());
+      Files.copy(stale.toPath(), manifest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+      // Records the new size and modification time without a hash of the copied content
+      assertEquals(20, sync.sync(source, target).getUnchangedCount());
+
+      // Changed back to the content of the stale hash with the same size
+      write(file, "content 0", 1000000003000L);
+      assertEquals(1, sync.sync(source, target).getCopiedCount());
+      assertEquals("content 0", read(copy));
+   }
+
+   @AfterEach
+   public void cleanUp() throws IOException {
+      FileUtils.delete(workingDir);
+   }
+}
@@ -0,0 +1,106 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import de.dk.util.DuplicateBlockFinder.Duplicate;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class DuplicateBlockFinderTest {
+
+   public DuplicateBlockFinderTest() {
+
+   }
+
+   @Test
+   public void testText() {
+      DuplicateBlockFinder finder = new DuplicateBlockFinder(8);
+      assertEquals(0, finder.add("0123456789abcdefghij").size());
+
+      List<Duplicate> duplicates = finder.add("xx23456789yyyyabcdefghzz");
+      assertEquals(2, duplicates.size());
+      assertEquals(1, duplicates.get(0).getSource());
+      assertEquals(2, duplicates.get(0).getOffset());
+      assertEquals(0, duplicates.get(0).getOriginalSource());
+      assertEquals(2, duplicates.get(0).getOriginalOffset());
+      assertEquals(14, duplicates.get(1).getOffset());
+      assertEquals(10, duplicates.get(1).getOriginalOffset());
+   }
+
+   @Test
+   public void testBytes() {
+      Random rnd = new Random(21);
+      byte[] data = new byte[100000];
+      rnd.nextBytes(data);
+      System.arraycopy(data, 1000, data, 50000, 4096);
+
+      DuplicateBlockFinder finder = new DuplicateBlockFinder(1024);
+      List<Duplicate> duplicates = finder.add(data);
+      assertEquals(4, duplicates.size());
+      for (Duplicate duplicate : duplicates) {
+         assertEquals(duplicate.getOffset() - 49000, duplicate.getOriginalOffset());
+         assertTrue(Arrays.equals(Arrays.copyOfRange(data, duplicate.getOffset(), duplicate.getOffset() + 1024),
+                                  Arrays.copyOfRange(data,
+                                                     duplicate.getOriginalOffset(),
+                                                     duplicate.getOriginalOffset() + 1024)));
+      }
+   }
+
+   @Test
+   public void testBuzhash() {
+      byte[] data = "rolling hashes are computed in constant time".getBytes();
+      Buzhash hash = new Buzhash(7);
+      for (int i = 0; i < data.length; i++) {
+         long h = hash.roll(data[i]);
+         if (i >= 6)
+            assertEquals(Buzhash.hash(data, i - 6, 7), h);
+      }
+   }
+
+   @Test
+   public void testContentDefinedChunking() throws IOException {
+      Random rnd = new Random(23);
+      byte[] data = new byte[500000];
+      rnd.nextBytes(data);
+
+      ContentDefinedChunker chunker = new ContentDefinedChunker(1024, 4096, 16384);
+      List<byte[]> chunks = new ArrayList<>();
+      chunker.split(new ByteArrayInputStream(data), chunks::add);
+      ByteArrayOutputStream joined = new ByteArrayOutputStream();
+      for (byte[] chunk : chunks) {
+         assertTrue(chunk.length <= 16384);
+         joined.write(chunk);
+      }
+      assertTrue(Arrays.equals(data, joined.toByteArray()));
+
+      List<Long> boundaries = chunker.boundariesOf(new ByteArrayInputStream(data));
+      assertEquals(chunks.size(), boundaries.size());
+      assertEquals(data.length, (long) boundaries.get(boundaries.size() - 1));
+
+      byte[] edited = new byte[data.length + 10];
+      System.arraycopy(data, 0, edited, 0, 250000);
+      System.arraycopy(data, 250000, edited, 250010, data.length - 250000);
+      Set<Long> shifted = new HashSet<>();
+      for (long boundary : chunker.boundariesOf(new ByteArrayInputStream(edited)))
+         shifted.add(boundary > 250000 ? boundary - 10 : boundary);
+
+      long kept = boundaries.stream().filter(shifted::contains).count();
+      assertTrue(kept > boundaries.size() * 0.9, "Only " + kept + " of " + boundaries.size() + " boundaries kept");
+   }
+
+}
@@ -0,0 +1,133 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class FileContentCacheTest {
+   private File workingDir;
+
+   public FileContentCacheTest() {
+
+   }
+
+   private static File write(File file, String content) throws IOException {
+      try (FileOutputStream out = new FileOutputStream(file)) {
+         out.write(content.getBytes());
+      }
+      return file;
+   }
+
+   @BeforeEach
+   public void init() {
+      this.workingDir = FileUtils.createTempDir();
+   }
+
+   @Test
+   public void testEviction() throws IOException {
+      FileContentCache cache = new FileContentCache(25);
+      File a = write(new File(workingDir, "a"), "0123456789");
+      File b = write(new File(workingDir, "b"), "0123456789");
+      File c = write(new File(workingDir, "c"), "0123456789");
+      File large = write(new File(workingDir, "large"), "012345678901234567890123456789");
+
+      byte[] content = cache.get(a);
+      assertSame(content, cache.get(a));
+      cache.get(b);
+      assertEquals(20, cache.size());
+      // a is used more recently than b, so b is evicted
+      cache.get(a);
+      cache.get(c);
+      assertEquals(20, cache.size());
+      assertEquals(2, cache.getHits());
+      assertEquals(3, cache.getMisses());
+      cache.get(a);
+      cache.get(b);
+      assertEquals(3, cache.getHits());
+      assertEquals(4, cache.getMisses());
+
+      assertEquals("012345678901234567890123456789", new String(cache.get(large)));
+      assertEquals(20, cache.size());
+      assertThrows(IOException.class, () -> cache.get(new File(workingDir, "missing")));
+   }
+
+   @Test
+   public void testModificationCheck() throws IOException {
+      FileContentCache cache = new FileContentCache(1000);
+      cache.setCheckInterval(0);
+      File file = write(new File(workingDir, "file"), "first");
+      assertEquals("first", new String(cache.get(file)));
+      write(file, "second content");
+      assertEquals("second content", new String(cache.get(file)));
+      assertEquals(14, cache.size());
+
+      cache.setCheckInterval(-1);
+      write(file, "third");
+      assertEquals("second content", new String(cache.get(file)));
+      cache.invalidate(file);
+      assertEquals("third", new String(cache.get(file)));
+   }
+
+   @Test
+   public void testWatch() throws Exception {
+      try (FileContentCache cache = new FileContentCache(1000)) {
+         cache.setCheckInterval(-1);
+         cache.watch();
+         File file = write(new File(workingDir, "file"), "first");
+         assertEquals("first", new String(cache.get(file)));
+         write(file, "second");
+         // Events may take a while, depending on the platform
+         for (int i = 0; i < 200 && cache.size() > 0; i++)
+            Thread.sleep(50);
+
+         assertEquals("second", new String(cache.get(file)));
+      }
+   }
+
+   @Test
+   public void testCoalescedLoads() throws Exception {
+      FileContentCache cache = new FileContentCache(1000);
+      File file = write(new File(workingDir, "file"), "content");
+      CountDownLatch start = new CountDownLatch(1);
+      List<CompletableFuture<byte[]>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+         results.add(CompletableFuture.supplyAsync(() -> {
+            try {
+               start.await();
+               return cache.get(file);
+            } catch (Exception e) {
+               throw new RuntimeException(e);
+            }
+         }));
+      }
+      start.countDown();
+      byte[] first = results.get(0).get();
+      for (CompletableFuture<byte[]> result : results)
+         assertSame(first, result.get());
+
+      assertArrayEquals("content".getBytes(), first);
+      assertEquals(1, cache.getMisses());
+   }
+
+   @AfterEach
+   public void cleanUp() throws IOException {
+      FileUtils.delete(workingDir);
+   }
+}
@@ -6,8 +6,12 @@ import static de.dk.util.FileUtils.delete;
 import static de.dk.util.FileUtils.getContentOf;
 import static de.dk.util.FileUtils.removeExtension;
 import static de.dk.util.FileUtils.writeContentOf;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -15,6 +19,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -96,6 +105,31 @@ public class FileUtilsTest {
       assertFalse(workingDir.exists());
    }
 
+   @Test
+   public void testDeleteParallel() throws IOException {
+      File dir = new File(workingDir, "deleteDir");
+      for (int i = 0; i < 600; i++)
+         writeTo(new File(dir, "sub" + (i % 3) + File.separator + "deep" + File.separator + "test" + i + ".txt"));
+      for (int i = 0; i < 300; i++)
+         writeTo(new File(dir, "test" + i + ".txt"));
+
+      ParallelDelete delete = new ParallelDelete(dir);
+      assertTrue(delete.run());
+      assertFalse(dir.exists());
+      assertEquals(900, delete.getDeletedFileCount());
+      assertEquals(7, delete.getDeletedDirectoryCount());
+
+      writeTo(new File(dir, "test.txt"));
+      delete = new ParallelDelete(dir);
+      delete.cancel();
+      assertFalse(delete.run());
+      assertTrue(dir.exists());
+
+      FileUtils.deleteParallel(dir);
+      assertFalse(dir.exists());
+      assertThrows(IOException.class, () -> FileUtils.deleteParallel(dir));
+   }
+
    @Test
    public void testGetContentOf() {
       File file = new File(workingDir, "testfile.txt");
@@ -120,6 +154,45 @@ public class FileUtilsTest {
       assertEquals(FILE_CONTENT, out.toString());
    }
 
+   @Test
+   public void testWriteContentOfLargeFile() throws IOException {
+      byte[] content = new byte[BufferPool.DEFAULT_BUFFER_SIZE * 3 + 17];
+      new Random(42).nextBytes(content);
+      File file = new File(workingDir, "largeFile.bin");
+      try (FileOutputStream out = new FileOutputStream(file)) {
+         out.write(content);
+      }
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      writeContentOf(file, out);
+      assertArrayEquals(content, out.toByteArray());
+
+      File target = new File(workingDir, "largeFileCopy.bin");
+      copy(file, target);
+      assertArrayEquals(content, getContentOf(target));
+   }
+
+   @Test
+   public void testWriteContentOfFileOutputStreamSubclass() throws IOException {
+      File file = new File(workingDir, "testFile.txt");
+      writeTo(file);
+      File target = new File(workingDir, "targetTestFile.txt");
+      AtomicLong written = new AtomicLong();
+      try (FileOutputStream out = new FileOutputStream(target) {
+         @Override
+         public void write(byte[] b, int off, int len) throws IOException {
+            written.addAndGet(len);
+            super.write(b, off, len);
+         }
+      }) {
+         writeContentOf(file, out);
+      }
+
+      // The data must pass the overridden write method
+      assertEquals(FILE_CONTENT.length(), written.get());
+      assertEquals(FILE_CONTENT, new String(getContentOf(target)));
+   }
+
    @Test
    public void testCopySimple() {
       File source = new File(workingDir, "testFile.txt");
@@ -173,6 +246,66 @@ public class FileUtilsTest {
       }
    }
 
+   @Test
+   public void testCopyParallel() throws IOException {
+      File source = new File(workingDir, "testDir");
+      for (int i = 0; i < 40; i++)
+         writeTo(new File(source, "sub" + (i % 4) + File.separator + "testFile" + i + ".txt"));
+
+      File f = new File(source, "testFile.txt");
+      writeTo(f);
+      f.setLastModified(1000000000000L);
+
+      File target = new File(workingDir, "targetTestDir");
+      ParallelCopy.Result result = new ParallelCopy(4).setPreserveAttributes(true)
+                                                      .copy(source, target);
+
+      assertEquals(41, result.getFileCount());
+      assertEquals(5, result.getDirectoryCount());
+      assertEquals(41L * FILE_CONTENT.length(), result.getByteCount());
+
+      File resultRoot = new File(target, source.getName());
+      for (int i = 0; i < 40; i++) {
+         File copy = new File(resultRoot, "sub" + (i % 4) + File.separator + "testFile" + i + ".txt");
+         assertEquals(FILE_CONTENT, new String(getContentOf(copy)));
+      }
+      File resultF = new File(resultRoot, f.getName());
+      assertEquals(f.lastModified(), resultF.lastModified());
+
+      File missing = new File(workingDir, "missing");
+      assertThrows(IOException.class, () -> FileUtils.copyParallel(missing, target));
+   }
+
+   @Test
+   public void testCopyParallelRuntimeException() {
+      File source = new File(workingDir, "testDir");
+      for (int i = 0; i < 20; i++)
+         writeTo(new File(source, "testFile" + i + ".txt"));
+
+      ParallelCopy copy = new ParallelCopy(4);
+      IllegalStateException failure = new IllegalStateException("Copy failed");
+      copy.fileCopier = (from, to) -> {
+         if (from.getFileName().toString().equals("testFile7.txt"))
+            throw failure;
+
+         Files.copy(from, to, StandardCopyOption.REPLACE_EXISTING);
+      };
+
+      File target = new File(workingDir, "targetTestDir");
+      IOException e = assertThrows(IOException.class, () -> copy.copy(source, target));
+      assertSame(failure, e.getCause());
+      assertTrue(e.getMessage().contains("testFile7.txt"));
+   }
+
+   @Test
+   public void testLocateSource() {
+      URI testSource = FileUtils.locateSource(FileUtilsTest.class);
+      URI mainSource = FileUtils.locateSource(FileUtils.class);
+      assertNotEquals(testSource, mainSource);
+      assertEquals(testSource, FileUtils.locateSource(FileUtilsTest.class));
+      assertEquals(testSource, FileUtils.locateSource());
+   }
+
    @Test
    public void testRemoveExtension() {
       String expected = "name";
@@ -0,0 +1,119 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import de.dk.util.FuzzyPattern.Match;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class FuzzyPatternTest {
+
+   public FuzzyPatternTest() {
+
+   }
+
+   private static int naiveDistance(String a, String b) {
+      int[] previous = new int[b.length() + 1];
+      int[] current = new int[b.length() + 1];
+      for (int j = 0; j <= b.length(); j++)
+         previous[j] = j;
+
+      for (int i = 1; i <= a.length(); i++) {
+         current[0] = i;
+         for (int j = 1; j <= b.length(); j++) {
+            int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+            current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+         }
+         int[] tmp = previous;
+         previous = current;
+         current = tmp;
+      }
+      return previous[b.length()];
+   }
+
+   private static String randomText(Random rnd, int length) {
+      StringBuilder builder = new StringBuilder(length);
+      for (int i = 0; i < length; i++)
+         builder.append(rnd.nextInt(10) == 0 ? 'ä' : (char) ('a' + rnd.nextInt(4)));
+
+      return builder.toString();
+   }
+
+   @Test
+   public void testDistance() {
+      assertEquals(3, StringUtils.levenshtein("kitten", "sitting"));
+      assertEquals(0, StringUtils.levenshtein("", ""));
+      assertEquals(4, StringUtils.levenshtein("", "four"));
+
+      Random rnd = new Random(7);
+      for (int i = 0; i < 300; i++) {
+         String a = randomText(rnd, rnd.nextInt(200));
+         String b = randomText(rnd, rnd.nextInt(200));
+         assertEquals(naiveDistance(a, b), FuzzyPattern.compile(a).distance(b), a + " / " + b);
+      }
+   }
+
+   @Test
+   public void testBoundedDistance() {
+      Random rnd = new Random(11);
+      for (int i = 0; i < 300; i++) {
+         String a = randomText(rnd, rnd.nextInt(100));
+         String b = randomText(rnd, rnd.nextInt(100));
+         int expected = naiveDistance(a, b);
+         int max = rnd.nextInt(60);
+         assertEquals(expected <= max ? expected : -1, StringUtils.levenshtein(a, b, max));
+      }
+   }
+
+   @Test
+   public void testDistances() {
+      Random rnd = new Random(13);
+      String query = randomText(rnd, 80);
+      CharSequence[] candidates = new CharSequence[500];
+      for (int i = 0; i < candidates.length; i++)
+         candidates[i] = randomText(rnd, rnd.nextInt(100));
+
+      int[] distances = FuzzyPattern.compile(query).distances(candidates, 70);
+      for (int i = 0; i < candidates.length; i++) {
+         int expected = naiveDistance(query, candidates[i].toString());
+         assertEquals(expected <= 70 ? expected : -1, distances[i]);
+      }
+   }
+
+   @Test
+   public void testSearch() {
+      String text = "the quick brown fox jumps over the lazy dog";
+      List<Match> matches = FuzzyPattern.compile("fox").search(text, 0);
+      assertEquals(1, matches.size());
+      assertEquals(16, matches.get(0).getStart());
+      assertEquals(19, matches.get(0).getEnd());
+
+      matches = FuzzyPattern.compile("jumsp").search(text, 2);
+      assertTrue(matches.stream().anyMatch(m -> m.getStart() == 20 && m.getDistance() == 2));
+
+      Random rnd = new Random(17);
+      for (int i = 0; i < 50; i++) {
+         String pattern = randomText(rnd, 1 + rnd.nextInt(90));
+         String haystack = randomText(rnd, rnd.nextInt(300));
+         int k = rnd.nextInt(5);
+         for (Match m : FuzzyPattern.compile(pattern).search(haystack, k)) {
+            String found = haystack.substring(m.getStart(), m.getEnd());
+            assertEquals(m.getDistance(), naiveDistance(pattern, found));
+            assertTrue(m.getDistance() <= k);
+            for (int start = 0; start <= m.getEnd(); start++)
+               assertTrue(naiveDistance(pattern, haystack.substring(start, m.getEnd())) >= m.getDistance());
+         }
+      }
+      assertThrows(IllegalArgumentException.class, () -> FuzzyPattern.compile("").search(text, 1));
+   }
+
+}
@@ -0,0 +1,101 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class IOTest {
+
+   public IOTest() {
+
+   }
+
+   private static byte[] randomData(int length) {
+      byte[] data = new byte[length];
+      new Random(length).nextBytes(data);
+      return data;
+   }
+
+   /**
+    * A stream, that never knows how many bytes are available
+    * and returns at most 1000 bytes per read, like a socket.
+    */
+   private static InputStream unknownLength(byte[] data) {
+      return new ByteArrayInputStream(data) {
+         @Override
+         public synchronized int available() {
+            return 0;
+         }
+
+         @Override
+         public synchronized int read(byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 1000));
+         }
+      };
+   }
+
+   @Test
+   public void testReadData() throws IOException {
+      for (int length : new int[] {0, 1, 8191, 8192, 8193, 100000}) {
+         byte[] data = randomData(length);
+         assertArrayEquals(data, IO.readData(new ByteArrayInputStream(data)));
+         assertArrayEquals(data, IO.readData(unknownLength(data)));
+         assertArrayEquals(data, IO.read(unknownLength(data)).toByteArray());
+      }
+   }
+
+   @Test
+   public void testReadBuffer() throws IOException {
+      byte[] data = randomData(20000);
+      ByteBuffer buffer = IO.readBuffer(unknownLength(data));
+      assertEquals(0, buffer.position());
+      assertEquals(data.length, buffer.remaining());
+      assertEquals(ByteBuffer.wrap(data), buffer);
+
+      // A stream, that only reports a single available byte, like a pipe or a socket
+      ByteBuffer fewAvailable = IO.readBuffer(new ByteArrayInputStream(data) {
+         @Override
+         public synchronized int available() {
+            return Math.min(1, super.available());
+         }
+      });
+      assertEquals(ByteBuffer.wrap(data), fewAvailable);
+      assertTrue(fewAvailable.capacity() >= 8192);
+   }
+
+   @Test
+   public void testWritePipe() throws Exception {
+      byte[] data = randomData(200000);
+      PipedOutputStream pipeOut = new PipedOutputStream();
+      PipedInputStream pipeIn = new PipedInputStream(pipeOut);
+      Thread writer = new Thread(() -> {
+         try (PipedOutputStream out = pipeOut) {
+            out.write(data);
+         } catch (IOException e) {
+            throw new RuntimeException(e);
+         }
+      });
+      writer.start();
+
+      // The pipe is empty when the transfer starts, so available() is 0
+      ByteArrayOutputStream target = new ByteArrayOutputStream();
+      IO.write(pipeIn, target);
+      writer.join();
+      assertArrayEquals(data, target.toByteArray());
+   }
+}
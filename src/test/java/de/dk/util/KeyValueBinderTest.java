@@ -0,0 +1,112 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class KeyValueBinderTest {
+
+   public KeyValueBinderTest() {
+
+   }
+
+   private static List<String> tokenize(String line) {
+      List<String> tokens = new ArrayList<>();
+      new KeyValueTokenizer().tokenize(line, (k, v) -> {
+         tokens.add(k.toString());
+         tokens.add(v == null ? null : v.toString());
+      });
+      return tokens;
+   }
+
+   @Test
+   public void testTokenize() {
+      List<String> tokens = tokenize("  name=foo path=\"/some dir/file\" 'the key'=1 flag empty= ");
+      assertEquals("name", tokens.get(0));
+      assertEquals("foo", tokens.get(1));
+      assertEquals("path", tokens.get(2));
+      assertEquals("/some dir/file", tokens.get(3));
+      assertEquals("the key", tokens.get(4));
+      assertEquals("1", tokens.get(5));
+      assertEquals("flag", tokens.get(6));
+      assertNull(tokens.get(7));
+      assertEquals("empty", tokens.get(8));
+      assertEquals("", tokens.get(9));
+      assertEquals(10, tokens.size());
+
+      tokens = tokenize("a=\"x\\\"y\" b=c\\ d");
+      assertEquals(StringUtils.filter('\\', "x\\\"y"), tokens.get(1));
+      assertEquals("cd", tokens.get(3));
+
+      assertThrows(IllegalArgumentException.class, () -> tokenize("a=\"unterminated"));
+      assertThrows(IllegalArgumentException.class, () -> tokenize("=value"));
+      assertEquals(0, tokenize("   ").size());
+   }
+
+   @Test
+   public void testBind() {
+      KeyValueBinder<Job> binder = new KeyValueBinder<>(Job.class);
+      Job job = binder.bind("name=\"nightly build\" retries=3 timeout=-9000000000 ratio=0.5 "
+                            + "verbose mode=FAST priority=7 label=x",
+                            new Job());
+      assertEquals("nightly build", job.name);
+      assertEquals(3, job.retries);
+      assertEquals(-9000000000L, job.timeout);
+      assertEquals(0.5, job.ratio);
+      assertTrue(job.verbose);
+      assertEquals(Mode.FAST, job.mode);
+      assertEquals(Integer.valueOf(7), job.priority);
+      assertEquals('x', job.label);
+      assertEquals("base", job.inherited);
+
+      binder.bind("verbose=false inherited=sub", job);
+      assertFalse(job.verbose);
+      assertEquals("sub", job.inherited);
+
+      assertThrows(IllegalArgumentException.class, () -> binder.bind("unknown=1", new Job()));
+      assertThrows(IllegalArgumentException.class, () -> binder.bind("retries=abc", new Job()));
+      assertThrows(IllegalArgumentException.class, () -> binder.bind("retries=99999999999", new Job()));
+      assertThrows(IllegalArgumentException.class, () -> binder.bind("label=abc", new Job()));
+      assertThrows(IllegalArgumentException.class, () -> binder.bind("label=\"\"", new Job()));
+      assertThrows(IllegalArgumentException.class, () -> binder.bind("label", new Job()));
+      assertThrows(IllegalArgumentException.class, () -> binder.bind("initial=ab", new Job()));
+      assertEquals(Character.valueOf('y'), binder.bind("initial=y", new Job()).initial);
+
+      KeyValueBinder<Job> lenient = new KeyValueBinder<>(Job.class, new KeyValueTokenizer(), true);
+      assertEquals(4, lenient.bind("unknown=1 retries=4", new Job()).retries);
+   }
+
+   private static enum Mode {
+      SLOW, FAST;
+   }
+
+   private static class Base {
+      String inherited = "base";
+   }
+
+   private static class Job extends Base {
+      private static int ignored;
+
+      String name;
+      int retries;
+      long timeout;
+      double ratio;
+      boolean verbose;
+      Mode mode;
+      Integer priority;
+      char label;
+      Character initial;
+   }
+
+}
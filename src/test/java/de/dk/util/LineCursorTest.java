@@ -0,0 +1,89 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class LineCursorTest {
+   private static final String TEXT = "first\nsecond\r\nthird\rfourth\n\nsixth";
+   private static final List<String> LINES = Arrays.asList("first", "second", "third", "fourth", "", "sixth");
+
+   public LineCursorTest() {
+
+   }
+
+   private static List<String> readAll(LineCursor cursor) {
+      List<String> lines = new ArrayList<>();
+      while (cursor.next())
+         lines.add(cursor.toString());
+
+      return lines;
+   }
+
+   @Test
+   public void testNext() {
+      assertEquals(LINES, readAll(new LineCursor(TEXT)));
+      assertEquals(Arrays.asList("a", ""), readAll(new LineCursor("a\r\n")));
+      assertEquals(Arrays.asList(""), readAll(new LineCursor("")));
+   }
+
+   @Test
+   public void testCharSequenceView() {
+      LineCursor cursor = new LineCursor(TEXT);
+      cursor.next();
+      cursor.next();
+      assertEquals(6, cursor.length());
+      assertEquals('s', cursor.charAt(0));
+      assertEquals("eco", cursor.subSequence(1, 4).toString());
+      assertEquals(6, cursor.getStart());
+      assertEquals(12, cursor.getEnd());
+      assertThrows(IndexOutOfBoundsException.class, () -> cursor.charAt(6));
+   }
+
+   @Test
+   public void testMoveTo() {
+      LineCursor cursor = new LineCursor(TEXT);
+      cursor.moveTo(3);
+      assertEquals("fourth", cursor.toString());
+      cursor.moveTo(1);
+      assertEquals("second", cursor.toString());
+      assertThrows(NoSuchElementException.class, () -> cursor.moveTo(6));
+
+      LineCursor indexed = LineIndex.of(TEXT).cursor();
+      indexed.moveTo(2);
+      assertEquals("third", indexed.toString());
+      assertTrue(indexed.next());
+      assertEquals("fourth", indexed.toString());
+      indexed.moveTo(5);
+      assertEquals("sixth", indexed.toString());
+      assertFalse(indexed.hasNext());
+      assertThrows(NoSuchElementException.class, () -> indexed.moveTo(6));
+   }
+
+   @Test
+   public void testLineIndex() {
+      LineIndex index = LineIndex.of(TEXT);
+      assertEquals(LINES.size(), index.getLineCount());
+      for (int i = 0; i < LINES.size(); i++)
+         assertEquals(LINES.get(i), index.getLine(i).toString());
+
+      assertEquals(0, index.getLineOf(0));
+      assertEquals(0, index.getLineOf(5));
+      assertEquals(1, index.getLineOf(6));
+      assertEquals(1, index.getLineOf(13));
+      assertEquals(5, index.getLineOf(TEXT.length()));
+   }
+
+}
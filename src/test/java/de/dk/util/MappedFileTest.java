@@ -0,0 +1,94 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class MappedFileTest {
+   private File workingDir;
+   private File file;
+   private byte[] content;
+
+   public MappedFileTest() {
+
+   }
+
+   @BeforeEach
+   public void init() throws IOException {
+      this.workingDir = FileUtils.createTempDir();
+      this.file = new File(workingDir, "mapped.bin");
+      this.content = new byte[1000];
+      new Random(7).nextBytes(content);
+      try (FileOutputStream out = new FileOutputStream(file)) {
+         out.write(content);
+      }
+   }
+
+   @Test
+   public void testRandomAccess() throws IOException {
+      // Segments of 64 bytes, so multi byte values cross segment boundaries
+      MappedFile mapped = MappedFile.map(file, 6);
+      assertEquals(content.length, mapped.size());
+      assertEquals(16, mapped.getSegmentCount());
+
+      ByteBuffer expected = ByteBuffer.wrap(content);
+      for (int i = 0; i < content.length; i++)
+         assertEquals(content[i], mapped.get(i));
+      for (int i = 0; i <= content.length - Long.BYTES; i++) {
+         assertEquals(expected.getInt(i), mapped.getInt(i));
+         assertEquals(expected.getLong(i), mapped.getLong(i));
+      }
+
+      assertThrows(IndexOutOfBoundsException.class, () -> mapped.get(content.length));
+      assertThrows(IndexOutOfBoundsException.class, () -> mapped.getInt(content.length - 3));
+      assertThrows(IndexOutOfBoundsException.class, () -> mapped.get(-1));
+   }
+
+   @Test
+   public void testBulkRead() throws IOException {
+      MappedFile mapped = MappedFile.map(file, 6);
+      byte[] dst = new byte[300];
+      assertEquals(300, mapped.read(50, dst, 0, 300));
+      assertArrayEquals(Arrays.copyOfRange(content, 50, 350), dst);
+      assertEquals(100, mapped.read(900, dst, 10, 200));
+      assertArrayEquals(Arrays.copyOfRange(content, 900, 1000), Arrays.copyOfRange(dst, 10, 110));
+      assertEquals(-1, mapped.read(1000, dst, 0, 1));
+
+      ByteBuffer inside = mapped.slice(130, 20);
+      ByteBuffer across = mapped.slice(120, 20);
+      assertEquals(ByteBuffer.wrap(content, 130, 20), inside);
+      assertEquals(ByteBuffer.wrap(content, 120, 20), across);
+   }
+
+   @Test
+   public void testStream() throws IOException {
+      MappedFile mapped = FileUtils.map(file);
+      assertEquals(1, mapped.getSegmentCount());
+      try (InputStream in = mapped.stream(1)) {
+         assertEquals(content[1] & 0xFF, in.read());
+         assertEquals(10, in.skip(10));
+         assertArrayEquals(Arrays.copyOfRange(content, 12, content.length), IO.read(in).toByteArray());
+      }
+   }
+
+   @AfterEach
+   public void cleanUp() throws IOException {
+      FileUtils.delete(workingDir);
+   }
+}
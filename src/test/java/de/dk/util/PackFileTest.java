@@ -0,0 +1,208 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class PackFileTest {
+   private File workingDir;
+   private File pack;
+
+   public PackFileTest() {
+
+   }
+
+   @BeforeEach
+   public void init() {
+      this.workingDir = FileUtils.createTempDir();
+      this.pack = new File(workingDir, "test.pack");
+   }
+
+   private static byte[] bytes(ByteBuffer buffer) {
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return bytes;
+   }
+
+   private static byte[] content(int i) {
+      return ("content of file " + i).getBytes(StandardCharsets.UTF_8);
+   }
+
+   @Test
+   public void testWriteAndRead() throws IOException {
+      try (PackWriter writer = new PackWriter(pack)) {
+         writer.add("b/second.txt", content(2))
+               .add("a.txt", new ByteArrayInputStream(content(1)))
+               .add("empty.txt", new byte[0]);
+         assertEquals(3, writer.size());
+      }
+
+      PackFile file = PackFile.open(pack);
+      assertEquals(3, file.size());
+      assertEquals(Arrays.asList("a.txt", "b/second.txt", "empty.txt"), file.getNames());
+      assertArrayEquals(content(1), bytes(file.get("a.txt")));
+      assertArrayEquals(content(2), bytes(file.get("b/second.txt")));
+      assertEquals(0, file.get("empty.txt").remaining());
+      assertTrue(file.get("a.txt").isReadOnly());
+      assertTrue(file.contains("a.txt"));
+      assertFalse(file.contains("b"));
+      assertNull(file.get("missing.txt"));
+
+      try (PackWriter writer = new PackWriter(pack)) {
+         assertThrows(IllegalArgumentException.class, () -> writer.add("", new byte[0]));
+         assertThrows(IllegalArgumentException.class, () -> writer.add("/abs", new byte[0]));
+         assertThrows(IllegalArgumentException.class, () -> writer.add("a\\b", new byte[0]));
+      }
+   }
+
+   @Test
+   public void testAppend() throws IOException {
+      try (PackWriter writer = new PackWriter(pack)) {
+         writer.add("a.txt", content(1)).add("b.txt", content(2));
+      }
+      PackFile before = PackFile.open(pack);
+
+      try (PackWriter writer = new PackWriter(pack)) {
+         writer.add("a.txt", content(3)).add("c.txt", content(4));
+         // Not visible before the writer is closed
+         assertFalse(PackFile.open(pack).contains("c.txt"));
+      }
+
+      PackFile after = PackFile.open(pack);
+      assertEquals(3, after.size());
+      assertArrayEquals(content(3), bytes(after.get("a.txt")));
+      assertArrayEquals(content(2), bytes(after.get("b.txt")));
+      assertArrayEquals(content(4), bytes(after.get("c.txt")));
+      // The data file has only been appended to
+      assertArrayEquals(content(1), bytes(before.get("a.txt")));
+   }
+
+   @Test
+   public void testPackAndUnpack() throws IOException {
+      File source = new File(workingDir, "source");
+      for (int i = 0; i < 50; i++) {
+         File file = new File(source, "sub" + (i % 5) + File.separator + "file" + i + ".txt");
+         file.getParentFile().mkdirs();
+         try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content(i));
+         }
+      }
+
+      FileUtils.pack(source, pack);
+      assertEquals(50, PackFile.open(pack).size());
+      assertArrayEquals(content(7), bytes(PackFile.open(pack).get("source/sub2/file7.txt")));
+
+      File target = new File(workingDir, "target");
+      FileUtils.unpack(pack, target);
+      for (int i = 0; i < 50; i++) {
+         File file = new File(target, "source" + File.separator + "sub" + (i % 5) + File.separator + "file" + i + ".txt");
+         assertArrayEquals(content(i), FileUtils.getContentOf(file));
+      }
+   }
+
+   @Test
+   public void testUnpackOutsideOfTarget() throws IOException {
+      try (PackWriter writer = new PackWriter(pack)) {
+         writer.add("../escaped.txt", content(1));
+      }
+      File target = new File(workingDir, "target");
+      assertThrows(IOException.class, () -> FileUtils.unpack(pack, target));
+      assertFalse(new File(workingDir, "escaped.txt").exists());
+   }
+
+   @Test
+   public void testFailingEntry() throws IOException {
+      // Provides 10 bytes and fails then
+      InputStream failing = new InputStream() {
+         private boolean read;
+
+         @Override
+         public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0];
+         }
+
+         @Override
+         public int read(byte[] b, int off, int len) throws IOException {
+            if (read)
+               throw new IOException("Read failed");
+
+            read = true;
+            int n = Math.min(len, 10);
+            Arrays.fill(b, off, off + n, (byte) 'x');
+            return n;
+         }
+      };
+      try (PackWriter writer = new PackWriter(pack)) {
+         assertThrows(IOException.class, () -> writer.add("bad", failing));
+         writer.add("good", "hello".getBytes(StandardCharsets.UTF_8));
+      }
+
+      PackFile file = PackFile.open(pack);
+      assertFalse(file.contains("bad"));
+      assertArrayEquals("hello".getBytes(StandardCharsets.UTF_8), bytes(file.get("good")));
+   }
+
+   @Test
+   public void testPackFailure() throws IOException {
+      try (PackWriter writer = new PackWriter(pack)) {
+         writer.add("old.txt", content(0));
+      }
+
+      File source = new File(workingDir, "source");
+      source.mkdir();
+      for (int i = 0; i < 5; i++) {
+         try (FileOutputStream out = new FileOutputStream(new File(source, "file" + i + ".txt"))) {
+            out.write(content(i));
+         }
+      }
+      // A dangling link cannot be read
+      Files.createSymbolicLink(new File(source, "link").toPath(), new File(workingDir, "missing").toPath());
+
+      assertThrows(IOException.class, () -> FileUtils.pack(source, pack));
+      assertEquals(Arrays.asList("old.txt"), PackFile.open(pack).getNames());
+
+      // The discarded data is overwritten by the next writer
+      assertTrue(new File(source, "link").delete());
+      FileUtils.pack(source, pack);
+      PackFile file = PackFile.open(pack);
+      assertEquals(6, file.size());
+      assertArrayEquals(content(0), bytes(file.get("old.txt")));
+      assertArrayEquals(content(3), bytes(file.get("source/file3.txt")));
+   }
+
+   @Test
+   public void testMissingIndex() throws IOException {
+      assertThrows(IOException.class, () -> PackFile.open(pack));
+      try (FileOutputStream out = new FileOutputStream(pack)) {
+         out.write(content(1));
+      }
+      assertThrows(IOException.class, () -> new PackWriter(pack));
+   }
+
+   @AfterEach
+   public void cleanUp() throws IOException {
+      FileUtils.delete(workingDir);
+   }
+}
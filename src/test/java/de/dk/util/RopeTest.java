@@ -0,0 +1,87 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class RopeTest {
+
+   public RopeTest() {
+
+   }
+
+   private static String randomText(Random rnd, int length) {
+      StringBuilder builder = new StringBuilder(length);
+      for (int i = 0; i < length; i++)
+         builder.append(rnd.nextInt(20) == 0 ? '\n' : (char) ('a' + rnd.nextInt(26)));
+
+      return builder.toString();
+   }
+
+   @Test
+   public void testEdits() {
+      Random rnd = new Random(42);
+      StringBuilder expected = new StringBuilder(randomText(rnd, 50000));
+      Rope rope = Rope.of(expected);
+      for (int i = 0; i < 2000; i++) {
+         int index = rnd.nextInt(expected.length() + 1);
+         if (rnd.nextBoolean()) {
+            String text = randomText(rnd, rnd.nextInt(3000));
+            expected.insert(index, text);
+            rope = rope.insert(index, text);
+         } else {
+            int end = Math.min(expected.length(), index + rnd.nextInt(3000));
+            expected.delete(index, end);
+            rope = rope.delete(index, end);
+         }
+      }
+      assertEquals(expected.toString(), rope.toString());
+      assertEquals(expected.length(), rope.length());
+      assertTrue(rope.getDepth() < 30, "Rope is not balanced. Depth: " + rope.getDepth());
+
+      for (int i = 0; i < 1000; i++) {
+         int index = rnd.nextInt(expected.length());
+         assertEquals(expected.charAt(index), rope.charAt(index));
+      }
+   }
+
+   @Test
+   public void testConcatAndSubSequence() {
+      Rope rope = Rope.empty();
+      StringBuilder expected = new StringBuilder();
+      for (int i = 0; i < 10000; i++) {
+         String part = "part" + i + ' ';
+         rope = rope.concat(part);
+         expected.append(part);
+      }
+      assertEquals(expected.toString(), rope.toString());
+      assertTrue(rope.getDepth() < 30, "Rope is not balanced. Depth: " + rope.getDepth());
+
+      assertEquals(expected.substring(1234, 56789), rope.subSequence(1234, 56789).toString());
+      assertEquals("", rope.subSequence(5, 5).toString());
+      assertSame(rope, rope.subSequence(0, rope.length()));
+      assertSame(rope, Rope.of(rope));
+      assertThrows(IndexOutOfBoundsException.class, () -> Rope.of("abc").subSequence(2, 4));
+      assertThrows(IndexOutOfBoundsException.class, () -> Rope.of("abc").charAt(3));
+   }
+
+   @Test
+   public void testLines() {
+      Rope rope = Rope.of("first\nsecond\r\nthird\n");
+      assertEquals("\tfirst\n\tsecond\r\n\tthird\n", rope.insertBeforeLines("\t").toString());
+      assertEquals("first", StringUtils.getFirstLineOf(rope).toString());
+      assertEquals("", StringUtils.getLastLineOf(rope).toString());
+      assertEquals("sec", StringUtils.getLineUntil(rope, 9).toString());
+      assertEquals(4, LineIndex.of(rope).getLineCount());
+   }
+
+}
@@ -0,0 +1,97 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class StringPoolTest {
+
+   public StringPoolTest() {
+
+   }
+
+   @Test
+   public void testIntern() {
+      StringPool pool = new StringPool(100, 4);
+      String text = "int count = count + 1;";
+      String first = pool.intern(text, 4, 9);
+      assertEquals("count", first);
+      assertSame(first, pool.intern(text, 12, 17));
+      assertSame(first, pool.intern("count".toCharArray(), 0, 5));
+      assertSame(first, pool.intern(new StringBuilder("count")));
+      assertEquals(3, pool.getHits());
+      assertEquals(1, pool.getMisses());
+      assertEquals(0.75, pool.getHitRate(), 0.0001);
+      assertTrue(pool.getBytesSaved() > 0);
+      assertEquals(1, pool.size());
+
+      pool.clear();
+      assertEquals(0, pool.size());
+      assertNotSame(first, pool.intern(new StringBuilder("count")));
+   }
+
+   @Test
+   public void testBounded() {
+      StringPool pool = new StringPool(64, 1);
+      String kept = pool.intern("kept");
+      for (int i = 0; i < 1000; i++) {
+         pool.intern("value" + i);
+         assertSame(kept, pool.intern("kept"));
+      }
+      assertEquals(64, pool.size());
+   }
+
+   @Test
+   public void testHugeMaxSize() {
+      for (int stripeCount : new int[] {1, 3, 1 << 16}) {
+         StringPool pool = new StringPool(Integer.MAX_VALUE, stripeCount);
+         for (int i = 0; i < 10000; i++)
+            pool.intern("value" + i);
+
+         assertEquals(10000, pool.size());
+         String value = pool.intern("value42");
+         assertSame(value, pool.intern(new StringBuilder("value42")));
+      }
+   }
+
+   @Test
+   public void testConcurrent() throws InterruptedException, ExecutionException {
+      StringPool pool = new StringPool(10000);
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      String[][] results = new String[4][1000];
+      try {
+         Future<?>[] futures = new Future<?>[4];
+         for (int t = 0; t < futures.length; t++) {
+            int thread = t;
+            futures[t] = executor.submit(() -> {
+               for (int i = 0; i < 1000; i++)
+                  results[thread][i] = pool.intern(("identifier" + i).toCharArray(), 0, ("identifier" + i).length());
+            });
+         }
+         for (Future<?> future : futures)
+            future.get();
+      } finally {
+         executor.shutdown();
+      }
+      for (int i = 0; i < 1000; i++) {
+         for (int t = 1; t < results.length; t++)
+            assertSame(results[0][i], results[t][i]);
+      }
+      assertEquals(1000, pool.size());
+      assertEquals(3000, pool.getHits());
+      assertEquals(1000, pool.getMisses());
+   }
+
+}
@@ -1,22 +1,42 @@
 package de.dk.util;
 
+import static de.dk.util.StringUtils.chars;
+import static de.dk.util.StringUtils.concat;
 import static de.dk.util.StringUtils.filter;
 import static de.dk.util.StringUtils.getCommonPrefixesOf;
 import static de.dk.util.StringUtils.getCommonPrefixesOfParallel;
+import static de.dk.util.StringUtils.getFirstLineOf;
 import static de.dk.util.StringUtils.getIndicesAfter;
 import static de.dk.util.StringUtils.getIndicesOf;
 import static de.dk.util.StringUtils.getLastLineOf;
 import static de.dk.util.StringUtils.getLineUntil;
 import static de.dk.util.StringUtils.indent;
+import static de.dk.util.StringUtils.indexOfBlank;
+import static de.dk.util.StringUtils.indexOfNonBlank;
+import static de.dk.util.StringUtils.isBlank;
+import static de.dk.util.StringUtils.join;
+import static de.dk.util.StringUtils.joinParallel;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
+import de.dk.util.StringUtils.CharIterator;
+import de.dk.util.StringUtils.CharSpliterator;
 import de.dk.util.StringUtils.SimpleStringIterator;
 
 /**
@@ -34,6 +54,47 @@ public class StringUtilsTest {
       String origin = "\\abc\\def\\gh\\\\ij\\k";
       String expected = "bcefhij";
       assertEquals(expected, filter('\\', origin));
+
+      String unfiltered = "nothing to filter";
+      assertSame(unfiltered, filter('\\', unfiltered));
+      assertSame(unfiltered, filter('\\', (CharSequence) unfiltered));
+      assertEquals(expected, filter('\\', new StringBuilder(origin)).toString());
+   }
+
+   @Test
+   public void testFilterTo() throws IOException {
+      String origin = "\\abc\\def\\gh\\\\ij\\k";
+      String expected = "bcefhij";
+      assertEquals(expected, filter('\\', origin, new StringBuilder()).toString());
+
+      CharBuffer buffer = CharBuffer.allocate(origin.length());
+      filter('\\', origin, buffer).flip();
+      assertEquals(expected, buffer.toString());
+      assertThrows(BufferOverflowException.class, () -> filter('\\', origin, CharBuffer.allocate(2)));
+      // Nothing is put into a buffer that is too small, neither from a String nor from other text
+      CharBuffer small = CharBuffer.allocate(expected.length() - 1);
+      assertThrows(BufferOverflowException.class, () -> filter('\\', origin, small));
+      assertEquals(0, small.position());
+      assertThrows(BufferOverflowException.class, () -> filter('\\', new StringBuilder(origin), small));
+      assertEquals(0, small.position());
+      assertThrows(BufferOverflowException.class, () -> filter('\\', new StringBuilder("abc"), CharBuffer.allocate(2)));
+      buffer = CharBuffer.allocate(expected.length());
+      filter('\\', new StringBuilder(origin), buffer).flip();
+      assertEquals(expected, buffer.toString());
+
+      StringBuilder builder = new StringBuilder();
+      for (int i = 0; i < 5000; i++)
+         builder.append(origin);
+
+      StringBuilder expectedBuilder = new StringBuilder();
+      for (int i = 0; i < 5000; i++)
+         expectedBuilder.append(expected);
+
+      String large = builder.toString();
+      StringWriter writer = new StringWriter();
+      filter('\\', new StringReader(large), writer);
+      assertEquals(expectedBuilder.toString(), writer.toString());
+      assertEquals(expectedBuilder.toString(), filter('\\', large));
    }
 
    @Test
@@ -74,10 +135,21 @@ public class StringUtilsTest {
 
       string = "kjafhbäga#egjrefbgadmfsönkv ds fv pjqwfe#+e";
       assertEquals(string, getLastLineOf(string));
+      assertEquals(lastLine, getLastLineOf("first line\r\n" + lastLine));
+      assertEquals("", getLastLineOf("first line\r\n"));
 
       assertThrows(NullPointerException.class, () -> getLastLineOf(null));
    }
 
+   @Test
+   public void testGetFirstLineOf() {
+      String firstLine = "first line";
+      assertEquals(firstLine, getFirstLineOf(firstLine + "\r\nsecond line"));
+      assertEquals(firstLine, getFirstLineOf(firstLine + "\rsecond line"));
+      assertEquals(firstLine, getFirstLineOf(firstLine));
+      assertEquals("", getFirstLineOf("\nsecond line"));
+   }
+
    @Test
    public void testGetLineUntil() {
       String theWord = "THEWORD";
@@ -159,4 +231,109 @@ public class StringUtilsTest {
          assertEquals(string.charAt(index++), c);
    }
 
+   @Test
+   public void testCharIterator() {
+      String string = "Einfach ein String zum Testen.\nöäüß";
+      CharIterator iterator = new CharIterator(string);
+      int index = 0;
+      while (iterator.hasNext())
+         assertEquals(string.charAt(index++), iterator.nextChar());
+
+      assertEquals(string.length(), index);
+      assertThrows(NoSuchElementException.class, iterator::nextInt);
+
+      iterator = new CharIterator(string, 8, 11);
+      StringBuilder builder = new StringBuilder();
+      iterator.forEachRemaining((int c) -> builder.append((char) c));
+      assertEquals("ein", builder.toString());
+   }
+
+   @Test
+   public void testCharSpliterator() {
+      StringBuilder builder = new StringBuilder();
+      for (int i = 0; i < 100000; i++)
+         builder.append((char) ('a' + i % 26));
+
+      long expected = builder.chars()
+                             .filter(c -> c == 'x')
+                             .count();
+
+      assertEquals(expected, chars(builder, true).filter(c -> c == 'x').count());
+      assertEquals(expected, chars(builder, false).filter(c -> c == 'x').count());
+
+      CharSpliterator spliterator = new CharSpliterator(builder);
+      CharSpliterator prefix = spliterator.trySplit();
+      assertEquals(builder.length(), prefix.estimateSize() + spliterator.estimateSize());
+      assertNull(new CharSpliterator("short").trySplit());
+   }
+
+   @Test
+   public void testJoin() throws IOException {
+      assertEquals("a, b, c", concat(", ", "a", "b", "c"));
+      assertEquals("abc", concat(null, "a", "b", "c"));
+      assertEquals("a-null", concat("-", "a", null));
+
+      List<CharSequence> elements = Arrays.asList("a", new StringBuilder("b"), "c");
+      assertEquals("a, b, c", join(", ", elements));
+      assertEquals("a, b, c", join(", ", elements::iterator));
+      assertEquals("a, b, c", join(", ", elements.stream()));
+      assertEquals("x: a, b, c", join(", ", elements, new StringBuilder("x: ")).toString());
+      assertEquals("", join(", ", Arrays.asList()));
+
+      String[] many = new String[100000];
+      for (int i = 0; i < many.length; i++)
+         many[i] = i % 1000 == 0 ? null : "element" + i;
+
+      String expected = String.join(";", many);
+      assertEquals(expected, joinParallel(";", many));
+      assertEquals(expected, join(";", Arrays.asList(many).parallelStream()));
+      assertEquals("a;b", joinParallel(";", new String[] {"a", "b"}));
+      assertEquals("", joinParallel(";", new String[0]));
+   }
+
+   @Test
+   public void testIsBlank() {
+      assertTrue(isBlank((String) null));
+      assertTrue(isBlank(""));
+      assertTrue(isBlank(" \t\r\n"));
+      assertFalse(isBlank(" \t x \n"));
+      assertFalse(isBlank(new StringBuilder("\u00e4")));
+      assertTrue(isBlank(' '));
+      assertTrue(isBlank('\u0000'));
+      assertFalse(isBlank('a'));
+      for (char c = 0; c < 512; c++)
+         assertEquals(String.valueOf(c).trim().isEmpty(), isBlank(c));
+   }
+
+   @Test
+   public void testIndexOfBlank() {
+      String text = "  key = \u00e4value\tnext";
+      assertEquals(2, indexOfNonBlank(text, 0));
+      assertEquals(5, indexOfBlank(text, 2));
+      assertEquals(8, indexOfNonBlank(text, 7));
+      assertEquals(-1, indexOfBlank(text, 20));
+
+      Random rnd = new Random(31);
+      byte[] data = new byte[1000];
+      for (int run = 0; run < 200; run++) {
+         for (int i = 0; i < data.length; i++) {
+            int kind = rnd.nextInt(run % 2 == 0 ? 50 : 4);
+            data[i] = (byte) (kind == 0 ? 'x' : kind == 1 ? 0xC3 : kind == 2 ? '\t' : ' ');
+         }
+         int from = rnd.nextInt(data.length);
+         int to = from + rnd.nextInt(data.length - from + 1);
+
+         int expectedBlank = -1;
+         int expectedNonBlank = -1;
+         for (int i = to - 1; i >= from; i--) {
+            if ((data[i] & 0xFF) <= ' ')
+               expectedBlank = i;
+            else
+               expectedNonBlank = i;
+         }
+         assertEquals(expectedBlank, indexOfBlank(data, from, to));
+         assertEquals(expectedNonBlank, indexOfNonBlank(data, from, to));
+      }
+   }
+
 }
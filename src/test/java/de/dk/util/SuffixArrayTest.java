@@ -0,0 +1,105 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class SuffixArrayTest {
+
+   public SuffixArrayTest() {
+
+   }
+
+   private static String randomText(Random rnd, int length, int alphabet) {
+      StringBuilder builder = new StringBuilder(length);
+      for (int i = 0; i < length; i++)
+         builder.append(rnd.nextInt(50) == 0 ? 'ß' : (char) ('a' + rnd.nextInt(alphabet)));
+
+      return builder.toString();
+   }
+
+   private static int[] naiveIndicesOf(String pattern, String text) {
+      return IntStream.rangeClosed(0, text.length() - pattern.length())
+                      .filter(i -> text.startsWith(pattern, i))
+                      .toArray();
+   }
+
+   private static void assertSorted(SuffixArray index, String text) {
+      for (int i = 1; i < text.length(); i++) {
+         String previous = text.substring(index.getSuffix(i - 1));
+         String current = text.substring(index.getSuffix(i));
+         assertTrue(previous.compareTo(current) < 0);
+
+         int lcp = 0;
+         while (lcp < previous.length() && lcp < current.length() && previous.charAt(lcp) == current.charAt(lcp))
+            lcp++;
+
+         assertEquals(lcp, index.getLcp(i));
+      }
+   }
+
+   @Test
+   public void testConstruction() {
+      Random rnd = new Random(3);
+      for (int i = 0; i < 50; i++) {
+         String text = randomText(rnd, rnd.nextInt(400), 1 + rnd.nextInt(4));
+         assertSorted(SuffixArray.of(text), text);
+      }
+      assertSorted(SuffixArray.of("mississippi"), "mississippi");
+      assertEquals(0, SuffixArray.of("").length());
+   }
+
+   @Test
+   public void testFindAll() {
+      Random rnd = new Random(5);
+      String text = randomText(rnd, 20000, 3);
+      SuffixArray index = SuffixArray.of(text);
+      for (int i = 0; i < 200; i++) {
+         int start = rnd.nextInt(text.length() - 10);
+         String pattern = text.substring(start, start + 1 + rnd.nextInt(8));
+         assertArrayEquals(naiveIndicesOf(pattern, text), index.findAll(pattern));
+      }
+      assertEquals(0, index.count("x"));
+      assertFalse(index.contains("x"));
+
+      List<Integer> expected = StringUtils.getIndicesOf("ss", "mississippi");
+      int[] found = SuffixArray.of("mississippi").findAll("ss");
+      assertEquals(expected.size(), found.length);
+      assertEquals("issi", SuffixArray.of("mississippi").getLongestRepeatedSubstring());
+   }
+
+   @Test
+   public void testWriteAndMap() throws IOException {
+      Random rnd = new Random(9);
+      String text = randomText(rnd, 5001, 4);
+      SuffixArray index = SuffixArray.of(text);
+      File dir = FileUtils.createTempDir();
+      try {
+         File file = new File(dir, "index.sa");
+         index.write(file);
+         SuffixArray mapped = SuffixArray.map(file);
+         assertEquals(text, mapped.getText().toString());
+         for (int i = 0; i < text.length(); i++) {
+            assertEquals(index.getSuffix(i), mapped.getSuffix(i));
+            assertEquals(index.getLcp(i), mapped.getLcp(i));
+         }
+         assertArrayEquals(index.findAll("abc"), mapped.findAll("abc"));
+      } finally {
+         FileUtils.delete(dir);
+      }
+   }
+
+}
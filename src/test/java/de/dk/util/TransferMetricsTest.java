@@ -0,0 +1,127 @@
+package de.dk.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author David Koettlitz
+ * <br>Erstellt am 19.10.2026
+ */
+public class TransferMetricsTest {
+   private File workingDir;
+   private TransferMetrics metrics;
+
+   public TransferMetricsTest() {
+
+   }
+
+   @BeforeEach
+   public void init() {
+      this.workingDir = FileUtils.createTempDir();
+      this.metrics = new TransferMetrics();
+      TransferMetrics.install(metrics);
+   }
+
+   @Test
+   public void testStreamTransfer() throws IOException {
+      AtomicLong listened = new AtomicLong();
+      AtomicLong completed = new AtomicLong();
+      metrics.addListener(new TransferMetrics.Listener() {
+         @Override
+         public void transferred(long bytes, long readNanos, long writeNanos) {
+            listened.addAndGet(bytes);
+         }
+
+         @Override
+         public void completed(TransferMetrics.Operation operation, long nanos) {
+            completed.incrementAndGet();
+         }
+      });
+
+      byte[] data = new byte[300000];
+      IO.write(new ByteArrayInputStream(data), new ByteArrayOutputStream());
+      IO.write(new ByteArrayInputStream(data), new ByteArrayOutputStream());
+
+      TransferMetrics.Snapshot snapshot = metrics.snapshot();
+      assertEquals(2 * data.length, snapshot.getBytes());
+      assertEquals(2 * data.length, listened.get());
+      assertEquals(2, completed.get());
+      assertEquals(0, snapshot.getFiles());
+      assertTrue(snapshot.getReadNanos() > 0);
+      assertTrue(snapshot.getWriteNanos() > 0);
+      assertEquals(2, snapshot.getHistogram(TransferMetrics.Operation.STREAM).getCount());
+      assertEquals(0, snapshot.getHistogram(TransferMetrics.Operation.COPY).getCount());
+
+      metrics.reset();
+      assertEquals(0, metrics.snapshot().getBytes());
+      assertEquals(0, metrics.snapshot().getHistogram(TransferMetrics.Operation.STREAM).getCount());
+   }
+
+   @Test
+   public void testCopy() throws IOException {
+      File dir = new File(workingDir, "source");
+      dir.mkdir();
+      for (int i = 0; i < 3; i++) {
+         try (FileOutputStream out = new FileOutputStream(new File(dir, "test" + i + ".txt"))) {
+            out.write(new byte[1000]);
+         }
+      }
+      File target = new File(workingDir, "target");
+      target.mkdir();
+      FileUtils.copy(dir, target);
+
+      TransferMetrics.Snapshot snapshot = metrics.snapshot();
+      assertEquals(3000, snapshot.getBytes());
+      assertEquals(3, snapshot.getFiles());
+      assertEquals(3, snapshot.getHistogram(TransferMetrics.Operation.FILE).getCount());
+      assertEquals(3, snapshot.getHistogram(TransferMetrics.Operation.COPY).getCount());
+   }
+
+   @Test
+   public void testDisabled() throws IOException {
+      assertSame(metrics, TransferMetrics.uninstall());
+      assertNull(TransferMetrics.installed());
+      IO.write(new ByteArrayInputStream(new byte[1000]), new ByteArrayOutputStream());
+      assertEquals(0, metrics.snapshot().getBytes());
+   }
+
+   @Test
+   public void testHistogram() {
+      assertEquals(0, TransferMetrics.bucketOf(0));
+      assertEquals(1, TransferMetrics.bucketOf(1));
+      assertEquals(10, TransferMetrics.bucketOf(1000));
+      assertEquals(TransferMetrics.BUCKET_COUNT - 1, TransferMetrics.bucketOf(Long.MAX_VALUE));
+
+      for (int i = 0; i < 99; i++)
+         metrics.completed(TransferMetrics.Operation.STREAM, 1000);
+      metrics.completed(TransferMetrics.Operation.STREAM, 1000000);
+
+      TransferMetrics.Histogram histogram = metrics.snapshot().getHistogram(TransferMetrics.Operation.STREAM);
+      assertEquals(100, histogram.getCount());
+      assertEquals(99, histogram.getBucket(10));
+      assertEquals(1023, histogram.getPercentile(0.5));
+      assertEquals(1023, histogram.getPercentile(0.99));
+      assertEquals((1 << 20) - 1, histogram.getPercentile(1));
+      assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(1.5));
+   }
+
+   @AfterEach
+   public void cleanUp() throws IOException {
+      TransferMetrics.uninstall();
+      FileUtils.delete(workingDir);
+   }
+}